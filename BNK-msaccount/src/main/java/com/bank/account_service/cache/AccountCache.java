@@ -0,0 +1,102 @@
+package com.bank.account_service.cache;
+
+import com.bank.account_service.dto.AccountDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Cache en proceso, acotado por tamaño y TTL. Solo byId guarda cuentas; los índices por
+// número y por cliente guardan ids, así un cambio de saldo se invalida con una sola clave.
+// Dentro de una transacción las invalidaciones esperan al commit: antes, otra lectura podría
+// volver a cargar el valor viejo y dejarlo en el cache hasta el TTL
+@Component
+public class AccountCache {
+
+    private final Cache<Long, AccountDTO> byId;
+    private final Cache<String, Long> idByNumber;
+    private final Cache<Long, List<Long>> idsByClient;
+
+    public AccountCache(@Value("${account-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${account-cache.ttl:30s}") Duration ttl) {
+        this.byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+        this.idByNumber = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+        this.idsByClient = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    // El loader puede devolver null: no se guarda y la próxima lectura vuelve a la base
+    public AccountDTO getById(Long id, Function<Long, AccountDTO> loader) {
+        return byId.get(id, loader);
+    }
+
+    public Map<Long, AccountDTO> getAllById(List<Long> ids, Function<Set<? extends Long>, Map<Long, AccountDTO>> loader) {
+        return byId.getAll(ids, loader);
+    }
+
+    public Long getIdByNumber(String accountNumber, Function<String, Long> loader) {
+        return idByNumber.get(accountNumber, loader);
+    }
+
+    public List<Long> getIdsByClient(Long clientId, Function<Long, List<Long>> loader) {
+        return idsByClient.get(clientId, loader);
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            afterCommit(() -> byId.invalidate(id));
+        }
+    }
+
+    public void evictNumber(String accountNumber) {
+        if (accountNumber != null) {
+            afterCommit(() -> idByNumber.invalidate(accountNumber));
+        }
+    }
+
+    public void evictClient(Long clientId) {
+        if (clientId != null) {
+            afterCommit(() -> idsByClient.invalidate(clientId));
+        }
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        stats.put("byId", toMap(byId));
+        stats.put("byAccountNumber", toMap(idByNumber));
+        stats.put("byClientId", toMap(idsByClient));
+        return stats;
+    }
+
+    private Map<String, Long> toMap(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("size", cache.estimatedSize());
+        values.put("hits", stats.hitCount());
+        values.put("misses", stats.missCount());
+        values.put("evictions", stats.evictionCount());
+        return values;
+    }
+}
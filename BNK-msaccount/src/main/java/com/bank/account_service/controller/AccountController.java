@@ -1,32 +1,98 @@
 package com.bank.account_service.controller;
 
+import com.bank.account_service.dto.AccountChangeDTO;
 import com.bank.account_service.dto.AccountDTO;
+import com.bank.account_service.dto.AccountEventDTO;
+import com.bank.account_service.dto.AccountTransferDTO;
+import com.bank.account_service.dto.BatchPostingDTO;
+import com.bank.account_service.service.AccountChangeService;
+import com.bank.account_service.service.AccountEventService;
+import com.bank.account_service.service.AccountPostingService;
 import com.bank.account_service.service.AccountService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/accounts")
 public class AccountController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private AccountPostingService accountPostingService;
+
+    @Autowired
+    private AccountChangeService accountChangeService;
+
+    @Autowired
+    private AccountEventService accountEventService;
+
     @GetMapping
     public ResponseEntity<List<AccountDTO>> getAllAccounts() {
         return ResponseEntity.ok(accountService.getAllAccounts());
     }
 
+    // Página por cursor: ?limit=N&after=<último id>; el siguiente cursor va en X-Next-After
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<AccountDTO>> getAccountsPage(@RequestParam int limit, @RequestParam(required = false) Long after) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<AccountDTO> page = accountService.getAccountsPage(after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(size - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    // Listado completo en streaming: ?stream=true
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllAccounts() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(accountService::writeAllAccounts);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AccountDTO> getAccountById(@PathVariable Long id) {
         AccountDTO account = accountService.getAccountById(id);
         return account != null ? ResponseEntity.ok(account) : ResponseEntity.notFound().build();
     }
 
+    @GetMapping("/number/{accountNumber}")
+    public ResponseEntity<AccountDTO> getAccountByNumber(@PathVariable String accountNumber) {
+        AccountDTO account = accountService.getAccountByNumber(accountNumber);
+        return account != null ? ResponseEntity.ok(account) : ResponseEntity.notFound().build();
+    }
+
+    // Feed de altas/bajas de cuentas: ?after=<último id visto>&limit=N
+    @GetMapping("/changes")
+    public ResponseEntity<List<AccountChangeDTO>> getAccountChanges(@RequestParam(required = false) Long after,
+                                                                    @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(accountChangeService.getChanges(after, Math.min(Math.max(limit, 1), 1000)));
+    }
+
+    @GetMapping("/changes/latest")
+    public ResponseEntity<Long> getLatestAccountChangeId() {
+        return ResponseEntity.ok(accountChangeService.getLatestChangeId());
+    }
+
+    // Contadores de aciertos/fallos/desalojos para dimensionar la cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Map<String, Long>>> getCacheStats() {
+        return ResponseEntity.ok(accountService.getCacheStats());
+    }
+
     @PostMapping
     public ResponseEntity<AccountDTO> createAccount(@RequestBody AccountDTO dto) {
         return ResponseEntity.ok(accountService.createAccount(dto));
@@ -34,7 +100,13 @@ public class AccountController {
 
     @PutMapping("/{id}")
     public ResponseEntity<AccountDTO> updateAccount(@PathVariable Long id, @RequestBody AccountDTO dto) {
-        AccountDTO updated = accountService.updateAccount(id, dto);
+        AccountDTO updated;
+        try {
+            updated = accountService.updateAccount(id, dto);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // La cuenta cambió desde que el cliente la leyó: debe volver a leerla y reenviar
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
     }
 
@@ -54,8 +126,13 @@ public class AccountController {
 
     @PatchMapping("/{id}/deposit")
     public ResponseEntity<AccountDTO> deposit(@PathVariable Long id, @RequestParam BigDecimal amount) {
-        AccountDTO updated = accountService.deposit(id, amount);
-        return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
+        try {
+            AccountDTO updated = accountService.deposit(id, amount);
+            return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Los shards de la cuenta se reconfiguraron durante todos los intentos: el cliente reintenta
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @PatchMapping("/{id}/withdraw")
@@ -68,6 +145,36 @@ public class AccountController {
         }
     }
 
+    // Débito en origen y crédito en destino en una sola transacción (usado por transfer-service)
+    @PostMapping("/transfers")
+    public ResponseEntity<AccountTransferDTO> transfer(@RequestBody AccountTransferDTO request) {
+        AccountTransferDTO result = accountService.transfer(request);
+        return "completado".equals(result.getStatus()) ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+
+    // Lote de abonos/débitos (monto con signo); cada línea informa su resultado
+    @PostMapping("/postings")
+    public ResponseEntity<BatchPostingDTO> postBatch(@RequestBody BatchPostingDTO batch) {
+        return ResponseEntity.ok(accountPostingService.post(batch));
+    }
+
+    // Eventos de los outbox de otros servicios; reenviar un evento ya aplicado devuelve el mismo resultado
+    @PostMapping("/events")
+    public ResponseEntity<List<AccountEventDTO>> applyEvents(@RequestBody List<AccountEventDTO> events) {
+        return ResponseEntity.ok(accountEventService.apply(events));
+    }
+
+    // Activa o desactiva el saldo dividido (count <= 1 vuelve al saldo normal)
+    @PatchMapping("/{id}/shards")
+    public ResponseEntity<AccountDTO> configureShards(@PathVariable Long id, @RequestParam int count) {
+        try {
+            AccountDTO updated = accountService.configureShards(id, count);
+            return updated != null ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
     // AccountController.java
 
     @GetMapping("/client/{clientId}")
@@ -9,6 +9,7 @@ public class AccountDTO {
     private String accountType;
     private BigDecimal balance;
     private String status;
+    private Long version; // versión esperada en PUT; si la fila cambió se responde 409
 
     // Getters y Setters
 
@@ -60,4 +61,12 @@ public class AccountDTO {
     public void setStatus(String status) {
         this.status = status;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.account_service.dto;
+
+import java.math.BigDecimal;
+
+// Movimiento entre dos cuentas propias: débito en origen y crédito en destino en una sola transacción
+public class AccountTransferDTO {
+    private Long originAccountId;
+    private String destinationAccountNumber;
+    private BigDecimal amount;
+    private String reference;
+    private String status;
+    private String message;
+
+    // Getters y Setters
+
+    public Long getOriginAccountId() {
+        return originAccountId;
+    }
+
+    public void setOriginAccountId(Long originAccountId) {
+        this.originAccountId = originAccountId;
+    }
+
+    public String getDestinationAccountNumber() {
+        return destinationAccountNumber;
+    }
+
+    public void setDestinationAccountNumber(String destinationAccountNumber) {
+        this.destinationAccountNumber = destinationAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,44 @@
+package com.bank.account_service.dto;
+
+import java.util.List;
+
+public class BatchPostingDTO {
+    private String mode; // ALL_OR_NOTHING o BEST_EFFORT (por defecto)
+    private List<PostingDTO> lines;
+    private int applied;
+    private int rejected;
+
+    // Getters y Setters
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public List<PostingDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<PostingDTO> lines) {
+        this.lines = lines;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+}
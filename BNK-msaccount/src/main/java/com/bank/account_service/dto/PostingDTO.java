@@ -0,0 +1,54 @@
+package com.bank.account_service.dto;
+
+import java.math.BigDecimal;
+
+// Línea de un lote de movimientos: monto positivo = abono, negativo = débito
+public class PostingDTO {
+    private Long accountId;
+    private BigDecimal amount;
+    private String reference; // única: una línea ya aplicada con la misma referencia no se repite
+    private String status;
+    private String message;
+
+    // Getters y Setters
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
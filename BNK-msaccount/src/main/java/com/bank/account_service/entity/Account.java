@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     private Long clientId; // ID referenciado al cliente
@@ -20,6 +21,15 @@ public class Account {
     private BigDecimal balance = BigDecimal.ZERO;
     private String status = "activo";
 
+    // Número de sub-saldos (account_balance_shards); 1 = saldo normal en esta fila
+    @Column(columnDefinition = "integer default 1")
+    private Integer balanceShards = 1;
+
+    // Control de concurrencia optimista para las rutas read-modify-write
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -85,6 +95,26 @@ public class Account {
         this.status = status;
     }
 
+    public Integer getBalanceShards() {
+        return balanceShards;
+    }
+
+    public void setBalanceShards(Integer balanceShards) {
+        this.balanceShards = balanceShards;
+    }
+
+    public boolean isSharded() {
+        return balanceShards != null && balanceShards > 1;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,66 @@
+package com.bank.account_service.entity;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+// Sub-saldo de una cuenta "caliente": el saldo real es la suma de todos sus shards
+@Entity
+@Table(name = "account_balance_shards",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "shard_index"}))
+public class AccountBalanceShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balance_shards_seq")
+    @SequenceGenerator(name = "account_balance_shards_seq", sequenceName = "account_balance_shards_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "shard_index", nullable = false)
+    private Integer shardIndex;
+
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    public AccountBalanceShard() {
+    }
+
+    public AccountBalanceShard(Long accountId, Integer shardIndex, BigDecimal balance) {
+        this.accountId = accountId;
+        this.shardIndex = shardIndex;
+        this.balance = balance;
+    }
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Integer getShardIndex() {
+        return shardIndex;
+    }
+
+    public void setShardIndex(Integer shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.account_service.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Registro de altas/bajas/cambios de cuentas que otros servicios leen como feed (por id creciente)
+@Entity
+@Table(name = "account_changes")
+public class AccountChange {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    // allocationSize 1: el feed se lee por id, los bloques por instancia lo desordenarían
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_changes_seq")
+    @SequenceGenerator(name = "account_changes_seq", sequenceName = "account_changes_seq", allocationSize = 1)
+    private Long id;
+
+    private Long accountId;
+    private Long clientId;
+    private String changeType;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public AccountChange() {
+    }
+
+    public AccountChange(Long accountId, Long clientId, String changeType) {
+        this.accountId = accountId;
+        this.clientId = clientId;
+        this.changeType = changeType;
+    }
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
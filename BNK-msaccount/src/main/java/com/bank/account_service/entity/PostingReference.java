@@ -0,0 +1,53 @@
+package com.bank.account_service.entity;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Referencias de líneas de lote ya aplicadas: reenviar el mismo lote no vuelve a mover dinero
+@Entity
+@Table(name = "account_posting_references")
+public class PostingReference {
+
+    @Id
+    @Column(length = 128)
+    private String reference;
+
+    private Long accountId;
+    private BigDecimal amount;
+
+    private LocalDateTime postedAt;
+
+    // Getters y Setters
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getPostedAt() {
+        return postedAt;
+    }
+
+    public void setPostedAt(LocalDateTime postedAt) {
+        this.postedAt = postedAt;
+    }
+}
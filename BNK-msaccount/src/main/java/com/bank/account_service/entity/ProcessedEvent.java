@@ -0,0 +1,52 @@
+package com.bank.account_service.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Eventos ya aplicados con su resultado: un reenvío del mismo evento devuelve este resultado sin mover dinero
+@Entity
+@Table(name = "account_processed_events")
+public class ProcessedEvent {
+
+    @Id
+    @Column(name = "event_id", length = 128)
+    private String eventId;
+
+    private String status;
+    private String message;
+
+    private LocalDateTime processedAt;
+
+    // Getters y Setters
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+}
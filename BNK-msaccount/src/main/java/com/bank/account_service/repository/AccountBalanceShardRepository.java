@@ -0,0 +1,50 @@
+package com.bank.account_service.repository;
+import com.bank.account_service.entity.AccountBalanceShard;
+
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceShardRepository extends JpaRepository<AccountBalanceShard, Long> {
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountBalanceShard s WHERE s.accountId = :accountId")
+    BigDecimal sumBalance(@Param("accountId") Long accountId);
+
+    // Una sola consulta para todas las cuentas divididas de una página o listado
+    @Query("SELECT s.accountId, SUM(s.balance) FROM AccountBalanceShard s WHERE s.accountId IN :accountIds GROUP BY s.accountId")
+    List<Object[]> sumBalances(@Param("accountIds") Collection<Long> accountIds);
+
+    // Bloqueo en orden fijo de shard_index para que dos retiros multi-shard no se bloqueen mutuamente
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceShard s WHERE s.accountId = :accountId ORDER BY s.shardIndex")
+    List<AccountBalanceShard> findAllForUpdate(@Param("accountId") Long accountId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE account_balance_shards SET balance = balance + :amount " +
+            "WHERE account_id = :accountId AND shard_index = :shardIndex", nativeQuery = true)
+    int depositToShard(@Param("accountId") Long accountId, @Param("shardIndex") int shardIndex,
+                       @Param("amount") BigDecimal amount);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE account_balance_shards SET balance = balance - :amount " +
+            "WHERE account_id = :accountId AND shard_index = :shardIndex AND balance >= :amount", nativeQuery = true)
+    int withdrawFromShard(@Param("accountId") Long accountId, @Param("shardIndex") int shardIndex,
+                          @Param("amount") BigDecimal amount);
+
+    @Transactional
+    @Modifying
+    void deleteByAccountId(Long accountId);
+}
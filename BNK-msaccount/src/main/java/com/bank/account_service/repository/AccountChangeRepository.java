@@ -0,0 +1,28 @@
+package com.bank.account_service.repository;
+import com.bank.account_service.entity.AccountChange;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AccountChangeRepository extends JpaRepository<AccountChange, Long> {
+
+    List<AccountChange> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM AccountChange c")
+    Long findLatestId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AccountChange c WHERE c.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
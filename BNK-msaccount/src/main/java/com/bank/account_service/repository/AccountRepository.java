@@ -2,22 +2,37 @@ package com.bank.account_service.repository;
 //import com.bank.account_service.dto.AccountDTO;
 import com.bank.account_service.entity.Account;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 // import org.springframework.data.jpa.repository.Modifying;
 // import org.springframework.data.jpa.repository.Query;
 // import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByClientId(Long clientId);
 
+    // Solo ids: el índice por cliente de AccountCache no guarda cuentas
+    @Query("SELECT a.id FROM Account a WHERE a.clientId = :clientId ORDER BY a.id")
+    List<Long> findIdsByClientId(@Param("clientId") Long clientId);
+
     // Opción 1: Query personalizada
     // @Modifying
     // @Query("DELETE FROM accounts a WHERE a.account_number = :accountNumber")
@@ -25,11 +40,49 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     // ✅ CORRECTO: Sin guión bajo
     Optional<Account> findByAccountNumber(String accountNumber);
-    
+
 
     @Transactional
     @Modifying
     void deleteByAccountNumber(String accountNumber);
 
-}
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    // Cantidad de shards sin cargar la entidad; la versión FOR UPDATE toma el mismo candado que configureShards
+    @Query(value = "SELECT COALESCE(balance_shards, 1) FROM accounts WHERE id = :id", nativeQuery = true)
+    Optional<Integer> findBalanceShards(@Param("id") Long id);
+
+    @Query(value = "SELECT COALESCE(balance_shards, 1) FROM accounts WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockBalanceShards(@Param("id") Long id);
+
+    @Query("SELECT a.id FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Bloqueo de varias cuentas siempre en orden de id: dos transferencias cruzadas no se bloquean mutuamente
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 
+    // Abono atómico en una sola sentencia: sin findById + save ni actualizaciones perdidas
+    @Transactional
+    @Query(value = "UPDATE accounts SET balance = balance + :amount, version = version + 1, updated_at = now() " +
+            "WHERE id = :id AND COALESCE(balance_shards, 1) <= 1 RETURNING *", nativeQuery = true)
+    Optional<Account> depositAtomically(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    // Débito condicional: solo se aplica si hay fondos suficientes, si no no devuelve fila
+    @Transactional
+    @Query(value = "UPDATE accounts SET balance = balance - :amount, version = version + 1, updated_at = now() " +
+            "WHERE id = :id AND COALESCE(balance_shards, 1) <= 1 AND balance >= :amount RETURNING *", nativeQuery = true)
+    Optional<Account> withdrawAtomically(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Lectura en streaming con fetch size fijo (requiere transacción abierta)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Account> streamAllByOrderByIdAsc();
+}
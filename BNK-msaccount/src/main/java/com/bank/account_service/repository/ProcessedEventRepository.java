@@ -0,0 +1,19 @@
+package com.bank.account_service.repository;
+import com.bank.account_service.entity.ProcessedEvent;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    // Reclama el evento; 0 filas si ya se procesó (o lo está procesando otra transacción, que se espera)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO account_processed_events (event_id, status, message, processed_at) " +
+            "VALUES (:eventId, :status, :message, now()) ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int claim(@Param("eventId") String eventId, @Param("status") String status, @Param("message") String message);
+}
@@ -0,0 +1,52 @@
+package com.bank.account_service.service;
+import com.bank.account_service.dto.AccountChangeDTO;
+import com.bank.account_service.entity.AccountChange;
+import com.bank.account_service.repository.AccountChangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Feed de cambios de cuentas para que otros servicios mantengan sus caches sin consultar cada vez
+@Service
+public class AccountChangeService {
+
+    @Autowired
+    private AccountChangeRepository accountChangeRepository;
+
+    @Value("${account-changes.retention-days:7}")
+    private int retentionDays;
+
+    public void record(Long accountId, Long clientId, String changeType) {
+        accountChangeRepository.save(new AccountChange(accountId, clientId, changeType));
+    }
+
+    public List<AccountChangeDTO> getChanges(Long after, int limit) {
+        return accountChangeRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit))
+                .stream().map(this::mapToDTO).collect(Collectors.toList());
+    }
+
+    public Long getLatestChangeId() {
+        return accountChangeRepository.findLatestId();
+    }
+
+    @Scheduled(cron = "${account-changes.purge-cron:0 0 3 * * *}")
+    public void purgeOldChanges() {
+        accountChangeRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    private AccountChangeDTO mapToDTO(AccountChange change) {
+        AccountChangeDTO dto = new AccountChangeDTO();
+        dto.setId(change.getId());
+        dto.setAccountId(change.getAccountId());
+        dto.setClientId(change.getClientId());
+        dto.setChangeType(change.getChangeType());
+        dto.setCreatedAt(change.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,89 @@
+package com.bank.account_service.service;
+import com.bank.account_service.dto.AccountEventDTO;
+import com.bank.account_service.entity.ProcessedEvent;
+import com.bank.account_service.repository.ProcessedEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Receptor de los outbox de transfer-service y payment-service. Cada evento se aplica una sola vez:
+// el registro en account_processed_events se inserta en la misma transacción que el movimiento
+@Service
+public class AccountEventService {
+
+    public static final String TRANSFER_CREATED = "TRANSFER_CREATED";
+    public static final String PAYMENT_CREATED = "PAYMENT_CREATED";
+
+    public static final String COMPLETED = "completado";
+    public static final String FAILED = "fallido";
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private AccountTransferService accountTransferService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Se aplican en el orden recibido: el emisor ya los ordena por cuenta
+    public List<AccountEventDTO> apply(List<AccountEventDTO> events) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (AccountEventDTO event : events) {
+            if (event.getEventId() == null || event.getAccountId() == null
+                    || event.getAmount() == null || event.getAmount().signum() <= 0) {
+                event.setStatus(FAILED);
+                event.setMessage("Evento inválido.");
+                continue;
+            }
+            try {
+                transaction.executeWithoutResult(status -> applyOnce(event));
+            } catch (IllegalArgumentException e) {
+                // Rechazo de negocio: el movimiento se revirtió, pero el resultado también se recuerda
+                transaction.executeWithoutResult(status -> {
+                    if (processedEventRepository.claim(event.getEventId(), FAILED, e.getMessage()) == 0) {
+                        copyResult(event);
+                    } else {
+                        event.setStatus(FAILED);
+                        event.setMessage(e.getMessage());
+                    }
+                });
+            }
+            accountService.evictFromCache(event.getAccountId());
+        }
+        return events;
+    }
+
+    private void applyOnce(AccountEventDTO event) {
+        if (processedEventRepository.claim(event.getEventId(), COMPLETED, null) == 0) {
+            copyResult(event); // duplicado: no se vuelve a aplicar
+            return;
+        }
+
+        if (TRANSFER_CREATED.equals(event.getEventType())) {
+            Long destinationId = accountTransferService.transfer(event.getAccountId(),
+                    event.getDestinationAccountNumber(), event.getAmount());
+            accountService.evictFromCache(destinationId); // AccountCache la aplica al confirmar
+        } else if (PAYMENT_CREATED.equals(event.getEventType())) {
+            if (accountService.withdraw(event.getAccountId(), event.getAmount()) == null) {
+                throw new IllegalArgumentException("Cuenta no encontrada.");
+            }
+        } else {
+            throw new IllegalArgumentException("Tipo de evento desconocido.");
+        }
+        event.setStatus(COMPLETED);
+        event.setMessage(null);
+    }
+
+    private void copyResult(AccountEventDTO event) {
+        ProcessedEvent processed = processedEventRepository.findById(event.getEventId()).orElseThrow();
+        event.setStatus(processed.getStatus());
+        event.setMessage(processed.getMessage());
+    }
+}
@@ -0,0 +1,223 @@
+package com.bank.account_service.service;
+import com.bank.account_service.dto.BatchPostingDTO;
+import com.bank.account_service.dto.PostingDTO;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Aplicación de lotes de abonos/débitos con batching JDBC, en transacciones por bloque
+@Service
+public class AccountPostingService {
+
+    public static final String ALL_OR_NOTHING = "ALL_OR_NOTHING";
+    public static final String BEST_EFFORT = "BEST_EFFORT";
+
+    public static final String APPLIED = "aplicado";
+    public static final String REJECTED = "rechazado";
+    public static final String ROLLED_BACK = "revertido";
+    public static final String DUPLICATE = "duplicado";
+
+    private static final int CHUNK_SIZE = 500;
+
+    // Condicional: un débito solo se aplica si el saldo no queda negativo
+    private static final String POSTING_SQL = "UPDATE accounts SET balance = balance + ?, version = version + 1, " +
+            "updated_at = now() WHERE id = ? AND COALESCE(balance_shards, 1) <= 1 AND balance + ? >= 0";
+
+    // 0 filas si la referencia ya se aplicó (o la está aplicando otra transacción, que se espera)
+    private static final String CLAIM_REFERENCE_SQL = "INSERT INTO account_posting_references " +
+            "(reference, account_id, amount, posted_at) VALUES (?, ?, ?, now()) ON CONFLICT (reference) DO NOTHING";
+
+    private static final String RELEASE_REFERENCE_SQL = "DELETE FROM account_posting_references WHERE reference = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    public BatchPostingDTO post(BatchPostingDTO batch) {
+        List<PostingDTO> lines = batch.getLines() != null ? batch.getLines() : new ArrayList<>();
+        boolean allOrNothing = ALL_OR_NOTHING.equalsIgnoreCase(batch.getMode());
+
+        List<PostingDTO> valid = new ArrayList<>(lines.size());
+        for (PostingDTO line : lines) {
+            if (line.getAccountId() == null || line.getAmount() == null || line.getAmount().signum() == 0
+                    || (line.getReference() != null && line.getReference().length() > 128)) {
+                reject(line, "Línea inválida.");
+            } else {
+                valid.add(line);
+            }
+        }
+        // Orden estable por cuenta: todas las transacciones bloquean filas en el mismo orden
+        valid.sort(Comparator.comparing(PostingDTO::getAccountId));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        if (!allOrNothing) {
+            for (List<PostingDTO> chunk : chunks(valid)) {
+                transaction.executeWithoutResult(status -> applyChunk(chunk));
+                evictFromCache(chunk);
+            }
+        } else if (valid.size() < lines.size()) {
+            rollBack(valid);
+        } else {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    for (List<PostingDTO> chunk : chunks(valid)) {
+                        if (!applyChunk(chunk)) {
+                            throw new IllegalStateException("Lote rechazado.");
+                        }
+                    }
+                });
+            } catch (IllegalStateException e) {
+                rollBack(valid);
+            }
+            evictFromCache(valid);
+        }
+
+        BatchPostingDTO result = new BatchPostingDTO();
+        result.setMode(allOrNothing ? ALL_OR_NOTHING : BEST_EFFORT);
+        result.setLines(lines);
+        result.setApplied((int) lines.stream().filter(line -> APPLIED.equals(line.getStatus())).count());
+        result.setRejected((int) lines.stream().filter(line -> !APPLIED.equals(line.getStatus())
+                && !DUPLICATE.equals(line.getStatus())).count());
+        return result;
+    }
+
+    // Devuelve true si todas las líneas del bloque se aplicaron (o ya estaban aplicadas)
+    private boolean applyChunk(List<PostingDTO> all) {
+        List<PostingDTO> chunk = claimReferences(all);
+        if (chunk.isEmpty()) {
+            return true;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(POSTING_SQL, chunk, chunk.size(), (ps, line) -> {
+            ps.setBigDecimal(1, line.getAmount());
+            ps.setLong(2, line.getAccountId());
+            ps.setBigDecimal(3, line.getAmount());
+        });
+
+        List<PostingDTO> pending = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (counts[0][i] == 1) {
+                chunk.get(i).setStatus(APPLIED);
+                chunk.get(i).setMessage(null);
+            } else {
+                pending.add(chunk.get(i));
+            }
+        }
+        if (pending.isEmpty()) {
+            return true;
+        }
+
+        // Sin fila afectada: cuenta inexistente, sin fondos o con saldo dividido (ruta individual)
+        Map<Long, Account> accounts = accountRepository.findAllById(
+                        pending.stream().map(PostingDTO::getAccountId).distinct().collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Account::getId, Function.identity()));
+        boolean allApplied = true;
+        for (PostingDTO line : pending) {
+            Account account = accounts.get(line.getAccountId());
+            if (account == null) {
+                reject(line, "Cuenta no encontrada.");
+            } else if (account.isSharded() && applySharded(line)) {
+                line.setStatus(APPLIED);
+                line.setMessage(null);
+                continue;
+            } else {
+                reject(line, "Fondos insuficientes.");
+            }
+            allApplied = false;
+        }
+        releaseReferences(pending);
+        return allApplied;
+    }
+
+    // Registra las referencias del bloque en su misma transacción; devuelve las líneas a aplicar
+    private List<PostingDTO> claimReferences(List<PostingDTO> chunk) {
+        List<PostingDTO> referenced = chunk.stream().filter(line -> line.getReference() != null)
+                .collect(Collectors.toList());
+        if (referenced.isEmpty()) {
+            return chunk;
+        }
+        int[][] claimed = jdbcTemplate.batchUpdate(CLAIM_REFERENCE_SQL, referenced, referenced.size(), (ps, line) -> {
+            ps.setString(1, line.getReference());
+            ps.setLong(2, line.getAccountId());
+            ps.setBigDecimal(3, line.getAmount());
+        });
+        Set<PostingDTO> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < referenced.size(); i++) {
+            if (claimed[0][i] == 0) {
+                referenced.get(i).setStatus(DUPLICATE);
+                referenced.get(i).setMessage("Referencia ya aplicada.");
+                duplicates.add(referenced.get(i));
+            }
+        }
+        return duplicates.isEmpty() ? chunk
+                : chunk.stream().filter(line -> !duplicates.contains(line)).collect(Collectors.toList());
+    }
+
+    // Una línea rechazada no deja su referencia: se puede reenviar cuando haya fondos
+    private void releaseReferences(List<PostingDTO> lines) {
+        List<String> rejected = lines.stream()
+                .filter(line -> REJECTED.equals(line.getStatus()) && line.getReference() != null)
+                .map(PostingDTO::getReference).collect(Collectors.toList());
+        if (!rejected.isEmpty()) {
+            jdbcTemplate.batchUpdate(RELEASE_REFERENCE_SQL, rejected, rejected.size(),
+                    (ps, reference) -> ps.setString(1, reference));
+        }
+    }
+
+    private boolean applySharded(PostingDTO line) {
+        try {
+            return line.getAmount().signum() > 0
+                    ? accountService.deposit(line.getAccountId(), line.getAmount()) != null
+                    : accountService.withdraw(line.getAccountId(), line.getAmount().negate()) != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void evictFromCache(List<PostingDTO> lines) {
+        lines.stream().map(PostingDTO::getAccountId).distinct().forEach(accountService::evictFromCache);
+    }
+
+    private void rollBack(List<PostingDTO> lines) {
+        for (PostingDTO line : lines) {
+            if (!REJECTED.equals(line.getStatus()) && !DUPLICATE.equals(line.getStatus())) {
+                line.setStatus(ROLLED_BACK);
+                line.setMessage("Lote revertido por una línea rechazada.");
+            }
+        }
+    }
+
+    private void reject(PostingDTO line, String message) {
+        line.setStatus(REJECTED);
+        line.setMessage(message);
+    }
+
+    private List<List<PostingDTO>> chunks(List<PostingDTO> lines) {
+        List<List<PostingDTO>> chunks = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i += CHUNK_SIZE) {
+            chunks.add(lines.subList(i, Math.min(i + CHUNK_SIZE, lines.size())));
+        }
+        return chunks;
+    }
+}
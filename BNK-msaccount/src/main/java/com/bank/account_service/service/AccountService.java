@@ -1,58 +1,192 @@
 package com.bank.account_service.service;
+import com.bank.account_service.cache.AccountCache;
 import com.bank.account_service.dto.AccountDTO;
+import com.bank.account_service.dto.AccountTransferDTO;
 import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.AccountChange;
 import com.bank.account_service.repository.AccountRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AccountService {
 
+    // Reintentos de un depósito cuando la cuenta cambia de configuración de shards entre la lectura y el abono
+    private static final int MAX_DEPOSIT_ATTEMPTS = 3;
+
+    // Filas por consulta de saldos divididos al escribir el listado completo
+    private static final int STREAM_BATCH = 500;
+
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AccountShardService accountShardService;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private AccountChangeService accountChangeService;
+
+    @Autowired
+    private AccountTransferService accountTransferService;
+
     public List<AccountDTO> getAllAccounts() {
-        return accountRepository.findAll().stream().map(this::mapToDTO).collect(Collectors.toList());
+        return mapToDTOs(accountRepository.findAll());
+    }
+
+    public List<AccountDTO> getAccountsPage(Long after, int limit) {
+        return mapToDTOs(accountRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit)));
+    }
+
+    // Escribe el arreglo JSON a medida que se leen las filas; memoria constante sin importar el tamaño
+    @Transactional(readOnly = true)
+    public void writeAllAccounts(OutputStream out) throws IOException {
+        try (Stream<Account> rows = accountRepository.streamAllByOrderByIdAsc();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            Iterator<Account> it = rows.iterator();
+            List<Account> batch = new ArrayList<>(STREAM_BATCH);
+            while (it.hasNext()) {
+                Account row = it.next();
+                batch.add(row);
+                entityManager.detach(row);
+                if (batch.size() == STREAM_BATCH || !it.hasNext()) {
+                    for (AccountDTO dto : mapToDTOs(batch)) {
+                        json.writeObject(dto);
+                    }
+                    batch.clear();
+                }
+            }
+            json.writeEndArray();
+        }
     }
 
     public AccountDTO getAccountById(Long id) {
-        return accountRepository.findById(id).map(this::mapToDTO).orElse(null);
+        return accountCache.getById(id, key -> accountRepository.findById(key).map(this::mapToDTO).orElse(null));
     }
 
+    public AccountDTO getAccountByNumber(String accountNumber) {
+        Long id = accountCache.getIdByNumber(accountNumber,
+                key -> accountRepository.findByAccountNumber(key).map(Account::getId).orElse(null));
+        return id != null ? getAccountById(id) : null;
+    }
+
+    // La cuenta y su registro en el feed de cambios se confirman juntos
+    @Transactional
     public AccountDTO createAccount(AccountDTO dto) {
         Account account = mapToEntity(dto);
-        return mapToDTO(accountRepository.save(account));
+        AccountDTO created = mapToDTO(accountRepository.save(account));
+        accountCache.evictClient(created.getClientId());
+        accountCache.evictNumber(created.getAccountNumber());
+        accountChangeService.record(created.getId(), created.getClientId(), AccountChange.CREATED);
+        return created;
     }
 
+    // Reemplaza los datos de la cuenta, incluido el saldo absoluto. Si dto.version no coincide con la fila
+    // (otro cambio, p. ej. un depósito, llegó antes) lanza ObjectOptimisticLockingFailureException: no se
+    // reintenta, porque reaplicar el saldo del DTO borraría ese cambio. Sin version se usa la leída aquí
+    @Transactional
     public AccountDTO updateAccount(Long id, AccountDTO dto) {
-        return accountRepository.findById(id).map(account -> {
+        AccountDTO updated = accountRepository.findById(id).map(account -> {
+            if (dto.getVersion() != null && !dto.getVersion().equals(account.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Account.class, id);
+            }
+            // El número o el cliente pueden cambiar: se invalidan los índices viejos
+            accountCache.evictNumber(account.getAccountNumber());
+            accountCache.evictClient(account.getClientId());
+            if (!Objects.equals(account.getClientId(), dto.getClientId())) {
+                // La cuenta cambia de cliente: ambos clientes deben refrescar su lista de cuentas
+                accountChangeService.record(id, account.getClientId(), AccountChange.UPDATED);
+                accountChangeService.record(id, dto.getClientId(), AccountChange.UPDATED);
+            }
             account.setAccountNumber(dto.getAccountNumber());
             account.setClientId(dto.getClientId());
             account.setAccountType(dto.getAccountType());
-            account.setBalance(dto.getBalance());
             account.setStatus(dto.getStatus());
-            return mapToDTO(accountRepository.save(account));
+            if (account.isSharded()) {
+                accountShardService.resetBalance(id, dto.getBalance());
+            } else {
+                account.setBalance(dto.getBalance());
+            }
+            return mapToDTO(accountRepository.saveAndFlush(account));
         }).orElse(null);
+        if (updated != null) {
+            accountCache.evict(id);
+            accountCache.evictNumber(updated.getAccountNumber());
+            accountCache.evictClient(updated.getClientId());
+        }
+        return updated;
     }
 
+    // Shards, cuenta y cambio DELETED en una sola transacción: nunca queda una cuenta sin sus sub-saldos
+    @Transactional
     public void deleteAccount(String accountNumber) {
         // Validar que la cuenta existe antes de eliminar
-        // Eliminar la cuenta
+        // Eliminar la cuenta (y sus sub-saldos si estaba dividida)
+        Account account = accountRepository.findByAccountNumber(accountNumber).orElse(null);
+        if (account != null && account.isSharded()) {
+            accountShardService.deleteShards(account.getId());
+        }
         accountRepository.deleteByAccountNumber(accountNumber);
+        accountCache.evictNumber(accountNumber);
+        if (account != null) {
+            accountCache.evict(account.getId());
+            accountCache.evictClient(account.getClientId());
+            accountChangeService.record(account.getId(), account.getClientId(), AccountChange.DELETED);
+        }
     }
 
     private AccountDTO mapToDTO(Account account) {
+        return mapToDTO(account, account.isSharded() ? accountShardService.totalBalance(account.getId()) : account.getBalance());
+    }
+
+    // Listados: una sola suma agrupada para todas las cuentas divididas, en vez de una por cuenta
+    private List<AccountDTO> mapToDTOs(List<Account> accounts) {
+        List<Long> sharded = accounts.stream().filter(Account::isSharded).map(Account::getId).collect(Collectors.toList());
+        Map<Long, BigDecimal> totals = accountShardService.totalBalances(sharded);
+        return accounts.stream()
+                .map(account -> mapToDTO(account, account.isSharded()
+                        ? totals.getOrDefault(account.getId(), BigDecimal.ZERO) : account.getBalance()))
+                .collect(Collectors.toList());
+    }
+
+    private AccountDTO mapToDTO(Account account, BigDecimal balance) {
         AccountDTO dto = new AccountDTO();
         dto.setId(account.getId());
         dto.setClientId(account.getClientId());
         dto.setAccountNumber(account.getAccountNumber());
         dto.setAccountType(account.getAccountType());
-        dto.setBalance(account.getBalance());
+        dto.setBalance(balance);
         dto.setStatus(account.getStatus());
+        dto.setVersion(account.getVersion());
         return dto;
     }
 
@@ -67,25 +201,91 @@ public class AccountService {
     }
 
     public AccountDTO deposit(Long id, BigDecimal amount) {
-        return accountRepository.findById(id).map(account -> {
-            account.setBalance(account.getBalance().add(amount));
-            return mapToDTO(accountRepository.save(account));
-        }).orElse(null);
+        AccountDTO updated = applyDeposit(id, amount);
+        accountCache.evict(id);
+        return updated;
     }
 
     public AccountDTO withdraw(Long id, BigDecimal amount) {
-        return accountRepository.findById(id).map(account -> {
-            if (account.getBalance().compareTo(amount) < 0) {
-                throw new IllegalArgumentException("Fondos insuficientes.");
+        AccountDTO updated = applyWithdraw(id, amount);
+        accountCache.evict(id);
+        return updated;
+    }
+
+    private AccountDTO applyDeposit(Long id, BigDecimal amount) {
+        for (int attempt = 0; attempt < MAX_DEPOSIT_ATTEMPTS; attempt++) {
+            Optional<Account> direct = accountRepository.depositAtomically(id, amount);
+            if (direct.isPresent()) {
+                return mapToDTO(direct.get());
             }
-            account.setBalance(account.getBalance().subtract(amount));
-            return mapToDTO(accountRepository.save(account));
-        }).orElse(null);
+            // Sin fila: la cuenta no existe o usa saldo dividido en shards
+            Account account = accountRepository.findById(id).orElse(null);
+            if (account == null || !account.isSharded()) {
+                return null;
+            }
+            if (accountShardService.deposit(account, amount)) {
+                return mapToDTO(account);
+            }
+            // El shard elegido ya no existe: se reconfiguraron los shards entre medio, se vuelve a leer
+        }
+        throw new ObjectOptimisticLockingFailureException(Account.class, id);
+    }
+
+    private AccountDTO applyWithdraw(Long id, BigDecimal amount) {
+        return accountRepository.withdrawAtomically(id, amount).map(this::mapToDTO).orElseGet(() -> {
+            // La sentencia no devolvió fila: la cuenta no existe, usa shards o no alcanzan los fondos.
+            // Solo el número de shards: cargar la entidad antes del candado dejaría una copia vieja en el contexto
+            Integer shards = accountRepository.findBalanceShards(id).orElse(null);
+            if (shards == null) {
+                return null;
+            }
+            // Sin candado primero; "sin fondos" se decide con la cuenta bloqueada, porque configureShards
+            // puede estar moviendo el saldo entre la cuenta y los shards
+            if ((shards > 1 && accountShardService.withdrawFromSingleShard(id, shards, amount))
+                    || accountShardService.withdrawLocked(id, amount)) {
+                return accountRepository.findById(id).map(this::mapToDTO).orElse(null);
+            }
+            throw new IllegalArgumentException("Fondos insuficientes.");
+        });
+    }
+
+    // Transferencia interna atómica; el resultado va en status/message del mismo DTO
+    public AccountTransferDTO transfer(AccountTransferDTO request) {
+        try {
+            Long destinationId = accountTransferService.transfer(request.getOriginAccountId(),
+                    request.getDestinationAccountNumber(), request.getAmount());
+            accountCache.evict(request.getOriginAccountId());
+            accountCache.evict(destinationId);
+            request.setStatus("completado");
+            request.setMessage(null);
+        } catch (IllegalArgumentException e) {
+            request.setStatus("fallido");
+            request.setMessage(e.getMessage());
+        }
+        return request;
+    }
+
+    public AccountDTO configureShards(Long id, int shardCount) {
+        Account account = accountShardService.configureShards(id, shardCount);
+        accountCache.evict(id);
+        return account != null ? mapToDTO(account) : null;
     }
 
     public List<AccountDTO> getAccountsByClientId(Long clientId) {
-        List<Account> accounts = accountRepository.findByClientId(clientId);
-        return accounts.stream().map(this::mapToDTO).collect(Collectors.toList());
+        // El loader solo trae ids: guardar aquí las cuentas podría pisar una invalidación concurrente
+        List<Long> ids = accountCache.getIdsByClient(clientId, accountRepository::findIdsByClientId);
+        Map<Long, AccountDTO> accounts = accountCache.getAllById(ids, missing -> mapToDTOs(accountRepository.findAllById(new ArrayList<Long>(missing)))
+                .stream().collect(Collectors.toMap(AccountDTO::getId, Function.identity())));
+        return ids.stream().map(accounts::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    public Map<String, Map<String, Long>> getCacheStats() {
+        return accountCache.stats();
+    }
+
+    // Usado por los lotes JDBC, que modifican saldos sin pasar por este servicio
+    public void evictFromCache(Long id) {
+        accountCache.evict(id);
     }
 
 
@@ -0,0 +1,150 @@
+package com.bank.account_service.service;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.AccountBalanceShard;
+import com.bank.account_service.repository.AccountBalanceShardRepository;
+import com.bank.account_service.repository.AccountRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Saldos divididos en N filas para cuentas con mucha contención (recaudadoras, planillas).
+// Los abonos van a un shard aleatorio y el saldo exacto se calcula sumando al leer.
+@Service
+public class AccountShardService {
+
+    public static final int MAX_SHARDS = 64;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceShardRepository shardRepository;
+
+    public BigDecimal totalBalance(Long accountId) {
+        return shardRepository.sumBalance(accountId);
+    }
+
+    // Saldo por cuenta; las que no tienen shards no aparecen en el mapa
+    public Map<Long, BigDecimal> totalBalances(Collection<Long> accountIds) {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return totals;
+        }
+        for (Object[] row : shardRepository.sumBalances(accountIds)) {
+            totals.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        return totals;
+    }
+
+    // Activa (shardCount > 1) o desactiva (shardCount <= 1) el modo de saldo dividido
+    @Transactional
+    public Account configureShards(Long accountId, int shardCount) {
+        if (shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("Máximo " + MAX_SHARDS + " shards por cuenta.");
+        }
+        Account account = accountRepository.findByIdForUpdate(accountId).orElse(null);
+        if (account == null) {
+            return null;
+        }
+        BigDecimal total = collapse(account);
+        if (shardCount <= 1) {
+            account.setBalance(total);
+            account.setBalanceShards(1);
+        } else {
+            List<AccountBalanceShard> shards = new ArrayList<>(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                shards.add(new AccountBalanceShard(accountId, i, i == 0 ? total : BigDecimal.ZERO));
+            }
+            shardRepository.saveAll(shards);
+            account.setBalance(BigDecimal.ZERO);
+            account.setBalanceShards(shardCount);
+        }
+        return accountRepository.save(account);
+    }
+
+    // Reemplaza el saldo total de una cuenta dividida (usado por updateAccount)
+    @Transactional
+    public void resetBalance(Long accountId, BigDecimal balance) {
+        List<AccountBalanceShard> shards = shardRepository.findAllForUpdate(accountId);
+        for (AccountBalanceShard shard : shards) {
+            shard.setBalance(shard.getShardIndex() == 0 ? balance : BigDecimal.ZERO);
+        }
+        shardRepository.saveAll(shards);
+    }
+
+    public boolean deposit(Account account, BigDecimal amount) {
+        int shard = ThreadLocalRandom.current().nextInt(account.getBalanceShards());
+        return shardRepository.depositToShard(account.getId(), shard, amount) == 1;
+    }
+
+    // Ruta rápida: un débito condicional sobre un solo shard, empezando por uno aleatorio
+    public boolean withdrawFromSingleShard(Long accountId, int count, BigDecimal amount) {
+        int start = ThreadLocalRandom.current().nextInt(count);
+        for (int i = 0; i < count; i++) {
+            if (shardRepository.withdrawFromShard(accountId, (start + i) % count, amount) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Débito con la fila de la cuenta bloqueada: configureShards toma el mismo candado, así el saldo no
+    // pasa de la cuenta a los shards (o al revés) entre la lectura del modo y el débito. Devuelve false
+    // si la cuenta no existe o no alcanzan los fondos
+    @Transactional
+    public boolean withdrawLocked(Long accountId, BigDecimal amount) {
+        Integer shards = accountRepository.lockBalanceShards(accountId).orElse(null);
+        if (shards == null) {
+            return false;
+        }
+        if (shards <= 1) {
+            return accountRepository.withdrawAtomically(accountId, amount).isPresent();
+        }
+        return withdrawAcrossShards(accountId, amount);
+    }
+
+    // Ruta lenta: ningún shard alcanza por sí solo, se bloquean todos y se drena en orden.
+    // Quien llama ya tiene bloqueada la fila de la cuenta
+    @Transactional
+    public boolean withdrawAcrossShards(Long accountId, BigDecimal amount) {
+        List<AccountBalanceShard> shards = shardRepository.findAllForUpdate(accountId);
+        BigDecimal total = shards.stream().map(AccountBalanceShard::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (shards.isEmpty() || total.compareTo(amount) < 0) {
+            return false;
+        }
+        BigDecimal remaining = amount;
+        for (AccountBalanceShard shard : shards) {
+            if (remaining.signum() == 0) {
+                break;
+            }
+            BigDecimal taken = shard.getBalance().min(remaining);
+            shard.setBalance(shard.getBalance().subtract(taken));
+            remaining = remaining.subtract(taken);
+        }
+        shardRepository.saveAll(shards);
+        return true;
+    }
+
+    public void deleteShards(Long accountId) {
+        shardRepository.deleteByAccountId(accountId);
+    }
+
+    private BigDecimal collapse(Account account) {
+        if (!account.isSharded()) {
+            return account.getBalance();
+        }
+        List<AccountBalanceShard> shards = shardRepository.findAllForUpdate(account.getId());
+        BigDecimal total = shards.stream().map(AccountBalanceShard::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        shardRepository.deleteAll(shards);
+        shardRepository.flush();
+        return total;
+    }
+}
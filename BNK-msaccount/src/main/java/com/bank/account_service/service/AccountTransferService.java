@@ -0,0 +1,64 @@
+package com.bank.account_service.service;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.repository.AccountRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Motor de transferencias internas: ambas cuentas se bloquean en orden de id y el
+// débito/crédito se confirma o revierte junto
+@Service
+public class AccountTransferService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountShardService accountShardService;
+
+    // Devuelve el id de la cuenta destino; lanza IllegalArgumentException si se rechaza
+    // e IllegalStateException si el crédito no se pudo aplicar (se revierte también el débito)
+    @Transactional
+    public Long transfer(Long originId, String destinationAccountNumber, BigDecimal amount) {
+        if (originId == null || amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Datos de transferencia inválidos.");
+        }
+        // Solo el id: cargar la entidad antes del bloqueo dejaría una copia vieja en el contexto
+        Long destinationId = accountRepository.findIdByAccountNumber(destinationAccountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta destino no encontrada."));
+        if (originId.equals(destinationId)) {
+            throw new IllegalArgumentException("La cuenta origen y destino son la misma.");
+        }
+
+        List<Account> locked = accountRepository.findAllByIdForUpdate(List.of(originId, destinationId));
+        Account origin = locked.stream().filter(a -> a.getId().equals(originId)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta origen no encontrada."));
+        Account destination = locked.stream().filter(a -> a.getId().equals(destinationId)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta destino no encontrada."));
+
+        if (origin.isSharded()) {
+            if (!accountShardService.withdrawAcrossShards(originId, amount)) {
+                throw new IllegalArgumentException("Fondos insuficientes.");
+            }
+        } else {
+            if (origin.getBalance().compareTo(amount) < 0) {
+                throw new IllegalArgumentException("Fondos insuficientes.");
+            }
+            origin.setBalance(origin.getBalance().subtract(amount));
+        }
+
+        if (destination.isSharded()) {
+            // Con la cuenta bloqueada el número de shards no cambia: si falta el shard elegido
+            // los datos están inconsistentes y no se puede perder el crédito en silencio
+            if (!accountShardService.deposit(destination, amount)) {
+                throw new IllegalStateException("No se pudo acreditar la cuenta destino.");
+            }
+        } else {
+            destination.setBalance(destination.getBalance().add(amount));
+        }
+        return destinationId;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.account_service;
+
+import com.bank.account_service.cache.AccountCache;
+import com.bank.account_service.dto.AccountDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTests {
+
+	// Verifica que la segunda lectura no llegue al loader y que los contadores lo reflejen
+	@Test
+	void readThroughCountsHitsAndMisses() {
+		AccountCache cache = new AccountCache(100, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getById(1L, id -> { loads.incrementAndGet(); return account(id); });
+		cache.getById(1L, id -> { loads.incrementAndGet(); return account(id); });
+
+		assertEquals(1, loads.get());
+		assertEquals(1L, cache.stats().get("byId").get("hits"));
+		assertEquals(1L, cache.stats().get("byId").get("misses"));
+	}
+
+	// Verifica que evict obligue a recargar la cuenta (p. ej. después de un depósito)
+	@Test
+	void evictForcesReload() {
+		AccountCache cache = new AccountCache(100, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getById(1L, id -> { loads.incrementAndGet(); return account(id); });
+		cache.evict(1L);
+		cache.getById(1L, id -> { loads.incrementAndGet(); return account(id); });
+
+		assertEquals(2, loads.get());
+	}
+
+	// Verifica que dentro de una transacción la invalidación espere al commit
+	@Test
+	void evictInsideTransactionWaitsForCommit() {
+		AccountCache cache = new AccountCache(100, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+		cache.getById(1L, id -> { loads.incrementAndGet(); return account(id); });
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.evict(1L);
+			cache.getById(1L, id -> { loads.incrementAndGet(); return account(id); });
+			assertEquals(1, loads.get());
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		cache.getById(1L, id -> { loads.incrementAndGet(); return account(id); });
+		assertEquals(2, loads.get());
+	}
+
+	// Verifica que una cuenta inexistente (null) no quede guardada
+	@Test
+	void missingAccountIsNotCached() {
+		AccountCache cache = new AccountCache(100, Duration.ofMinutes(1));
+
+		assertNull(cache.getById(99L, id -> null));
+		assertNotNull(cache.getById(99L, this::account));
+	}
+
+	private AccountDTO account(Long id) {
+		AccountDTO dto = new AccountDTO();
+		dto.setId(id);
+		return dto;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.bank.account_service;
+
+import com.bank.account_service.dto.AccountChangeDTO;
+import com.bank.account_service.entity.AccountChange;
+import com.bank.account_service.repository.AccountChangeRepository;
+import com.bank.account_service.service.AccountChangeService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountChangeServiceTests {
+
+	@Mock
+	private AccountChangeRepository accountChangeRepository;
+
+	@InjectMocks
+	private AccountChangeService accountChangeService;
+
+	// 1. Registro
+	// Cada cambio se guarda con su cuenta, cliente y tipo.
+	@Test
+	void recordSavesChange() {
+		accountChangeService.record(7L, 3L, AccountChange.CREATED);
+
+		ArgumentCaptor<AccountChange> saved = ArgumentCaptor.forClass(AccountChange.class);
+		verify(accountChangeRepository).save(saved.capture());
+		assertEquals(7L, saved.getValue().getAccountId());
+		assertEquals(3L, saved.getValue().getClientId());
+		assertEquals(AccountChange.CREATED, saved.getValue().getChangeType());
+	}
+
+	// 2. Lectura del feed
+	// Sin cursor se lee desde el principio, con el límite pedido y en orden de id.
+	@Test
+	void changesStartFromBeginningWithoutCursor() {
+		AccountChange change = new AccountChange(7L, 3L, AccountChange.UPDATED);
+		change.setId(11L);
+		when(accountChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(change));
+
+		List<AccountChangeDTO> changes = accountChangeService.getChanges(null, 50);
+
+		verify(accountChangeRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50));
+		assertEquals(1, changes.size());
+		assertEquals(11L, changes.get(0).getId());
+		assertEquals(3L, changes.get(0).getClientId());
+		assertEquals(AccountChange.UPDATED, changes.get(0).getChangeType());
+	}
+}
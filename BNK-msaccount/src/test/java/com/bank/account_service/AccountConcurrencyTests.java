@@ -0,0 +1,83 @@
+package com.bank.account_service;
+
+import com.bank.account_service.dto.AccountDTO;
+import com.bank.account_service.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Necesita PostgreSQL; no corre en el build normal:
+// mvn test -Dtest=AccountConcurrencyTests -Dbenchmark=true
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AccountConcurrencyTests {
+
+	private static final int INITIAL_BALANCE = 1500;
+	private static final int WITHDRAWALS = 2000;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private AccountService accountService;
+
+	// Dispara miles de retiros en paralelo contra la misma cuenta y verifica
+	// que el saldo final sea exacto y que ningún retiro deje la cuenta en negativo.
+	@Test
+	void parallelWithdrawalsKeepBalanceExact() throws Exception {
+		AccountDTO dto = new AccountDTO();
+		dto.setClientId(1L);
+		dto.setAccountNumber("TEST-" + UUID.randomUUID());
+		dto.setAccountType("ahorro");
+		dto.setBalance(BigDecimal.valueOf(INITIAL_BALANCE));
+		dto.setStatus("activo");
+		AccountDTO account = accountService.createAccount(dto);
+
+		HttpClient client = HttpClient.newHttpClient();
+		HttpRequest request = HttpRequest.newBuilder()
+				.uri(URI.create("http://localhost:" + port + "/api/accounts/" + account.getId() + "/withdraw?amount=1"))
+				.method("PATCH", HttpRequest.BodyPublishers.noBody())
+				.build();
+
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < WITHDRAWALS; i++) {
+			results.add(executor.submit(() -> client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+		}
+
+		int ok = 0;
+		int rejected = 0;
+		for (Future<Integer> result : results) {
+			int status = result.get();
+			if (status == 200) {
+				ok++;
+			} else if (status == 400) {
+				rejected++;
+			}
+		}
+		executor.shutdown();
+
+		assertEquals(INITIAL_BALANCE, ok);
+		assertEquals(WITHDRAWALS - INITIAL_BALANCE, rejected);
+		assertEquals(0, BigDecimal.ZERO.compareTo(accountService.getAccountById(account.getId()).getBalance()));
+
+		accountService.deleteAccount(account.getAccountNumber());
+	}
+
+}
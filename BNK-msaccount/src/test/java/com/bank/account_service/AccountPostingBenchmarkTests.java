@@ -0,0 +1,100 @@
+package com.bank.account_service;
+
+import com.bank.account_service.dto.AccountDTO;
+import com.bank.account_service.dto.BatchPostingDTO;
+import com.bank.account_service.dto.PostingDTO;
+import com.bank.account_service.service.AccountPostingService;
+import com.bank.account_service.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Medición con PostgreSQL real; no corre en el build normal:
+// mvn test -Dtest=AccountPostingBenchmarkTests -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AccountPostingBenchmarkTests {
+
+	private static final int ACCOUNTS = 1_000;
+	private static final int POSTINGS = 100_000;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountPostingService accountPostingService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// 100k abonos repartidos en 1000 cuentas: uno por uno contra el lote con batching JDBC.
+	// Reenviar el mismo lote no debe mover el saldo
+	@Test
+	void batchPostingBeatsLineByLineAndIgnoresReplays() {
+		String prefix = "POST-BENCH-" + UUID.randomUUID() + "-";
+		List<Long> ids = new ArrayList<>(ACCOUNTS);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			AccountDTO dto = new AccountDTO();
+			dto.setClientId(1L);
+			dto.setAccountNumber(prefix + i);
+			dto.setAccountType("ahorro");
+			dto.setBalance(BigDecimal.ZERO);
+			dto.setStatus("activo");
+			ids.add(accountService.createAccount(dto).getId());
+		}
+
+		try {
+			long start = System.nanoTime();
+			for (int i = 0; i < POSTINGS; i++) {
+				accountService.deposit(ids.get(i % ACCOUNTS), BigDecimal.ONE);
+			}
+			long lineByLine = (System.nanoTime() - start) / 1_000_000;
+
+			BatchPostingDTO batch = new BatchPostingDTO();
+			batch.setLines(lines(ids, prefix));
+			start = System.nanoTime();
+			BatchPostingDTO result = accountPostingService.post(batch);
+			long batched = (System.nanoTime() - start) / 1_000_000;
+
+			BatchPostingDTO replay = new BatchPostingDTO();
+			replay.setLines(lines(ids, prefix));
+			BatchPostingDTO replayed = accountPostingService.post(replay);
+
+			System.out.printf("postings: %d abonos, uno por uno %d ms, en lote %d ms%n", POSTINGS, lineByLine, batched);
+			assertEquals(POSTINGS, result.getApplied());
+			assertEquals(0, replayed.getApplied());
+			BigDecimal expected = BigDecimal.valueOf(2L * POSTINGS / ACCOUNTS);
+			for (Long id : ids) {
+				assertEquals(0, expected.compareTo(accountService.getAccountById(id).getBalance()));
+			}
+			assertTrue(batched < lineByLine);
+		} finally {
+			jdbcTemplate.update("DELETE FROM account_posting_references WHERE reference LIKE ?", prefix + "%");
+			for (int i = 0; i < ACCOUNTS; i++) {
+				accountService.deleteAccount(prefix + i);
+			}
+		}
+	}
+
+	private List<PostingDTO> lines(List<Long> ids, String prefix) {
+		List<PostingDTO> lines = new ArrayList<>(POSTINGS);
+		for (int i = 0; i < POSTINGS; i++) {
+			PostingDTO line = new PostingDTO();
+			line.setAccountId(ids.get(i % ACCOUNTS));
+			line.setAmount(BigDecimal.ONE);
+			line.setReference(prefix + i);
+			lines.add(line);
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,101 @@
+package com.bank.account_service;
+
+import com.bank.account_service.dto.BatchPostingDTO;
+import com.bank.account_service.dto.PostingDTO;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.service.AccountPostingService;
+import com.bank.account_service.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class AccountPostingServiceTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private AccountRepository accountRepository;
+	private AccountPostingService service;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		accountRepository = mock(AccountRepository.class);
+		service = new AccountPostingService();
+		ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(service, "accountRepository", accountRepository);
+		ReflectionTestUtils.setField(service, "accountService", mock(AccountService.class));
+	}
+
+	// 1. Reenvío de un lote
+	// Una referencia ya registrada no vuelve a mover dinero; el resto del bloque se aplica.
+	@Test
+	void replayedReferenceIsNotAppliedAgain() {
+		when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO account_posting_references"), any(Collection.class),
+				anyInt(), any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][]{{0, 1}});
+		when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), any(Collection.class), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][]{{1}});
+
+		BatchPostingDTO result = service.post(batch(line(1L, "10.00", "REF-1"), line(2L, "5.00", "REF-2")));
+
+		ArgumentCaptor<Collection<PostingDTO>> applied = ArgumentCaptor.forClass(Collection.class);
+		verify(jdbcTemplate).batchUpdate(startsWith("UPDATE accounts"), applied.capture(), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class));
+		assertEquals(List.of("REF-2"), applied.getValue().stream().map(PostingDTO::getReference).toList());
+		assertEquals(AccountPostingService.DUPLICATE, result.getLines().get(0).getStatus());
+		assertEquals(AccountPostingService.APPLIED, result.getLines().get(1).getStatus());
+		assertEquals(1, result.getApplied());
+		assertEquals(0, result.getRejected());
+	}
+
+	// 2. Línea rechazada
+	// Sin fondos la línea no deja su referencia registrada: se puede reenviar más tarde.
+	@Test
+	void rejectedLineReleasesItsReference() {
+		when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO account_posting_references"), any(Collection.class),
+				anyInt(), any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][]{{1}});
+		when(jdbcTemplate.batchUpdate(startsWith("UPDATE accounts"), any(Collection.class), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][]{{0}});
+		Account account = new Account();
+		account.setId(1L);
+		account.setBalanceShards(1);
+		when(accountRepository.findAllById(List.of(1L))).thenReturn(List.of(account));
+
+		BatchPostingDTO result = service.post(batch(line(1L, "-10.00", "REF-1")));
+
+		ArgumentCaptor<Collection<String>> released = ArgumentCaptor.forClass(Collection.class);
+		verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM account_posting_references"), released.capture(),
+				anyInt(), any(ParameterizedPreparedStatementSetter.class));
+		assertEquals(List.of("REF-1"), List.copyOf(released.getValue()));
+		assertEquals(AccountPostingService.REJECTED, result.getLines().get(0).getStatus());
+		assertEquals(1, result.getRejected());
+	}
+
+	private BatchPostingDTO batch(PostingDTO... lines) {
+		BatchPostingDTO batch = new BatchPostingDTO();
+		batch.setLines(List.of(lines));
+		return batch;
+	}
+
+	private PostingDTO line(Long accountId, String amount, String reference) {
+		PostingDTO line = new PostingDTO();
+		line.setAccountId(accountId);
+		line.setAmount(new BigDecimal(amount));
+		line.setReference(reference);
+		return line;
+	}
+}
@@ -0,0 +1,183 @@
+package com.bank.account_service;
+
+import com.bank.account_service.cache.AccountCache;
+import com.bank.account_service.dto.AccountDTO;
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.entity.AccountChange;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.service.AccountChangeService;
+import com.bank.account_service.service.AccountService;
+import com.bank.account_service.service.AccountShardService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountServiceTests {
+
+	@Mock
+	private AccountRepository accountRepository;
+
+	@Mock
+	private AccountCache accountCache;
+
+	@Mock
+	private AccountChangeService accountChangeService;
+
+	@Mock
+	private AccountShardService accountShardService;
+
+	@InjectMocks
+	private AccountService accountService;
+
+	// 1. Versión vieja
+	// Un depósito subió la versión: el PUT con el saldo leído antes se rechaza sin escribir nada.
+	@Test
+	void updateWithStaleVersionIsRejected() {
+		when(accountRepository.findById(1L)).thenReturn(Optional.of(account(1L, 6L)));
+
+		AccountDTO dto = update(5L);
+
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> accountService.updateAccount(1L, dto));
+		verify(accountRepository, never()).saveAndFlush(any());
+	}
+
+	// 2. Versión vigente
+	// Con la versión de la fila se guarda una sola vez y se devuelve la versión nueva.
+	@Test
+	void updateWithCurrentVersionIsSaved() {
+		Account account = account(1L, 5L);
+		when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+		when(accountRepository.saveAndFlush(account)).thenAnswer(invocation -> {
+			account.setVersion(6L);
+			return account;
+		});
+
+		AccountDTO updated = accountService.updateAccount(1L, update(5L));
+
+		assertEquals(new BigDecimal("200.00"), updated.getBalance());
+		assertEquals(6L, updated.getVersion());
+		verify(accountRepository, times(1)).saveAndFlush(account);
+	}
+
+	// 3. Alta con feed
+	// La cuenta y su cambio CREATED van en la misma transacción.
+	@Test
+	void createAccountRecordsChangeInSameTransaction() throws Exception {
+		when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> {
+			Account saved = invocation.getArgument(0);
+			saved.setId(7L);
+			return saved;
+		});
+
+		AccountDTO created = accountService.createAccount(update(null));
+
+		assertEquals(7L, created.getId());
+		verify(accountChangeService).record(7L, 1L, AccountChange.CREATED);
+		verify(accountCache).evictClient(1L);
+		assertNotNull(AccountService.class.getMethod("createAccount", AccountDTO.class).getAnnotation(Transactional.class));
+	}
+
+	// 4. Depósito con shards cambiando
+	// Si los shards se reconfiguran en cada intento, se rinde tras un número fijo de intentos.
+	@Test
+	void depositGivesUpAfterBoundedAttempts() {
+		Account sharded = account(1L, 5L);
+		sharded.setBalanceShards(4);
+		when(accountRepository.depositAtomically(1L, BigDecimal.TEN)).thenReturn(Optional.empty());
+		when(accountRepository.findById(1L)).thenReturn(Optional.of(sharded));
+		when(accountShardService.deposit(sharded, BigDecimal.TEN)).thenReturn(false);
+
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> accountService.deposit(1L, BigDecimal.TEN));
+		verify(accountShardService, times(3)).deposit(sharded, BigDecimal.TEN);
+		verify(accountCache, never()).evict(1L);
+	}
+
+	// 5. Listado con cuentas divididas
+	// Los saldos de todas las cuentas divididas de la página salen de una sola consulta.
+	@Test
+	void pageSumsShardedBalancesInOneQuery() {
+		Account plain = account(1L, 0L);
+		Account hot = account(2L, 0L);
+		hot.setBalanceShards(8);
+		Account payroll = account(3L, 0L);
+		payroll.setBalanceShards(4);
+		when(accountRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(plain, hot, payroll));
+		when(accountShardService.totalBalances(List.of(2L, 3L)))
+				.thenReturn(Map.of(2L, new BigDecimal("900.00"), 3L, new BigDecimal("50.00")));
+
+		List<AccountDTO> page = accountService.getAccountsPage(null, 10);
+
+		assertEquals(List.of(new BigDecimal("100.00"), new BigDecimal("900.00"), new BigDecimal("50.00")),
+				page.stream().map(AccountDTO::getBalance).toList());
+		verify(accountShardService, never()).totalBalance(any());
+	}
+
+	// 6. Retiro mientras se reconfiguran los shards
+	// Si el débito sin candado no alcanza, se decide con la cuenta bloqueada; solo entonces hay "Fondos insuficientes".
+	@Test
+	void withdrawDecidesFundsUnderAccountLock() {
+		Account collapsed = account(1L, 7L);
+		when(accountRepository.withdrawAtomically(1L, BigDecimal.TEN)).thenReturn(Optional.empty());
+		when(accountRepository.findBalanceShards(1L)).thenReturn(Optional.of(4));
+		when(accountShardService.withdrawFromSingleShard(1L, 4, BigDecimal.TEN)).thenReturn(false);
+		when(accountShardService.withdrawLocked(1L, BigDecimal.TEN)).thenReturn(true, false);
+		when(accountRepository.findById(1L)).thenReturn(Optional.of(collapsed));
+
+		assertEquals(7L, accountService.withdraw(1L, BigDecimal.TEN).getVersion());
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> accountService.withdraw(1L, BigDecimal.TEN));
+		assertEquals("Fondos insuficientes.", e.getMessage());
+	}
+
+	// 7. Baja con feed
+	// Shards, cuenta y cambio DELETED van en la misma transacción.
+	@Test
+	void deleteAccountRecordsChangeInSameTransaction() throws Exception {
+		Account sharded = account(1L, 0L);
+		sharded.setBalanceShards(4);
+		when(accountRepository.findByAccountNumber("ACC-1")).thenReturn(Optional.of(sharded));
+
+		accountService.deleteAccount("ACC-1");
+
+		verify(accountShardService).deleteShards(1L);
+		verify(accountRepository).deleteByAccountNumber("ACC-1");
+		verify(accountChangeService).record(1L, 1L, AccountChange.DELETED);
+		assertNotNull(AccountService.class.getMethod("deleteAccount", String.class).getAnnotation(Transactional.class));
+	}
+
+	private AccountDTO update(Long version) {
+		AccountDTO dto = new AccountDTO();
+		dto.setClientId(1L);
+		dto.setAccountNumber("ACC-1");
+		dto.setAccountType("ahorro");
+		dto.setBalance(new BigDecimal("200.00"));
+		dto.setStatus("activo");
+		dto.setVersion(version);
+		return dto;
+	}
+
+	private Account account(Long id, Long version) {
+		Account account = new Account();
+		account.setId(id);
+		account.setClientId(1L);
+		account.setAccountNumber("ACC-1");
+		account.setBalance(new BigDecimal("100.00"));
+		account.setVersion(version);
+		return account;
+	}
+}
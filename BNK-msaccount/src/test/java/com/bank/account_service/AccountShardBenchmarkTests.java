@@ -0,0 +1,80 @@
+package com.bank.account_service;
+
+import com.bank.account_service.dto.AccountDTO;
+import com.bank.account_service.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Medición con PostgreSQL real; no corre en el build normal:
+// mvn test -Dtest=AccountShardBenchmarkTests -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AccountShardBenchmarkTests {
+
+	private static final int DEPOSITS = 5_000;
+	private static final int THREADS = 32;
+	private static final int[] SHARD_COUNTS = {1, 4, 16};
+
+	@Autowired
+	private AccountService accountService;
+
+	// Depósitos concurrentes a una sola cuenta caliente: con más shards hay menos espera por el
+	// bloqueo de fila y el throughput debe subir; el saldo final tiene que ser exacto en todos los casos
+	@Test
+	void hotAccountDepositThroughputScalesWithShards() throws Exception {
+		AccountDTO dto = new AccountDTO();
+		dto.setClientId(1L);
+		dto.setAccountNumber("BENCH-" + UUID.randomUUID());
+		dto.setAccountType("corriente");
+		dto.setBalance(BigDecimal.ZERO);
+		dto.setStatus("activo");
+		Long id = accountService.createAccount(dto).getId();
+
+		try {
+			double[] throughput = new double[SHARD_COUNTS.length];
+			BigDecimal expected = BigDecimal.ZERO;
+			for (int i = 0; i < SHARD_COUNTS.length; i++) {
+				accountService.configureShards(id, SHARD_COUNTS[i]);
+				long millis = depositConcurrently(id);
+				expected = expected.add(BigDecimal.valueOf(DEPOSITS));
+				assertEquals(0, expected.compareTo(accountService.getAccountById(id).getBalance()));
+				throughput[i] = DEPOSITS * 1000.0 / millis;
+				System.out.printf("cuenta caliente: %d shards, %d depósitos en %d ms (%.0f/s)%n",
+						SHARD_COUNTS[i], DEPOSITS, millis, throughput[i]);
+			}
+			assertTrue(throughput[SHARD_COUNTS.length - 1] > throughput[0]);
+		} finally {
+			accountService.deleteAccount(dto.getAccountNumber());
+		}
+	}
+
+	private long depositConcurrently(Long id) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			long start = System.nanoTime();
+			List<Future<AccountDTO>> results = new ArrayList<>(DEPOSITS);
+			for (int i = 0; i < DEPOSITS; i++) {
+				results.add(executor.submit(() -> accountService.deposit(id, BigDecimal.ONE)));
+			}
+			for (Future<AccountDTO> result : results) {
+				result.get();
+			}
+			return Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
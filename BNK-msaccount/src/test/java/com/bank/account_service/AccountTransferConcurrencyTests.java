@@ -0,0 +1,76 @@
+package com.bank.account_service;
+
+import com.bank.account_service.dto.AccountDTO;
+import com.bank.account_service.dto.AccountTransferDTO;
+import com.bank.account_service.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Prueba de carga con PostgreSQL real; no corre en el build normal:
+// mvn test -Dtest=AccountTransferConcurrencyTests -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AccountTransferConcurrencyTests {
+
+	private static final int ACCOUNTS = 1000;
+	private static final int TRANSFERS = 20000;
+	private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+	@Autowired
+	private AccountService accountService;
+
+	// Transferencias aleatorias y concurrentes entre 1000 cuentas: ninguna debe terminar
+	// en deadlock o error inesperado y el dinero total debe conservarse.
+	@Test
+	void randomTransfersConserveMoneyWithoutDeadlocks() throws Exception {
+		String prefix = "TRF-TEST-" + UUID.randomUUID() + "-";
+		List<AccountDTO> accounts = new ArrayList<>();
+		for (int i = 0; i < ACCOUNTS; i++) {
+			AccountDTO dto = new AccountDTO();
+			dto.setClientId(1L);
+			dto.setAccountNumber(prefix + i);
+			dto.setAccountType("ahorro");
+			dto.setBalance(INITIAL_BALANCE);
+			dto.setStatus("activo");
+			accounts.add(accountService.createAccount(dto));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < TRANSFERS; i++) {
+			results.add(executor.submit(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				AccountTransferDTO request = new AccountTransferDTO();
+				request.setOriginAccountId(accounts.get(random.nextInt(ACCOUNTS)).getId());
+				request.setDestinationAccountNumber(prefix + random.nextInt(ACCOUNTS));
+				request.setAmount(BigDecimal.valueOf(random.nextInt(1, 500)));
+				return accountService.transfer(request).getStatus();
+			}));
+		}
+		for (Future<String> result : results) {
+			result.get(); // una excepción (p. ej. deadlock detectado) hace fallar el test
+		}
+		executor.shutdown();
+
+		BigDecimal total = BigDecimal.ZERO;
+		for (AccountDTO account : accounts) {
+			total = total.add(accountService.getAccountById(account.getId()).getBalance());
+			accountService.deleteAccount(account.getAccountNumber());
+		}
+		assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+	}
+
+}
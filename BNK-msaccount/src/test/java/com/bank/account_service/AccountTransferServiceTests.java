@@ -0,0 +1,70 @@
+package com.bank.account_service;
+
+import com.bank.account_service.entity.Account;
+import com.bank.account_service.repository.AccountRepository;
+import com.bank.account_service.service.AccountShardService;
+import com.bank.account_service.service.AccountTransferService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountTransferServiceTests {
+
+	@Mock
+	private AccountRepository accountRepository;
+
+	@Mock
+	private AccountShardService accountShardService;
+
+	@InjectMocks
+	private AccountTransferService accountTransferService;
+
+	// 1. Crédito a cuenta dividida
+	// Si el shard destino no acepta el depósito, la transferencia falla en vez de perder el dinero.
+	@Test
+	void failedShardDepositAbortsTransfer() {
+		Account origin = account(1L, 1);
+		origin.setBalance(new BigDecimal("100.00"));
+		Account destination = account(2L, 4);
+		when(accountRepository.findIdByAccountNumber("DEST")).thenReturn(Optional.of(2L));
+		when(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).thenReturn(List.of(origin, destination));
+		when(accountShardService.deposit(destination, BigDecimal.TEN)).thenReturn(false);
+
+		assertThrows(IllegalStateException.class,
+				() -> accountTransferService.transfer(1L, "DEST", BigDecimal.TEN));
+	}
+
+	// 2. Crédito aplicado
+	// Con el shard aceptando el depósito se debita el origen y se devuelve la cuenta destino.
+	@Test
+	void shardDepositCompletesTransfer() {
+		Account origin = account(1L, 1);
+		origin.setBalance(new BigDecimal("100.00"));
+		Account destination = account(2L, 4);
+		when(accountRepository.findIdByAccountNumber("DEST")).thenReturn(Optional.of(2L));
+		when(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).thenReturn(List.of(origin, destination));
+		when(accountShardService.deposit(destination, BigDecimal.TEN)).thenReturn(true);
+
+		assertEquals(2L, accountTransferService.transfer(1L, "DEST", BigDecimal.TEN));
+		assertEquals(new BigDecimal("90.00"), origin.getBalance());
+	}
+
+	private Account account(Long id, int shards) {
+		Account account = new Account();
+		account.setId(id);
+		account.setBalance(BigDecimal.ZERO);
+		account.setBalanceShards(shards);
+		return account;
+	}
+}
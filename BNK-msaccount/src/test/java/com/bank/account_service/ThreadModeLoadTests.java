@@ -0,0 +1,129 @@
+package com.bank.account_service;
+
+import com.bank.account_service.dto.AccountDTO;
+import com.bank.account_service.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prueba de carga con PostgreSQL real; no corre en el build normal. Compara hilos de plataforma y
+// virtuales con el mismo bulkhead (pool de 15 conexiones, connection-timeout 3s). El modo virtual
+// necesita JDK 21; con 17 solo se mide el de plataforma:
+// mvn test -Dtest=ThreadModeLoadTests -Dbenchmark=true [-Dload.clients=400 -Dload.requests=40000]
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModeLoadTests {
+
+	private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+	private static final int REQUESTS = Integer.getInteger("load.requests", 40_000);
+	private static final int ACCOUNTS = 1_000;
+	private static final int POOL_SIZE = 15;
+	private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(3);
+
+	private record Result(double throughput, long p99Millis, int errors) {
+	}
+
+	// Depósitos concurrentes (cada uno toma una conexión del pool) sobre 1000 cuentas
+	@Test
+	void platformAndVirtualThreadsUnderPoolBulkhead() throws Exception {
+		Result platform = run(false);
+		print("plataforma", platform);
+		assertTrue(platform.errors() <= REQUESTS / 100);
+		assertTrue(platform.p99Millis() < CONNECTION_TIMEOUT.toMillis());
+
+		if (Runtime.version().feature() < 21) {
+			System.out.println("hilos virtuales: omitido, requiere JDK 21");
+			return;
+		}
+		Result virtual = run(true);
+		print("virtuales", virtual);
+		// El pool es el cuello de botella en ambos modos: el bulkhead no debe dejar caer peticiones
+		assertTrue(virtual.errors() <= REQUESTS / 100);
+		assertTrue(virtual.p99Millis() < CONNECTION_TIMEOUT.toMillis());
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountServiceApplication.class)
+				.properties("server.port=0",
+						"spring.threads.virtual.enabled=" + virtualThreads,
+						"spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+						"spring.datasource.hikari.connection-timeout=" + CONNECTION_TIMEOUT.toMillis())
+				.run();
+		AccountService accountService = context.getBean(AccountService.class);
+		String prefix = "LOAD-" + UUID.randomUUID() + "-";
+		List<Long> ids = new ArrayList<>(ACCOUNTS);
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+		try {
+			for (int i = 0; i < ACCOUNTS; i++) {
+				AccountDTO dto = new AccountDTO();
+				dto.setClientId(1L);
+				dto.setAccountNumber(prefix + i);
+				dto.setAccountType("ahorro");
+				dto.setBalance(BigDecimal.ZERO);
+				dto.setStatus("activo");
+				ids.add(accountService.createAccount(dto).getId());
+			}
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient http = HttpClient.newHttpClient();
+
+			long[] latencies = new long[REQUESTS];
+			AtomicInteger errors = new AtomicInteger();
+			List<Future<?>> sent = new ArrayList<>(REQUESTS);
+			long start = System.nanoTime();
+			for (int i = 0; i < REQUESTS; i++) {
+				int n = i;
+				sent.add(clients.submit(() -> {
+					Long id = ids.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+					HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+									+ "/api/accounts/" + id + "/deposit?amount=1"))
+							.method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+					long sentAt = System.nanoTime();
+					try {
+						if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					latencies[n] = System.nanoTime() - sentAt;
+				}));
+			}
+			for (Future<?> future : sent) {
+				future.get();
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			Arrays.sort(latencies);
+			return new Result(REQUESTS / seconds, latencies[(int) (REQUESTS * 0.99) - 1] / 1_000_000, errors.get());
+		} finally {
+			clients.shutdown();
+			for (int i = 0; i < ids.size(); i++) {
+				accountService.deleteAccount(prefix + i);
+			}
+			context.close();
+		}
+	}
+
+	private void print(String mode, Result result) {
+		System.out.printf("hilos %s: %d clientes, %d depósitos, %.0f req/s, p99 %d ms, %d errores%n",
+				mode, CLIENTS, REQUESTS, result.throughput(), result.p99Millis(), result.errors());
+	}
+}
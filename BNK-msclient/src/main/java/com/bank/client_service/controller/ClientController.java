@@ -4,8 +4,10 @@ package com.bank.client_service.controller;
 import com.bank.client_service.dto.ClientDTO;
 import com.bank.client_service.service.ClientService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -13,6 +15,9 @@ import java.util.List;
 @RequestMapping("/api/clients")
 public class ClientController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private ClientService clientService;
 
@@ -21,6 +26,24 @@ public class ClientController {
         return ResponseEntity.ok(clientService.getAllClients());
     }
 
+    // Página por cursor: ?limit=N&after=<último id>; el siguiente cursor va en X-Next-After
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<ClientDTO>> getClientsPage(@RequestParam int limit, @RequestParam(required = false) Long after) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<ClientDTO> page = clientService.getClientsPage(after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(size - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    // Listado completo en streaming: ?stream=true
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllClients() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(clientService::writeAllClients);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ClientDTO> getClientById(@PathVariable Long id) {
         ClientDTO client = clientService.getClientById(id);
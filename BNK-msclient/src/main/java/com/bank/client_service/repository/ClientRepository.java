@@ -2,10 +2,25 @@ package com.bank.client_service.repository;
 
 
 import com.bank.client_service.entity.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
-}
 
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Lectura en streaming con fetch size fijo (requiere transacción abierta)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Client> streamAllByOrderByIdAsc();
+}
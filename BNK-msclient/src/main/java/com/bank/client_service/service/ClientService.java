@@ -2,11 +2,21 @@ package com.bank.client_service.service;
 import com.bank.client_service.dto.ClientDTO;
 import com.bank.client_service.entity.Client;
 import com.bank.client_service.repository.ClientRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ClientService {
@@ -14,10 +24,37 @@ public class ClientService {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<ClientDTO> getAllClients() {
         return clientRepository.findAll().stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 
+    public List<ClientDTO> getClientsPage(Long after, int limit) {
+        return clientRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit))
+                .stream().map(this::mapToDTO).collect(Collectors.toList());
+    }
+
+    // Escribe el arreglo JSON a medida que se leen las filas; memoria constante sin importar el tamaño
+    @Transactional(readOnly = true)
+    public void writeAllClients(OutputStream out) throws IOException {
+        try (Stream<Client> rows = clientRepository.streamAllByOrderByIdAsc();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            Iterator<Client> it = rows.iterator();
+            while (it.hasNext()) {
+                Client row = it.next();
+                json.writeObject(mapToDTO(row));
+                entityManager.detach(row);
+            }
+            json.writeEndArray();
+        }
+    }
+
     public ClientDTO getClientById(Long id) {
         return clientRepository.findById(id).map(this::mapToDTO).orElse(null);
     }
@@ -1,10 +1,15 @@
 package com.bank.loan_service.controller;
 
 import com.bank.loan_service.dto.LoanDTO;
+import com.bank.loan_service.dto.LoanQuoteDTO;
+import com.bank.loan_service.dto.LoanQuoteRequestDTO;
+import com.bank.loan_service.dto.ScheduleDTO;
 import com.bank.loan_service.service.LoanService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -12,6 +17,10 @@ import java.util.List;
 @RequestMapping("/api/loans")
 public class LoanController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_QUOTES = 100_000;
+
     @Autowired
     private LoanService loanService;
 
@@ -20,15 +29,56 @@ public class LoanController {
         return ResponseEntity.ok(loanService.getAllLoans());
     }
 
+    // Página por cursor: ?limit=N&after=<último id>; el siguiente cursor va en X-Next-After
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<LoanDTO>> getLoansPage(@RequestParam int limit, @RequestParam(required = false) Long after) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<LoanDTO> page = loanService.getLoansPage(after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(size - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    // Listado completo en streaming: ?stream=true
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllLoans() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(loanService::writeAllLoans);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<LoanDTO> getLoanById(@PathVariable Long id) {
         LoanDTO loan = loanService.getLoanById(id);
         return loan != null ? ResponseEntity.ok(loan) : ResponseEntity.notFound().build();
     }
 
+    // Cuadro de amortización en el sistema del préstamo (frances, aleman, o plano para los préstamos anteriores
+    // a los dos sistemas); su primera cuota es monthlyPayment
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<ScheduleDTO> getSchedule(@PathVariable Long id) {
+        ScheduleDTO schedule = loanService.getSchedule(id);
+        return schedule != null ? ResponseEntity.ok(schedule) : ResponseEntity.notFound().build();
+    }
+
     @PostMapping
     public ResponseEntity<LoanDTO> createLoan(@RequestBody LoanDTO dto) {
-        return ResponseEntity.ok(loanService.createLoan(dto));
+        try {
+            return ResponseEntity.ok(loanService.createLoan(dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Simulación sin guardar nada: cotiza todas las combinaciones de la grilla con el mismo cálculo que
+    // POST /api/loans, en el orden montos x tasas x plazos
+    @PostMapping("/quotes")
+    public ResponseEntity<List<LoanQuoteDTO>> quoteLoans(@RequestBody LoanQuoteRequestDTO request) {
+        try {
+            return ResponseEntity.ok(loanService.quote(request, MAX_QUOTES));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @DeleteMapping("/{id}")
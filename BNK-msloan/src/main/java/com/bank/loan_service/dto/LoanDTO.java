@@ -14,6 +14,7 @@ public class LoanDTO {
     private LocalDate startDate;
     private LocalDate endDate;
     private String status;
+    private String amortizationMethod; // frances (por defecto) o aleman
 
     // Getters y Setters
 
@@ -89,4 +90,12 @@ public class LoanDTO {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public String getAmortizationMethod() {
+        return amortizationMethod;
+    }
+
+    public void setAmortizationMethod(String amortizationMethod) {
+        this.amortizationMethod = amortizationMethod;
+    }
 }
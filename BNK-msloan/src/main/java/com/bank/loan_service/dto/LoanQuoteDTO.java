@@ -0,0 +1,63 @@
+package com.bank.loan_service.dto;
+
+
+import java.math.BigDecimal;
+
+public class LoanQuoteDTO {
+    private BigDecimal loanAmount;
+    private BigDecimal interestRate;
+    private Integer termMonths;
+    private String amortizationMethod;
+    private BigDecimal monthlyPayment;
+    private BigDecimal totalCost;
+
+    // Getters y Setters
+
+    public BigDecimal getLoanAmount() {
+        return loanAmount;
+    }
+
+    public void setLoanAmount(BigDecimal loanAmount) {
+        this.loanAmount = loanAmount;
+    }
+
+    public BigDecimal getInterestRate() {
+        return interestRate;
+    }
+
+    public void setInterestRate(BigDecimal interestRate) {
+        this.interestRate = interestRate;
+    }
+
+    public Integer getTermMonths() {
+        return termMonths;
+    }
+
+    public void setTermMonths(Integer termMonths) {
+        this.termMonths = termMonths;
+    }
+
+    public BigDecimal getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    public void setMonthlyPayment(BigDecimal monthlyPayment) {
+        this.monthlyPayment = monthlyPayment;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(BigDecimal totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public String getAmortizationMethod() {
+        return amortizationMethod;
+    }
+
+    public void setAmortizationMethod(String amortizationMethod) {
+        this.amortizationMethod = amortizationMethod;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.loan_service.dto;
+
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Grilla de simulación: se cotizan todas las combinaciones de montos, tasas y plazos
+public class LoanQuoteRequestDTO {
+    private List<BigDecimal> loanAmounts;
+    private List<BigDecimal> interestRates;
+    private List<Integer> termMonths;
+    private String amortizationMethod; // frances (por defecto) o aleman, para toda la grilla
+
+    // Getters y Setters
+
+    public List<BigDecimal> getLoanAmounts() {
+        return loanAmounts;
+    }
+
+    public void setLoanAmounts(List<BigDecimal> loanAmounts) {
+        this.loanAmounts = loanAmounts;
+    }
+
+    public List<BigDecimal> getInterestRates() {
+        return interestRates;
+    }
+
+    public void setInterestRates(List<BigDecimal> interestRates) {
+        this.interestRates = interestRates;
+    }
+
+    public List<Integer> getTermMonths() {
+        return termMonths;
+    }
+
+    public void setTermMonths(List<Integer> termMonths) {
+        this.termMonths = termMonths;
+    }
+
+    public String getAmortizationMethod() {
+        return amortizationMethod;
+    }
+
+    public void setAmortizationMethod(String amortizationMethod) {
+        this.amortizationMethod = amortizationMethod;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bank.loan_service.dto;
+
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class ScheduleDTO {
+    private Long loanId;
+    private String method;
+    private Integer termMonths;
+    private BigDecimal totalInterest;
+    private BigDecimal totalPayment;
+    private List<ScheduleRowDTO> installments;
+
+    // Getters y Setters
+
+    public Long getLoanId() {
+        return loanId;
+    }
+
+    public void setLoanId(Long loanId) {
+        this.loanId = loanId;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public Integer getTermMonths() {
+        return termMonths;
+    }
+
+    public void setTermMonths(Integer termMonths) {
+        this.termMonths = termMonths;
+    }
+
+    public BigDecimal getTotalInterest() {
+        return totalInterest;
+    }
+
+    public void setTotalInterest(BigDecimal totalInterest) {
+        this.totalInterest = totalInterest;
+    }
+
+    public BigDecimal getTotalPayment() {
+        return totalPayment;
+    }
+
+    public void setTotalPayment(BigDecimal totalPayment) {
+        this.totalPayment = totalPayment;
+    }
+
+    public List<ScheduleRowDTO> getInstallments() {
+        return installments;
+    }
+
+    public void setInstallments(List<ScheduleRowDTO> installments) {
+        this.installments = installments;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bank.loan_service.dto;
+
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class ScheduleRowDTO {
+    private Integer number;
+    private LocalDate dueDate;
+    private BigDecimal installment;
+    private BigDecimal principal;
+    private BigDecimal interest;
+    private BigDecimal balance;
+
+    // Getters y Setters
+
+    public Integer getNumber() {
+        return number;
+    }
+
+    public void setNumber(Integer number) {
+        this.number = number;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public BigDecimal getInstallment() {
+        return installment;
+    }
+
+    public void setInstallment(BigDecimal installment) {
+        this.installment = installment;
+    }
+
+    public BigDecimal getPrincipal() {
+        return principal;
+    }
+
+    public void setPrincipal(BigDecimal principal) {
+        this.principal = principal;
+    }
+
+    public BigDecimal getInterest() {
+        return interest;
+    }
+
+    public void setInterest(BigDecimal interest) {
+        this.interest = interest;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -9,7 +9,8 @@ import java.time.LocalDate;
 public class Loan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loans_seq")
+    @SequenceGenerator(name = "loans_seq", sequenceName = "loans_seq", allocationSize = 50)
     private Long id;
 
     private Long clientId;
@@ -24,6 +25,9 @@ public class Loan {
 
     private String status = "activo";
 
+    // frances (cuota fija) o aleman (capital fijo); define la cuota y el cuadro de amortización
+    private String amortizationMethod;
+
     // Getters y Setters
 
     public Long getId() {
@@ -97,5 +101,12 @@ public class Loan {
     public void setStatus(String status) {
         this.status = status;
     }
-}
 
+    public String getAmortizationMethod() {
+        return amortizationMethod;
+    }
+
+    public void setAmortizationMethod(String amortizationMethod) {
+        this.amortizationMethod = amortizationMethod;
+    }
+}
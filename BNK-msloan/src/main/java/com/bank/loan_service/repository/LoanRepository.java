@@ -1,10 +1,25 @@
 package com.bank.loan_service.repository;
 
 import com.bank.loan_service.entity.Loan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
-}
 
+    List<Loan> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Lectura en streaming con fetch size fijo (requiere transacción abierta)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Loan> streamAllByOrderByIdAsc();
+}
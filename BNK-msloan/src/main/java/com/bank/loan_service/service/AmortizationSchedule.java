@@ -0,0 +1,191 @@
+package com.bank.loan_service.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+// Cuadro de amortización en centavos (long): 360 cuotas ocupan tres arreglos de 360 longs y se cachean
+// así; los BigDecimal de cada fila se crean recién al responder. La tasa es nominal anual en porcentaje
+// y el interés de cada cuota es saldo * tasa / 1200 redondeado HALF_UP al centavo, calculado de forma
+// exacta con enteros. La última cuota absorbe los centavos de redondeo y deja el saldo en cero
+public final class AmortizationSchedule {
+
+    public static final String FRENCH = "frances"; // cuota fija
+    public static final String GERMAN = "aleman"; // amortización de capital fija
+    public static final String FLAT = "plano"; // préstamos anteriores a los dos sistemas; no se ofrece al crear
+
+    private static final BigDecimal MONTHLY_DIVISOR = BigDecimal.valueOf(1200);
+    private static final MathContext PRECISION = MathContext.DECIMAL128;
+
+    private final String method;
+    private final LocalDate startDate;
+    private final long[] principal;
+    private final long[] interest;
+    private final long[] balance;
+
+    private AmortizationSchedule(String method, LocalDate startDate, int term) {
+        this.method = method;
+        this.startDate = startDate;
+        this.principal = new long[term];
+        this.interest = new long[term];
+        this.balance = new long[term];
+    }
+
+    public static boolean isSupported(String method) {
+        return FRENCH.equals(method) || GERMAN.equals(method);
+    }
+
+    // Lanza IllegalArgumentException si los datos del préstamo no permiten armar el cuadro
+    public static AmortizationSchedule of(String method, BigDecimal amount, BigDecimal annualRate, int term,
+                                          LocalDate startDate) {
+        if (!isSupported(method)) {
+            throw new IllegalArgumentException("Sistema de amortización no soportado: " + method);
+        }
+        if (amount == null || amount.signum() <= 0 || annualRate == null || annualRate.signum() < 0 || term <= 0) {
+            throw new IllegalArgumentException("Monto, tasa y plazo inválidos.");
+        }
+        long amountCents = amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        AmortizationSchedule schedule = new AmortizationSchedule(method, startDate, term);
+        MonthlyRate rate = new MonthlyRate(annualRate);
+        if (FRENCH.equals(method)) {
+            schedule.fillFrench(amountCents, annualRate, rate);
+        } else {
+            schedule.fillGerman(amountCents, rate);
+        }
+        return schedule;
+    }
+
+    // Cuadro de un préstamo con la cuota plana guardada (monto más interés simple, dividido por el plazo):
+    // todas las cuotas son esa, el capital se amortiza en partes iguales y el interés es la diferencia
+    public static AmortizationSchedule flat(BigDecimal amount, BigDecimal installment, int term, LocalDate startDate) {
+        if (amount == null || amount.signum() <= 0 || installment == null || installment.signum() <= 0 || term <= 0) {
+            throw new IllegalArgumentException("Monto, cuota y plazo inválidos.");
+        }
+        long amountCents = amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        long installmentCents = installment.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        AmortizationSchedule schedule = new AmortizationSchedule(FLAT, startDate, term);
+        long fixedPrincipal = divideHalfUp(amountCents, term);
+        long remaining = amountCents;
+        for (int i = 0; i < term; i++) {
+            long monthPrincipal = i == term - 1 ? remaining : Math.min(fixedPrincipal, remaining);
+            remaining -= monthPrincipal;
+            schedule.principal[i] = monthPrincipal;
+            schedule.interest[i] = Math.max(installmentCents - monthPrincipal, 0);
+            schedule.balance[i] = remaining;
+        }
+        return schedule;
+    }
+
+    private void fillFrench(long amountCents, BigDecimal annualRate, MonthlyRate rate) {
+        int term = principal.length;
+        long installment;
+        if (annualRate.signum() == 0) {
+            installment = divideHalfUp(amountCents, term);
+        } else {
+            // A = P * r * (1 + r)^n / ((1 + r)^n - 1), una sola vez por cuadro
+            BigDecimal r = annualRate.divide(MONTHLY_DIVISOR, PRECISION);
+            BigDecimal growth = BigDecimal.ONE.add(r).pow(term, PRECISION);
+            installment = BigDecimal.valueOf(amountCents).multiply(r).multiply(growth)
+                    .divide(growth.subtract(BigDecimal.ONE), 0, RoundingMode.HALF_UP).longValueExact();
+        }
+        long remaining = amountCents;
+        for (int i = 0; i < term; i++) {
+            long monthInterest = rate.interestOn(remaining);
+            long monthPrincipal = i == term - 1 ? remaining : Math.min(installment - monthInterest, remaining);
+            remaining -= monthPrincipal;
+            principal[i] = monthPrincipal;
+            interest[i] = monthInterest;
+            balance[i] = remaining;
+        }
+    }
+
+    private void fillGerman(long amountCents, MonthlyRate rate) {
+        int term = principal.length;
+        long fixedPrincipal = divideHalfUp(amountCents, term);
+        long remaining = amountCents;
+        for (int i = 0; i < term; i++) {
+            long monthInterest = rate.interestOn(remaining);
+            long monthPrincipal = i == term - 1 ? remaining : Math.min(fixedPrincipal, remaining);
+            remaining -= monthPrincipal;
+            principal[i] = monthPrincipal;
+            interest[i] = monthInterest;
+            balance[i] = remaining;
+        }
+    }
+
+    private static long divideHalfUp(long value, long divisor) {
+        return (2 * value + divisor) / (2 * divisor);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int size() {
+        return principal.length;
+    }
+
+    // Cuota número i (desde 0): vence i + 1 meses después del inicio
+    public LocalDate dueDate(int i) {
+        return startDate.plusMonths(i + 1);
+    }
+
+    public BigDecimal principal(int i) {
+        return BigDecimal.valueOf(principal[i], 2);
+    }
+
+    public BigDecimal interest(int i) {
+        return BigDecimal.valueOf(interest[i], 2);
+    }
+
+    public BigDecimal installment(int i) {
+        return BigDecimal.valueOf(principal[i] + interest[i], 2);
+    }
+
+    public BigDecimal balance(int i) {
+        return BigDecimal.valueOf(balance[i], 2);
+    }
+
+    public BigDecimal totalInterest() {
+        long total = 0;
+        for (long value : interest) {
+            total += value;
+        }
+        return BigDecimal.valueOf(total, 2);
+    }
+
+    // Tasa mensual como fracción exacta numerator / denominator (tasa anual % / 1200)
+    private static final class MonthlyRate {
+        private final BigDecimal annualRate;
+        private final long numerator;
+        private final long denominator;
+
+        MonthlyRate(BigDecimal annualRate) {
+            BigDecimal rate = annualRate.stripTrailingZeros();
+            if (rate.scale() < 0) {
+                rate = rate.setScale(0);
+            }
+            this.annualRate = rate;
+            // Tasas con demasiados decimales no entran en un long: usan siempre el camino BigDecimal
+            if (rate.scale() <= 12 && rate.precision() <= 18) {
+                this.numerator = rate.unscaledValue().longValueExact();
+                this.denominator = 1200 * BigDecimal.ONE.movePointRight(rate.scale()).longValueExact();
+            } else {
+                this.numerator = -1;
+                this.denominator = -1;
+            }
+        }
+
+        long interestOn(long balanceCents) {
+            if (numerator >= 0 && Math.multiplyHigh(balanceCents, numerator) == 0) {
+                long product = balanceCents * numerator;
+                if (product >= 0 && product <= (Long.MAX_VALUE - denominator) / 2) {
+                    return (2 * product + denominator) / (2 * denominator);
+                }
+            }
+            return BigDecimal.valueOf(balanceCents).multiply(annualRate)
+                    .divide(MONTHLY_DIVISOR, 0, RoundingMode.HALF_UP).longValueExact();
+        }
+    }
+}
@@ -2,51 +2,218 @@ package com.bank.loan_service.service;
 
 
 import com.bank.loan_service.dto.LoanDTO;
+import com.bank.loan_service.dto.LoanQuoteDTO;
+import com.bank.loan_service.dto.LoanQuoteRequestDTO;
+import com.bank.loan_service.dto.ScheduleDTO;
+import com.bank.loan_service.dto.ScheduleRowDTO;
 import com.bank.loan_service.entity.Loan;
 import com.bank.loan_service.repository.LoanRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class LoanService {
 
+    // Cuadros de amortización cacheados por préstamo; se descarta el menos usado
+    private static final int SCHEDULE_CACHE_SIZE = 10_000;
+
     @Autowired
     private LoanRepository loanRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<Long, AmortizationSchedule> schedules = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, AmortizationSchedule> eldest) {
+                    return size() > SCHEDULE_CACHE_SIZE;
+                }
+            });
+
     public List<LoanDTO> getAllLoans() {
         return loanRepository.findAll().stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 
+    public List<LoanDTO> getLoansPage(Long after, int limit) {
+        return loanRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit))
+                .stream().map(this::mapToDTO).collect(Collectors.toList());
+    }
+
+    // Escribe el arreglo JSON a medida que se leen las filas; memoria constante sin importar el tamaño
+    @Transactional(readOnly = true)
+    public void writeAllLoans(OutputStream out) throws IOException {
+        try (Stream<Loan> rows = loanRepository.streamAllByOrderByIdAsc();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            Iterator<Loan> it = rows.iterator();
+            while (it.hasNext()) {
+                Loan row = it.next();
+                json.writeObject(mapToDTO(row));
+                entityManager.detach(row);
+            }
+            json.writeEndArray();
+        }
+    }
+
     public LoanDTO getLoanById(Long id) {
         return loanRepository.findById(id).map(this::mapToDTO).orElse(null);
     }
 
+    // La cuota y la fecha fin salen del mismo cuadro que devuelve /schedule (tasa nominal anual). En el
+    // sistema alemán la cuota guardada es la primera, la más alta. Lanza IllegalArgumentException si
+    // monto, tasa, plazo o sistema no son válidos
     public LoanDTO createLoan(LoanDTO dto) {
         Loan loan = mapToEntity(dto);
 
-        // calcular fecha fin y cuota mensual
         LocalDate today = LocalDate.now();
+        AmortizationSchedule schedule = AmortizationSchedule.of(loan.getAmortizationMethod(), loan.getLoanAmount(),
+                loan.getInterestRate(), loan.getTermMonths() != null ? loan.getTermMonths() : 0, today);
         loan.setStartDate(today);
-        loan.setEndDate(today.plusMonths(loan.getTermMonths()));
+        loan.setEndDate(schedule.dueDate(schedule.size() - 1));
+        loan.setMonthlyPayment(schedule.installment(0));
 
-        BigDecimal totalInterest = loan.getLoanAmount()
-                .multiply(loan.getInterestRate())
-                .divide(BigDecimal.valueOf(100));
-        BigDecimal totalToPay = loan.getLoanAmount().add(totalInterest);
-        BigDecimal monthlyPayment = totalToPay.divide(BigDecimal.valueOf(loan.getTermMonths()), 2, BigDecimal.ROUND_HALF_UP);
+        Loan saved = loanRepository.save(loan);
+        if (saved.getId() != null) {
+            schedules.put(saved.getId(), schedule);
+        }
+        return mapToDTO(saved);
+    }
 
-        loan.setMonthlyPayment(monthlyPayment);
+    // Cotiza cada combinación de la grilla (montos x tasas x plazos, en ese orden) en el pool fork/join
+    // común, sin tocar la base, con el mismo AmortizationSchedule que createLoan y /schedule. Lanza
+    // IllegalArgumentException si la grilla está vacía, tiene valores inválidos o supera maxQuotes combinaciones
+    public List<LoanQuoteDTO> quote(LoanQuoteRequestDTO request, int maxQuotes) {
+        String method = methodOf(request.getAmortizationMethod());
+        if (!AmortizationSchedule.isSupported(method)) {
+            throw new IllegalArgumentException("Sistema de amortización no soportado: " + method);
+        }
+        List<BigDecimal> amounts = request.getLoanAmounts();
+        List<BigDecimal> rates = request.getInterestRates();
+        List<Integer> terms = request.getTermMonths();
+        if (amounts == null || amounts.isEmpty() || rates == null || rates.isEmpty() || terms == null || terms.isEmpty()) {
+            throw new IllegalArgumentException("Montos, tasas y plazos requeridos.");
+        }
+        if (amounts.stream().anyMatch(amount -> amount == null || amount.signum() <= 0)
+                || rates.stream().anyMatch(rate -> rate == null || rate.signum() < 0)
+                || terms.stream().anyMatch(term -> term == null || term <= 0)) {
+            throw new IllegalArgumentException("Monto, tasa o plazo inválido.");
+        }
+        long combinations = (long) amounts.size() * rates.size() * terms.size();
+        if (combinations > maxQuotes) {
+            throw new IllegalArgumentException("La grilla supera las " + maxQuotes + " combinaciones.");
+        }
+        // Copias indexables: el índice i de la grilla se traduce a (monto, tasa, plazo) sin listas intermedias
+        BigDecimal[] amountGrid = amounts.toArray(new BigDecimal[0]);
+        BigDecimal[] rateGrid = rates.toArray(new BigDecimal[0]);
+        Integer[] termGrid = terms.toArray(new Integer[0]);
+        LocalDate today = LocalDate.now();
+        int perAmount = rateGrid.length * termGrid.length;
+        return IntStream.range(0, (int) combinations).parallel()
+                .mapToObj(i -> quote(method, amountGrid[i / perAmount], rateGrid[i % perAmount / termGrid.length],
+                        termGrid[i % termGrid.length], today))
+                .collect(Collectors.toList());
+    }
 
-        return mapToDTO(loanRepository.save(loan));
+    // monthlyPayment es la cuota que guardaría createLoan; totalCost, el monto más todos los intereses
+    private LoanQuoteDTO quote(String method, BigDecimal loanAmount, BigDecimal interestRate, int termMonths,
+                               LocalDate startDate) {
+        AmortizationSchedule schedule = AmortizationSchedule.of(method, loanAmount, interestRate, termMonths, startDate);
+        LoanQuoteDTO dto = new LoanQuoteDTO();
+        dto.setLoanAmount(loanAmount);
+        dto.setInterestRate(interestRate);
+        dto.setTermMonths(termMonths);
+        dto.setAmortizationMethod(method);
+        dto.setMonthlyPayment(schedule.installment(0));
+        dto.setTotalCost(loanAmount.setScale(2, RoundingMode.HALF_UP).add(schedule.totalInterest()));
+        return dto;
     }
 
     public void deleteLoan(Long id) {
         loanRepository.deleteById(id);
+        schedules.remove(id);
+    }
+
+    // Cuadro de amortización del préstamo, en su propio sistema; se calcula la primera vez que se pide
+    // (o al crearlo) y queda en memoria. Devuelve null si el préstamo no existe
+    public ScheduleDTO getSchedule(Long id) {
+        AmortizationSchedule schedule = schedules.get(id);
+        if (schedule == null) {
+            Loan loan = loanRepository.findById(id).orElse(null);
+            if (loan == null) {
+                return null;
+            }
+            // Cálculo fuera del candado del mapa: dos pedidos simultáneos calculan el mismo cuadro
+            int term = loan.getTermMonths() != null ? loan.getTermMonths() : 0;
+            LocalDate startDate = loan.getStartDate() != null ? loan.getStartDate() : LocalDate.now();
+            String method = methodOf(loan);
+            schedule = AmortizationSchedule.FLAT.equals(method)
+                    ? AmortizationSchedule.flat(loan.getLoanAmount(), loan.getMonthlyPayment(), term, startDate)
+                    : AmortizationSchedule.of(method, loan.getLoanAmount(), loan.getInterestRate(), term, startDate);
+            schedules.put(id, schedule);
+        }
+        return mapToDTO(id, schedule);
+    }
+
+    // Sin sistema indicado: francés
+    private static String methodOf(String method) {
+        return method != null ? method : AmortizationSchedule.FRENCH;
+    }
+
+    // Préstamos anteriores a la columna amortization_method: su cuadro sale de la cuota plana guardada
+    private static String methodOf(Loan loan) {
+        if (loan.getAmortizationMethod() != null) {
+            return loan.getAmortizationMethod();
+        }
+        return loan.getMonthlyPayment() != null ? AmortizationSchedule.FLAT : AmortizationSchedule.FRENCH;
+    }
+
+    private ScheduleDTO mapToDTO(Long loanId, AmortizationSchedule schedule) {
+        List<ScheduleRowDTO> rows = new ArrayList<>(schedule.size());
+        BigDecimal totalPayment = BigDecimal.ZERO;
+        for (int i = 0; i < schedule.size(); i++) {
+            ScheduleRowDTO row = new ScheduleRowDTO();
+            row.setNumber(i + 1);
+            row.setDueDate(schedule.dueDate(i));
+            row.setInstallment(schedule.installment(i));
+            row.setPrincipal(schedule.principal(i));
+            row.setInterest(schedule.interest(i));
+            row.setBalance(schedule.balance(i));
+            totalPayment = totalPayment.add(row.getInstallment());
+            rows.add(row);
+        }
+        ScheduleDTO dto = new ScheduleDTO();
+        dto.setLoanId(loanId);
+        dto.setMethod(schedule.getMethod());
+        dto.setTermMonths(schedule.size());
+        dto.setTotalInterest(schedule.totalInterest());
+        dto.setTotalPayment(totalPayment);
+        dto.setInstallments(rows);
+        return dto;
     }
 
     private LoanDTO mapToDTO(Loan loan) {
@@ -60,6 +227,7 @@ public class LoanService {
         dto.setStartDate(loan.getStartDate());
         dto.setEndDate(loan.getEndDate());
         dto.setStatus(loan.getStatus());
+        dto.setAmortizationMethod(methodOf(loan));
         return dto;
     }
 
@@ -70,6 +238,7 @@ public class LoanService {
         loan.setInterestRate(dto.getInterestRate());
         loan.setTermMonths(dto.getTermMonths());
         loan.setStatus(dto.getStatus() != null ? dto.getStatus() : "activo");
+        loan.setAmortizationMethod(methodOf(dto.getAmortizationMethod()));
         return loan;
     }
 }
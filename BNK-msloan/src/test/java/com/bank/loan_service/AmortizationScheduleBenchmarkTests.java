@@ -0,0 +1,63 @@
+package com.bank.loan_service;
+
+import com.bank.loan_service.service.AmortizationSchedule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Medición JMH de cuadros de 360 cuotas; no corre en el build normal:
+// gradle test --tests AmortizationScheduleBenchmarkTests -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmortizationScheduleBenchmarkTests {
+
+	// Presupuesto por cuadro: un préstamo se cotiza en una grilla de cientos de combinaciones por pedido
+	private static final double BUDGET_MICROS = 100;
+
+	private static final BigDecimal AMOUNT = new BigDecimal("250000.00");
+	private static final BigDecimal RATE = new BigDecimal("9.75");
+	private static final LocalDate START = LocalDate.of(2026, 1, 15);
+
+	@Param({AmortizationSchedule.FRENCH, AmortizationSchedule.GERMAN})
+	public String method;
+
+	@Benchmark
+	public AmortizationSchedule schedule360() {
+		return AmortizationSchedule.of(method, AMOUNT, RATE, 360, START);
+	}
+
+	@Test
+	void schedule360WithinBudget() throws Exception {
+		for (RunResult result : new Runner(new OptionsBuilder()
+				.include(AmortizationScheduleBenchmarkTests.class.getName() + ".schedule360")
+				.build()).run()) {
+			double micros = result.getPrimaryResult().getScore();
+			String params = result.getParams().getParam("method");
+			System.out.printf("%s: %.1f us por cuadro de 360 cuotas%n", params, micros);
+			assertTrue(micros < BUDGET_MICROS, params + " tarda " + micros + " us por cuadro");
+		}
+	}
+}
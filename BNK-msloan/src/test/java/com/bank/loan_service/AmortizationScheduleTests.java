@@ -0,0 +1,91 @@
+package com.bank.loan_service;
+
+import com.bank.loan_service.service.AmortizationSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmortizationScheduleTests {
+
+	private static final LocalDate START = LocalDate.of(2026, 1, 31);
+
+	// 1. Sistema francés
+	// 100000 al 12% anual en 360 meses: cuota fija 1028.61 y saldo final en cero.
+	@Test
+	void frenchScheduleHasFixedInstallment() {
+		AmortizationSchedule schedule = AmortizationSchedule.of(AmortizationSchedule.FRENCH,
+				new BigDecimal("100000"), new BigDecimal("12"), 360, START);
+
+		assertEquals(360, schedule.size());
+		assertEquals(new BigDecimal("1000.00"), schedule.interest(0));
+		assertEquals(new BigDecimal("28.61"), schedule.principal(0));
+		for (int i = 0; i < 359; i++) {
+			assertEquals(new BigDecimal("1028.61"), schedule.installment(i));
+		}
+		assertEquals(new BigDecimal("0.00"), schedule.balance(359));
+		assertEquals(LocalDate.of(2026, 2, 28), schedule.dueDate(0));
+		assertEquals(0, new BigDecimal("100000").compareTo(sumPrincipal(schedule)));
+	}
+
+	// 2. Sistema alemán
+	// 1200 al 12% anual en 12 meses: capital fijo 100, intereses 12, 11 ... 1.
+	@Test
+	void germanScheduleHasFixedPrincipal() {
+		AmortizationSchedule schedule = AmortizationSchedule.of(AmortizationSchedule.GERMAN,
+				new BigDecimal("1200"), new BigDecimal("12"), 12, START);
+
+		assertEquals(new BigDecimal("112.00"), schedule.installment(0));
+		assertEquals(new BigDecimal("101.00"), schedule.installment(11));
+		assertEquals(new BigDecimal("78.00"), schedule.totalInterest());
+		assertEquals(new BigDecimal("0.00"), schedule.balance(11));
+	}
+
+	// 3. Redondeo
+	// Con montos que no dividen exacto, la última cuota absorbe los centavos y no queda saldo.
+	@Test
+	void lastInstallmentAbsorbsRounding() {
+		AmortizationSchedule french = AmortizationSchedule.of(AmortizationSchedule.FRENCH,
+				new BigDecimal("1000.01"), new BigDecimal("0"), 3, START);
+		AmortizationSchedule german = AmortizationSchedule.of(AmortizationSchedule.GERMAN,
+				new BigDecimal("1000.01"), new BigDecimal("7.35"), 7, START);
+
+		assertEquals(new BigDecimal("333.34"), french.installment(0));
+		assertEquals(new BigDecimal("333.33"), french.installment(2));
+		assertEquals(0, new BigDecimal("1000.01").compareTo(sumPrincipal(french)));
+		assertEquals(0, new BigDecimal("1000.01").compareTo(sumPrincipal(german)));
+		assertEquals(new BigDecimal("0.00"), german.balance(6));
+	}
+
+	// 4. Datos inválidos
+	@Test
+	void rejectsUnknownMethod() {
+		assertThrows(IllegalArgumentException.class, () -> AmortizationSchedule.of("americano",
+				BigDecimal.TEN, BigDecimal.ONE, 12, START));
+	}
+
+	// 5. Cuota plana de préstamos anteriores
+	// 1000 con cuota guardada 91.67 en 12 meses: todas las cuotas son 91.67 y el saldo termina en cero.
+	@Test
+	void flatScheduleKeepsStoredInstallment() {
+		AmortizationSchedule schedule = AmortizationSchedule.flat(new BigDecimal("1000"), new BigDecimal("91.67"), 12, START);
+
+		assertEquals(AmortizationSchedule.FLAT, schedule.getMethod());
+		for (int i = 0; i < schedule.size(); i++) {
+			assertEquals(new BigDecimal("91.67"), schedule.installment(i));
+		}
+		assertEquals(new BigDecimal("83.33"), schedule.principal(0));
+		assertEquals(0, new BigDecimal("1000").compareTo(sumPrincipal(schedule)));
+		assertEquals(new BigDecimal("0.00"), schedule.balance(11));
+	}
+
+	private BigDecimal sumPrincipal(AmortizationSchedule schedule) {
+		BigDecimal total = BigDecimal.ZERO;
+		for (int i = 0; i < schedule.size(); i++) {
+			total = total.add(schedule.principal(i));
+		}
+		return total;
+	}
+}
@@ -1,11 +1,16 @@
 package com.bank.loan_service;
 
 import com.bank.loan_service.dto.LoanDTO;
+import com.bank.loan_service.dto.LoanQuoteDTO;
+import com.bank.loan_service.dto.LoanQuoteRequestDTO;
+import com.bank.loan_service.dto.ScheduleDTO;
 import com.bank.loan_service.entity.Loan;
 import com.bank.loan_service.repository.LoanRepository;
 import com.bank.loan_service.service.LoanService;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -48,16 +53,19 @@ class LoanServiceApplicationTests {
 		savedLoan.setTermMonths(12);
 		savedLoan.setStartDate(LocalDate.now());
 		savedLoan.setEndDate(LocalDate.now().plusMonths(12));
-		// Interes = 1000 * 10 / 100 = 100. Total = 1100. Monthly = 1100 / 12 = 91.67
-		savedLoan.setMonthlyPayment(new BigDecimal("91.67"));
+		// Sistema francés, 10% nominal anual: cuota fija 87.92
+		savedLoan.setMonthlyPayment(new BigDecimal("87.92"));
 		savedLoan.setStatus("activo");
 
-		when(loanRepository.save(any(Loan.class))).thenReturn(savedLoan);
+		ArgumentCaptor<Loan> saved = ArgumentCaptor.forClass(Loan.class);
+		when(loanRepository.save(saved.capture())).thenReturn(savedLoan);
 
 		LoanDTO result = loanService.createLoan(inputDto);
 
 		assertNotNull(result);
-		assertEquals(new BigDecimal("91.67"), result.getMonthlyPayment());
+		assertEquals(new BigDecimal("87.92"), saved.getValue().getMonthlyPayment());
+		assertEquals(LocalDate.now().plusMonths(12), saved.getValue().getEndDate());
+		assertEquals(new BigDecimal("87.92"), result.getMonthlyPayment());
 		assertEquals("activo", result.getStatus());
 		verify(loanRepository, times(1)).save(any(Loan.class));
 	}
@@ -121,18 +129,18 @@ class LoanServiceApplicationTests {
 		inputDto.setInterestRate(new BigDecimal("5")); // 5%
 		inputDto.setTermMonths(24);
 
-		// Expected:
-		// Interest = 5000 * 0.05 = 250
-		// Total = 5250
-		// Monthly = 5250 / 24 = 218.75
+		// Expected (sistema francés, 5% nominal anual):
+		// r = 0.05 / 12; cuota = 5000 * r / (1 - (1 + r)^-24) = 219.36
 
 		Loan savedLoan = new Loan();
-		savedLoan.setMonthlyPayment(new BigDecimal("218.75"));
-		when(loanRepository.save(any(Loan.class))).thenReturn(savedLoan);
+		savedLoan.setMonthlyPayment(new BigDecimal("219.36"));
+		ArgumentCaptor<Loan> saved = ArgumentCaptor.forClass(Loan.class);
+		when(loanRepository.save(saved.capture())).thenReturn(savedLoan);
 
 		LoanDTO result = loanService.createLoan(inputDto);
 
-		assertEquals(new BigDecimal("218.75"), result.getMonthlyPayment());
+		assertEquals(new BigDecimal("219.36"), saved.getValue().getMonthlyPayment());
+		assertEquals(new BigDecimal("219.36"), result.getMonthlyPayment());
 	}
 
 	// 7. Test Default Status
@@ -176,6 +184,7 @@ class LoanServiceApplicationTests {
 	// Este test está DISEÑADO PARA FALLAR. Espera un cálculo incorrecto
 	// intencionalmente.
 	@Test
+	@Tag("failing")
 	void testCreateLoan_InterestCalculationError_FAILING() {
 		LoanDTO inputDto = new LoanDTO();
 		inputDto.setLoanAmount(new BigDecimal("1000"));
@@ -183,13 +192,13 @@ class LoanServiceApplicationTests {
 		inputDto.setTermMonths(12);
 
 		Loan savedLoan = new Loan();
-		// El servicio calcula 91.67, pero aquí simulamos que el repo devuelve eso
-		savedLoan.setMonthlyPayment(new BigDecimal("91.67"));
+		// El servicio calcula 87.92, pero aquí simulamos que el repo devuelve eso
+		savedLoan.setMonthlyPayment(new BigDecimal("87.92"));
 		when(loanRepository.save(any(Loan.class))).thenReturn(savedLoan);
 
 		LoanDTO result = loanService.createLoan(inputDto);
 
-		// FALLARÁ AQUÍ: Esperamos 9999 pero el resultado real será 91.67
+		// FALLARÁ AQUÍ: Esperamos 9999 pero el resultado real será 87.92
 		assertEquals(new BigDecimal("9999.00"), result.getMonthlyPayment(),
 				"Este test debe fallar porque el cálculo esperado es incorrecto");
 	}
@@ -198,6 +207,7 @@ class LoanServiceApplicationTests {
 	// Este test está DISEÑADO PARA FALLAR. Verifica que el ID devuelto sea
 	// diferente al solicitado.
 	@Test
+	@Tag("failing")
 	void testGetLoanById_WrongId_FAILING() {
 		Loan loan = new Loan();
 		loan.setId(1L);
@@ -209,4 +219,86 @@ class LoanServiceApplicationTests {
 		assertEquals(2L, result.getId(), "Este test debe fallar porque el ID devuelto es 1, no 2");
 	}
 
+	// 11. Test Schedule Matches Booked Loan
+	// Verifica que la primera cuota del cuadro sea la cuota guardada del préstamo, también en
+	// sistema alemán, y que la última cuota venza en endDate.
+	@Test
+	void testScheduleMatchesBookedLoan() {
+		LoanDTO inputDto = new LoanDTO();
+		inputDto.setLoanAmount(new BigDecimal("1200"));
+		inputDto.setInterestRate(new BigDecimal("12"));
+		inputDto.setTermMonths(12);
+		inputDto.setAmortizationMethod("aleman");
+
+		ArgumentCaptor<Loan> saved = ArgumentCaptor.forClass(Loan.class);
+		when(loanRepository.save(saved.capture())).thenAnswer(invocation -> {
+			Loan loan = invocation.getArgument(0);
+			loan.setId(5L);
+			return loan;
+		});
+
+		LoanDTO booked = loanService.createLoan(inputDto);
+		ScheduleDTO schedule = loanService.getSchedule(5L);
+
+		assertEquals(new BigDecimal("112.00"), booked.getMonthlyPayment());
+		assertEquals(booked.getMonthlyPayment(), schedule.getInstallments().get(0).getInstallment());
+		assertEquals(booked.getEndDate(), schedule.getInstallments().get(11).getDueDate());
+		assertEquals("aleman", schedule.getMethod());
+		verify(loanRepository, never()).findById(any());
+	}
+
+	// 12. Test Legacy Loan Schedule
+	// Verifica que un préstamo anterior a los sistemas de amortización (sin método guardado) muestre
+	// un cuadro plano cuyas cuotas son la cuota guardada.
+	@Test
+	void testLegacyScheduleKeepsStoredPayment() {
+		Loan loan = new Loan();
+		loan.setId(7L);
+		loan.setLoanAmount(new BigDecimal("1000"));
+		loan.setInterestRate(new BigDecimal("10"));
+		loan.setTermMonths(12);
+		loan.setMonthlyPayment(new BigDecimal("91.67"));
+		loan.setStartDate(LocalDate.of(2024, 1, 10));
+		when(loanRepository.findById(7L)).thenReturn(Optional.of(loan));
+
+		ScheduleDTO schedule = loanService.getSchedule(7L);
+
+		assertEquals("plano", schedule.getMethod());
+		assertEquals(loan.getMonthlyPayment(), schedule.getInstallments().get(0).getInstallment());
+		assertEquals(loan.getMonthlyPayment(), schedule.getInstallments().get(11).getInstallment());
+		assertEquals("plano", loanService.getLoanById(7L).getAmortizationMethod());
+	}
+
+	// 13. Test Quote Grid
+	// Verifica que la cotización dé la misma cuota que createLoan (tests 1 y 6), respete el orden
+	// montos x tasas x plazos y no toque el repositorio.
+	@Test
+	void testQuoteMatchesCreateLoanCalculation() {
+		LoanQuoteRequestDTO request = new LoanQuoteRequestDTO();
+		request.setLoanAmounts(Arrays.asList(new BigDecimal("1000"), new BigDecimal("5000")));
+		request.setInterestRates(Arrays.asList(new BigDecimal("10"), new BigDecimal("5")));
+		request.setTermMonths(Arrays.asList(12, 24));
+
+		List<LoanQuoteDTO> quotes = loanService.quote(request, 100);
+
+		assertEquals(8, quotes.size());
+		assertEquals(new BigDecimal("87.92"), quotes.get(0).getMonthlyPayment());
+		assertEquals(new BigDecimal("1054.99"), quotes.get(0).getTotalCost());
+		assertEquals(24, quotes.get(1).getTermMonths());
+		assertEquals(new BigDecimal("219.36"), quotes.get(7).getMonthlyPayment());
+		verifyNoInteractions(loanRepository);
+	}
+
+	// 14. Test Quote Grid Too Large
+	// Verifica que se rechace una grilla con más combinaciones que el máximo.
+	@Test
+	void testQuoteRejectsOversizedGrid() {
+		LoanQuoteRequestDTO request = new LoanQuoteRequestDTO();
+		request.setLoanAmounts(Arrays.asList(BigDecimal.TEN, BigDecimal.ONE));
+		request.setInterestRates(Arrays.asList(BigDecimal.ONE));
+		request.setTermMonths(Arrays.asList(1, 2));
+
+		assertThrows(IllegalArgumentException.class, () -> loanService.quote(request, 3));
+	}
+
 }
@@ -0,0 +1,27 @@
+package com.bank.payment_service.client;
+
+import com.bank.payment_service.dto.AccountEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Llamadas a account-service; la URL base y los timeouts vienen de application.yml
+@Component
+public class AccountClient {
+
+    @Autowired
+    @Qualifier("accountServiceRestTemplate")
+    private RestTemplate restTemplate;
+
+    // Lote de eventos del outbox; devuelve el resultado de cada uno. Los errores de red o 5xx se
+    // propagan: el lote se reintenta y account-service descarta los eventos ya aplicados
+    public List<AccountEventDTO> sendEvents(List<AccountEventDTO> events) {
+        AccountEventDTO[] results = restTemplate.postForObject("/api/accounts/events", events, AccountEventDTO[].class);
+        return results != null ? Arrays.asList(results) : Collections.emptyList();
+    }
+}
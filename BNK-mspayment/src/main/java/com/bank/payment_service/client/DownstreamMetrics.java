@@ -0,0 +1,82 @@
+package com.bank.payment_service.client;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Métricas por servicio destino: estado del pool de conexiones y latencia de las llamadas
+@Component
+public class DownstreamMetrics {
+
+    private final Map<String, PoolingHttpClientConnectionManager> pools = new ConcurrentHashMap<>();
+    private final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+
+    public void registerPool(String downstream, PoolingHttpClientConnectionManager pool) {
+        pools.put(downstream, pool);
+    }
+
+    // Interceptor que mide cada llamada hacia el servicio indicado
+    public ClientHttpRequestInterceptor interceptor(String downstream) {
+        Latency latency = latencies.computeIfAbsent(downstream, key -> new Latency());
+        return (request, body, execution) -> {
+            long start = System.nanoTime();
+            boolean ok = false;
+            try {
+                var response = execution.execute(request, body);
+                ok = !response.getStatusCode().isError();
+                return response;
+            } finally {
+                latency.record(System.nanoTime() - start, ok);
+            }
+        };
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        latencies.forEach((name, latency) -> result.computeIfAbsent(name, key -> new LinkedHashMap<>())
+                .putAll(latency.toMap()));
+        pools.forEach((name, pool) -> {
+            PoolStats stats = pool.getTotalStats();
+            Map<String, Object> values = result.computeIfAbsent(name, key -> new LinkedHashMap<>());
+            values.put("poolLeased", stats.getLeased());
+            values.put("poolAvailable", stats.getAvailable());
+            values.put("poolPending", stats.getPending());
+            values.put("poolMax", stats.getMax());
+        });
+        return result;
+    }
+
+    private static class Latency {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean ok) {
+            calls.increment();
+            if (!ok) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            long count = calls.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("calls", count);
+            values.put("errors", errors.sum());
+            values.put("avgMillis", count == 0 ? 0.0 : totalNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1));
+            values.put("maxMillis", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            return values;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bank.payment_service.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+// service_payments venía con IDENTITY, que impide agrupar los INSERT en lotes JDBC: se pasa una sola vez a
+// service_payments_seq con incremento 100 (allocationSize). Corre antes del EntityManagerFactory porque
+// Hibernate no arranca si el incremento de la secuencia no coincide. PartitionMaintenance usa esta
+// misma secuencia como default de la tabla particionada
+@Component(SequenceMigration.BEAN_NAME)
+public class SequenceMigration implements InitializingBean {
+
+    static final String BEAN_NAME = "sequenceMigration";
+
+    // Candado para que dos instancias no migren a la vez
+    private static final long LOCK_ID = 83_021L;
+
+    private static final String TABLE = "service_payments";
+    private static final String SEQUENCE = TABLE + "_seq";
+    private static final int INCREMENT = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    // Sin el transactionManager de JPA: todavía no existe cuando esto corre
+    public SequenceMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, LOCK_ID);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, SEQUENCE))) {
+                jdbcTemplate.execute("CREATE SEQUENCE " + SEQUENCE + " INCREMENT BY " + INCREMENT);
+            }
+            boolean identity = Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT count(*) = 1 " +
+                    "FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = ? " +
+                    "AND column_name = 'id' AND is_identity = 'YES'", Boolean.class, TABLE));
+            if (!identity) {
+                return; // base nueva o ya migrada
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id DROP IDENTITY");
+            // El próximo bloque empieza por encima de todo id ya usado
+            jdbcTemplate.queryForObject("SELECT setval('" + SEQUENCE + "', (SELECT COALESCE(max(id), 0) FROM " +
+                    TABLE + ") + " + INCREMENT + ")", Long.class);
+        });
+    }
+
+    // Hace que el EntityManagerFactory dependa de esta migración
+    @Component
+    static class JpaDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        JpaDependency() {
+            super(BEAN_NAME);
+        }
+    }
+}
@@ -1,24 +1,137 @@
 package com.bank.payment_service.controller;
 import com.bank.payment_service.dto.PaymentDTO;
+import com.bank.payment_service.dto.PaymentStatsDTO;
+import com.bank.payment_service.service.DuplicatePaymentException;
+import com.bank.payment_service.service.ExportWriter;
+import com.bank.payment_service.service.PaymentExportService;
+import com.bank.payment_service.service.PaymentRollupService;
 import com.bank.payment_service.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private PaymentExportService paymentExportService;
+
+    @Autowired
+    private PaymentRollupService paymentRollupService;
+
     @GetMapping
     public ResponseEntity<List<PaymentDTO>> getAllPayments() {
         return ResponseEntity.ok(paymentService.getAllPayments());
     }
 
+    // Página por cursor: ?limit=N&after=<último id>; el siguiente cursor va en X-Next-After
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<PaymentDTO>> getPaymentsPage(@RequestParam int limit, @RequestParam(required = false) Long after) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<PaymentDTO> page = paymentService.getPaymentsPage(after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(size - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    // Listado completo en streaming: ?stream=true
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllPayments() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(paymentService::writeAllPayments);
+    }
+
+    // Exportación completa: ?format=csv|ndjson&accountId=&from=&to=&gzip=true. Para reanudar una
+    // descarga cortada se repite con ?after=<id de la última fila recibida>
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = ExportWriter.CSV) String format,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!ExportWriter.isSupported(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportWriter.contentType(format)))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments." + format + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> paymentExportService.export(format, accountId, from, to, after, gzip, out));
+    }
+
+    // Historial de una cuenta, más reciente primero; ?serviceType=&from=&to= (ISO) y ?limit=. Sin from
+    // se devuelven los últimos history.default-window (365 días). El cursor de la página siguiente va
+    // en X-Next-After y se envía como ?after=
+    @GetMapping("/account/{accountId}")
+    public ResponseEntity<List<PaymentDTO>> getPaymentsByAccount(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String serviceType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<PaymentDTO> page;
+        try {
+            page = paymentService.getPaymentsByAccount(accountId, serviceType, from, to, after, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, PaymentService.cursorOf(page.get(size - 1)));
+        }
+        return response.body(page);
+    }
+
+    // Totales por tipo de servicio: ?from=&to= (fechas ISO, to exclusivo), ?groupBy=day|month y ?serviceType=.
+    // Se leen de payment_daily_rollups, no de service_payments
+    @GetMapping("/stats")
+    public ResponseEntity<List<PaymentStatsDTO>> getStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy,
+            @RequestParam(required = false) String serviceType) {
+        if (!from.isBefore(to) || !("day".equalsIgnoreCase(groupBy) || "month".equalsIgnoreCase(groupBy))) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(paymentRollupService.getStats(from, to, groupBy, serviceType));
+    }
+
+    // Recalcula los totales de [from, to) desde los pagos; sin from, desde el primer pago. Devuelve los días procesados
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Integer> rebuildStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : paymentRollupService.firstPaymentDay();
+        LocalDate end = to != null ? to : LocalDate.now().plusDays(1);
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(paymentRollupService.rebuild(start, end));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PaymentDTO> getPaymentById(@PathVariable Long id) {
         PaymentDTO payment = paymentService.getPaymentById(id);
@@ -27,7 +140,19 @@ public class PaymentController {
 
     @PostMapping
     public ResponseEntity<PaymentDTO> createPayment(@RequestBody PaymentDTO dto) {
-        return ResponseEntity.ok(paymentService.createPayment(dto));
+        try {
+            return ResponseEntity.ok(paymentService.createPayment(dto));
+        } catch (DuplicatePaymentException e) {
+            // 409: el cliente debe confirmar explícitamente reenviando con confirmDuplicate=true
+            dto.setStatus("duplicado");
+            dto.setFailureReason(e.getMessage());
+            dto.setDuplicateOfId(e.getDuplicateOfId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(dto);
+        } catch (IllegalArgumentException e) {
+            dto.setStatus("rechazado");
+            dto.setFailureReason(e.getMessage());
+            return ResponseEntity.badRequest().body(dto);
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -1,6 +1,7 @@
 package com.bank.payment_service.dto;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class PaymentDTO {
     private Long id;
@@ -8,6 +9,11 @@ public class PaymentDTO {
     private String serviceType;
     private String serviceReference;
     private BigDecimal amount;
+    private LocalDateTime paymentDate;
+    private String status;
+    private String failureReason;
+    private Boolean confirmDuplicate; // true para registrar un pago marcado como posible duplicado
+    private Long duplicateOfId;
 
     // Getters y Setters
 
@@ -51,5 +57,44 @@ public class PaymentDTO {
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
-}
 
+    public LocalDateTime getPaymentDate() {
+        return paymentDate;
+    }
+
+    public void setPaymentDate(LocalDateTime paymentDate) {
+        this.paymentDate = paymentDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public Boolean getConfirmDuplicate() {
+        return confirmDuplicate;
+    }
+
+    public void setConfirmDuplicate(Boolean confirmDuplicate) {
+        this.confirmDuplicate = confirmDuplicate;
+    }
+
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+
+    public void setDuplicateOfId(Long duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+}
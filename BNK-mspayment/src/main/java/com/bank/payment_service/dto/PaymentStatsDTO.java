@@ -0,0 +1,44 @@
+package com.bank.payment_service.dto;
+
+import java.math.BigDecimal;
+
+public class PaymentStatsDTO {
+    private String serviceType;
+    private String period; // yyyy-MM-dd o yyyy-MM según groupBy
+    private Long paymentCount;
+    private BigDecimal totalAmount;
+
+    // Getters y Setters
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public Long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public void setPaymentCount(Long paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -5,11 +5,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "service_payments")
+@Table(name = "service_payments", indexes = {
+        // Búsqueda de pagos repetidos del mismo servicio y referencia en una ventana de tiempo
+        @Index(name = "idx_payments_duplicate", columnList = "account_id, service_type, service_reference, payment_date")
+})
+// El índice del historial (idx_payments_account_history) lleva INCLUDE, que @Index no expresa: lo crea PartitionMaintenance
 public class Payment {
 
+    public static final String PENDING = "pendiente";
+    public static final String COMPLETED = "completado";
+    public static final String FAILED = "fallido";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_payments_seq")
+    @SequenceGenerator(name = "service_payments_seq", sequenceName = "service_payments_seq", allocationSize = 100)
     private Long id;
 
     private Long accountId; // ID de cuenta origen
@@ -20,6 +29,9 @@ public class Payment {
 
     private LocalDateTime paymentDate;
 
+    private String status; // pendiente hasta que account-service aplica el débito
+    private String failureReason;
+
     @PrePersist
     protected void onCreate() {
         this.paymentDate = LocalDateTime.now();
@@ -75,5 +87,20 @@ public class Payment {
     public void setPaymentDate(LocalDateTime paymentDate) {
         this.paymentDate = paymentDate;
     }
-}
 
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+}
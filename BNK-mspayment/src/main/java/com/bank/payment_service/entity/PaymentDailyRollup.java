@@ -0,0 +1,83 @@
+package com.bank.payment_service.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Totales de pagos no fallidos por tipo de servicio y día; los mantiene PaymentRollupService
+@Entity
+@Table(name = "payment_daily_rollups")
+@IdClass(PaymentDailyRollup.Key.class)
+public class PaymentDailyRollup {
+
+    @Id
+    private String serviceType;
+
+    @Id
+    private LocalDate rollupDate;
+
+    private Long paymentCount;
+    private BigDecimal totalAmount;
+    private LocalDateTime updatedAt;
+
+    public static class Key implements Serializable {
+        private String serviceType;
+        private LocalDate rollupDate;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(serviceType, key.serviceType)
+                    && Objects.equals(rollupDate, key.rollupDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serviceType, rollupDate);
+        }
+    }
+
+    // Getters y Setters
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    public Long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public void setPaymentCount(Long paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.payment_service.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Proyección del historial por cuenta: solo las columnas que muestra el listado
+public interface PaymentHistoryView {
+    Long getId();
+
+    String getServiceType();
+
+    String getServiceReference();
+
+    BigDecimal getAmount();
+
+    LocalDateTime getPaymentDate();
+
+    String getStatus();
+
+    String getFailureReason();
+}
@@ -1,10 +1,58 @@
 package com.bank.payment_service.repository;
 
 import com.bank.payment_service.entity.Payment;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-}
 
+    List<Payment> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Lectura en streaming con fetch size fijo (requiere transacción abierta)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Payment> streamAllByOrderByIdAsc();
+
+    // Historial de una cuenta por keyset sobre idx_payments_account_history: después de (afterDate, afterId)
+    // en orden payment_date DESC, id; el costo por página no depende de cuántos pagos tenga la cuenta.
+    // "paymentDate <= :afterDate" repite el cursor como cota simple para que el rango del índice empiece
+    // ahí y no filtre todas las filas más nuevas; con el OR solo, PostgreSQL no lo usa como cota
+    @Query("SELECT p.id AS id, p.serviceType AS serviceType, p.serviceReference AS serviceReference, " +
+            "p.amount AS amount, p.paymentDate AS paymentDate, p.status AS status, p.failureReason AS failureReason " +
+            "FROM Payment p WHERE p.accountId = :accountId " +
+            "AND (:serviceType IS NULL OR p.serviceType = :serviceType) " +
+            "AND p.paymentDate >= :from AND p.paymentDate < :to " +
+            "AND p.paymentDate <= :afterDate " +
+            "AND (p.paymentDate < :afterDate OR (p.paymentDate = :afterDate AND p.id > :afterId)) " +
+            "ORDER BY p.paymentDate DESC, p.id ASC")
+    List<PaymentHistoryView> findHistory(@Param("accountId") Long accountId,
+                                         @Param("serviceType") String serviceType,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("afterDate") LocalDateTime afterDate,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    // Resultado de account-service; el rango de fechas permite leer una sola partición. Solo cambia pagos que siguen pendientes
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.failureReason = :failureReason " +
+            "WHERE p.id = :id AND p.paymentDate BETWEEN :since AND :until AND p.status = 'pendiente'")
+    int completePending(@Param("id") Long id, @Param("since") LocalDateTime since, @Param("until") LocalDateTime until,
+                        @Param("status") String status, @Param("failureReason") String failureReason);
+}
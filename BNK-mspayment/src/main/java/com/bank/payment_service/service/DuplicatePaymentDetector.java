@@ -0,0 +1,91 @@
+package com.bank.payment_service.service;
+import com.bank.payment_service.entity.Payment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Detección de pagos repetidos (misma cuenta, servicio y referencia dentro de la ventana).
+// Las referencias recientes se guardan en memoria: si la del pago no está, no hay duplicado posible y no
+// se consulta la base; si está, se confirma con idx_payments_duplicate (el pago anterior pudo fallar o
+// borrarse). La memoria es de cada instancia: un pago repetido por otra instancia no se detecta
+@Component
+public class DuplicatePaymentDetector implements SmartInitializingSingleton {
+
+    private static final String FIND_SQL = "SELECT id FROM service_payments WHERE account_id = ? " +
+            "AND service_type = ? AND service_reference = ? AND payment_date >= ? AND status <> 'fallido' " +
+            "ORDER BY payment_date DESC LIMIT 1";
+
+    private static final String REBUILD_SQL = "SELECT id, account_id, service_type, service_reference " +
+            "FROM service_payments WHERE payment_date >= ? AND status <> 'fallido'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${duplicates.enabled:true}")
+    private boolean enabled;
+
+    private final Duration window;
+    private final Cache<String, Long> recent;
+
+    public DuplicatePaymentDetector(@Value("${duplicates.window:10m}") Duration window,
+                                    @Value("${duplicates.max-size:200000}") long maxSize) {
+        this.window = window;
+        this.recent = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(window).build();
+    }
+
+    // Carga las referencias de la ventana actual para no perder duplicados tras un reinicio
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REBUILD_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(1_000);
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minus(window)));
+            return statement;
+        }, (ResultSet rs) -> {
+            recent.put(key(rs.getLong(2), rs.getString(3), rs.getString(4)), rs.getLong(1));
+        }));
+    }
+
+    // Devuelve el id del pago anterior, o null si no es un duplicado
+    public Long findDuplicate(Long accountId, String serviceType, String serviceReference) {
+        if (!enabled || recent.getIfPresent(key(accountId, serviceType, serviceReference)) == null) {
+            return null;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(FIND_SQL, Long.class, accountId, serviceType, serviceReference,
+                Timestamp.valueOf(LocalDateTime.now().minus(window)));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    public void record(Payment payment) {
+        if (enabled) {
+            recent.put(key(payment.getAccountId(), payment.getServiceType(), payment.getServiceReference()),
+                    payment.getId());
+        }
+    }
+
+    private static String key(Long accountId, String serviceType, String serviceReference) {
+        return accountId + "|" + serviceType + "|" + serviceReference;
+    }
+}
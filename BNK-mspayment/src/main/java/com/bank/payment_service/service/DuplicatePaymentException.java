@@ -0,0 +1,16 @@
+package com.bank.payment_service.service;
+
+// Pago igual (cuenta, servicio y referencia) a otro reciente; se registra solo con confirmDuplicate
+public class DuplicatePaymentException extends IllegalStateException {
+
+    private final Long duplicateOfId;
+
+    public DuplicatePaymentException(Long duplicateOfId) {
+        super("Posible pago duplicado del pago " + duplicateOfId + ". Envíe confirmDuplicate=true para registrarlo.");
+        this.duplicateOfId = duplicateOfId;
+    }
+
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.payment_service.service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Exportación de historial para auditoría: cursor JDBC de solo avance, filas en orden de id.
+// El id de la última fila recibida sirve de token para reanudar (?after=)
+@Service
+public class PaymentExportService {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final String[] COLUMNS = {"id", "account_id", "service_type", "service_reference", "amount", "status",
+            "failure_reason", "payment_date"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void export(String format, Long accountId, LocalDateTime from, LocalDateTime to, Long after,
+                       boolean gzip, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT " + String.join(", ", COLUMNS) + " FROM service_payments WHERE id > ?");
+        List<Object> params = new ArrayList<>();
+        params.add(after != null ? after : 0L);
+        if (accountId != null) {
+            sql.append(" AND account_id = ?");
+            params.add(accountId);
+        }
+        if (from != null) {
+            sql.append(" AND payment_date >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND payment_date < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id");
+
+        try (ExportWriter writer = new ExportWriter(format, COLUMNS, out, gzip, objectMapper)) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            // Con autocommit desactivado el driver de PostgreSQL trae las filas de a FETCH_SIZE
+            transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, (ResultSet rs) -> writeRow(writer, rs)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeRow(ExportWriter writer, ResultSet rs) throws SQLException {
+        try {
+            writer.writeRow(rs);
+        } catch (IOException e) {
+            // Normalmente el cliente cortó la descarga; se cancela la consulta
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.bank.payment_service.service;
+import com.bank.payment_service.dto.PaymentStatsDTO;
+import com.bank.payment_service.entity.Payment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Totales por tipo de servicio y día en payment_daily_rollups. Los pagos no escriben la fila directamente
+// (en los picos todos los pagos de "luz" de hoy pelearían por la misma fila): cada cambio suma un delta en
+// memoria y cada segundo los deltas se aplican con upserts en lote. Lo que no llegó a aplicarse antes de
+// una caída lo corrige la reconstrucción, que corre cada noche para el día anterior
+@Service
+public class PaymentRollupService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentRollupService.class);
+
+    // Base de los candados por día (se le suma el epochDay) para que dos reconstrucciones no se pisen
+    private static final long LOCK_BASE = 83_023_000_000L;
+
+    private static final String UPSERT_SQL = "INSERT INTO payment_daily_rollups (service_type, rollup_date, " +
+            "payment_count, total_amount, updated_at) VALUES (?, ?, ?, ?, now()) ON CONFLICT (service_type, rollup_date) " +
+            "DO UPDATE SET payment_count = payment_daily_rollups.payment_count + EXCLUDED.payment_count, " +
+            "total_amount = payment_daily_rollups.total_amount + EXCLUDED.total_amount, updated_at = now()";
+
+    private static final String REBUILD_SQL = "INSERT INTO payment_daily_rollups (service_type, rollup_date, " +
+            "payment_count, total_amount, updated_at) SELECT COALESCE(service_type, ''), ?, count(*), sum(amount), now() " +
+            "FROM service_payments WHERE payment_date >= ? AND payment_date < ? AND status <> 'fallido' " +
+            "GROUP BY COALESCE(service_type, '')";
+
+    private record Key(String serviceType, LocalDate day) {
+    }
+
+    private record Delta(long count, BigDecimal amount) {
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, amount.add(other.amount));
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${rollups.parallelism:4}")
+    private int parallelism;
+
+    private final Map<Key, Delta> deltas = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void startExecutor() {
+        executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    // Primer arranque con la tabla vacía: se calcula el histórico completo
+    @Override
+    public void afterSingletonsInstantiated() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM payment_daily_rollups)", Boolean.class);
+        if (Boolean.TRUE.equals(empty)) {
+            rebuild(firstPaymentDay(), LocalDate.now().plusDays(1));
+        }
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        flush();
+        executor.shutdownNow();
+    }
+
+    // sign: +1 al registrar un pago, -1 al borrarlo o cuando falla. Dentro de una transacción el delta
+    // se suma recién al confirmarse
+    public void record(Payment payment, int sign) {
+        if (payment.getPaymentDate() == null || payment.getAmount() == null) {
+            return;
+        }
+        Key key = new Key(payment.getServiceType() != null ? payment.getServiceType() : "",
+                payment.getPaymentDate().toLocalDate());
+        Delta delta = new Delta(sign, sign > 0 ? payment.getAmount() : payment.getAmount().negate());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deltas.merge(key, delta, Delta::plus);
+                }
+            });
+        } else {
+            deltas.merge(key, delta, Delta::plus);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rollups.flush-interval:1000}")
+    public void flush() {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // remove es atómico frente a merge: un delta que llega después queda para el próximo flush.
+        // Orden fijo de filas para que dos instancias no se bloqueen mutuamente
+        List<Key> keys = new ArrayList<>(deltas.keySet());
+        keys.sort(Comparator.comparing(Key::serviceType).thenComparing(Key::day));
+        List<Object[]> rows = new ArrayList<>(keys.size());
+        List<Key> taken = new ArrayList<>(keys.size());
+        List<Delta> values = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            Delta delta = deltas.remove(key);
+            if (delta != null && (delta.count() != 0 || delta.amount().signum() != 0)) {
+                rows.add(new Object[]{key.serviceType(), Date.valueOf(key.day()), delta.count(), delta.amount()});
+                taken.add(key);
+                values.add(delta);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, rows));
+        } catch (RuntimeException e) {
+            // Se devuelven para el próximo intento
+            for (int i = 0; i < taken.size(); i++) {
+                deltas.merge(taken.get(i), values.get(i), Delta::plus);
+            }
+            log.warn("No se pudieron aplicar los totales de pagos; se reintenta en el próximo flush", e);
+        }
+    }
+
+    // Recalcula [from, to) desde service_payments, un día por tarea en paralelo. Pensado para días cerrados:
+    // en el día en curso, un pago que entra durante el recálculo puede quedar contado dos veces
+    public int rebuild(LocalDate from, LocalDate to) {
+        flush();
+        List<Future<?>> days = new ArrayList<>();
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            LocalDate current = day;
+            days.add(executor.submit(() -> rebuildDay(current)));
+        }
+        for (Future<?> day : days) {
+            try {
+                day.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconstrucción interrumpida.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Error reconstruyendo totales: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return days.size();
+    }
+
+    // Cada noche corrige el día anterior
+    @Scheduled(cron = "${rollups.rebuild-cron:0 45 0 * * *}")
+    public void rebuildYesterday() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(1), today);
+    }
+
+    private void rebuildDay(LocalDate day) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, LOCK_BASE + day.toEpochDay());
+            jdbcTemplate.update("DELETE FROM payment_daily_rollups WHERE rollup_date = ?", Date.valueOf(day));
+            // El rango sobre payment_date lee una sola partición
+            jdbcTemplate.update(REBUILD_SQL, Date.valueOf(day), Timestamp.valueOf(day.atStartOfDay()),
+                    Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        });
+    }
+
+    // groupBy: day o month. Lee solo la tabla de totales: una fila por tipo de servicio y día
+    public List<PaymentStatsDTO> getStats(LocalDate from, LocalDate to, String groupBy, String serviceType) {
+        boolean monthly = "month".equalsIgnoreCase(groupBy);
+        String period = monthly ? "to_char(rollup_date, 'YYYY-MM')" : "to_char(rollup_date, 'YYYY-MM-DD')";
+        StringBuilder sql = new StringBuilder("SELECT service_type, " + period + " AS period, sum(payment_count), " +
+                "sum(total_amount) FROM payment_daily_rollups WHERE rollup_date >= ? AND rollup_date < ?");
+        List<Object> params = new ArrayList<>();
+        params.add(Date.valueOf(from));
+        params.add(Date.valueOf(to));
+        if (serviceType != null && !serviceType.isBlank()) {
+            sql.append(" AND service_type = ?");
+            params.add(serviceType);
+        }
+        sql.append(" GROUP BY service_type, period ORDER BY period, service_type");
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            PaymentStatsDTO dto = new PaymentStatsDTO();
+            dto.setServiceType(rs.getString(1));
+            dto.setPeriod(rs.getString(2));
+            dto.setPaymentCount(rs.getLong(3));
+            dto.setTotalAmount(rs.getBigDecimal(4));
+            return dto;
+        }, params.toArray());
+    }
+
+    // Primer día con pagos, o hoy si no hay ninguno
+    public LocalDate firstPaymentDay() {
+        Timestamp first = jdbcTemplate.queryForObject("SELECT min(payment_date) FROM service_payments", Timestamp.class);
+        return first != null ? first.toLocalDateTime().toLocalDate() : LocalDate.now();
+    }
+}
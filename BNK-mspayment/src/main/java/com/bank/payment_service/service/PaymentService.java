@@ -1,34 +1,167 @@
 package com.bank.payment_service.service;
+import com.bank.payment_service.dto.AccountEventDTO;
 import com.bank.payment_service.dto.PaymentDTO;
 import com.bank.payment_service.entity.Payment;
+import com.bank.payment_service.repository.PaymentHistoryView;
 import com.bank.payment_service.repository.PaymentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PaymentService {
 
+    // Margen sobre "ahora" del límite superior por defecto: los pagos se fechan al crearse,
+    // el margen cubre el desfase de reloj entre instancias
+    private static final Duration CLOCK_MARGIN = Duration.ofDays(1);
+
+    // Sin from el historial cubre solo esta ventana: con 1970 se recorrerían todas las particiones
+    @Value("${history.default-window:365d}")
+    private Duration defaultWindow;
+
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private DuplicatePaymentDetector duplicatePaymentDetector;
+
+    @Autowired
+    private PaymentRollupService paymentRollupService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<PaymentDTO> getAllPayments() {
         return paymentRepository.findAll().stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 
+    public List<PaymentDTO> getPaymentsPage(Long after, int limit) {
+        return paymentRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit))
+                .stream().map(this::mapToDTO).collect(Collectors.toList());
+    }
+
+    // Escribe el arreglo JSON a medida que se leen las filas; memoria constante sin importar el tamaño
+    @Transactional(readOnly = true)
+    public void writeAllPayments(OutputStream out) throws IOException {
+        try (Stream<Payment> rows = paymentRepository.streamAllByOrderByIdAsc();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            Iterator<Payment> it = rows.iterator();
+            while (it.hasNext()) {
+                Payment row = it.next();
+                json.writeObject(mapToDTO(row));
+                entityManager.detach(row);
+            }
+            json.writeEndArray();
+        }
+    }
+
+    // Historial de una cuenta, más reciente primero. after es el cursor "<paymentDate>,<id>" de la última
+    // fila de la página anterior; lanza IllegalArgumentException si no tiene ese formato
+    public List<PaymentDTO> getPaymentsByAccount(Long accountId, String serviceType, LocalDateTime from,
+                                                 LocalDateTime to, String after, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime upper = to != null ? to : now.plus(CLOCK_MARGIN);
+        LocalDateTime afterDate = upper;
+        Long afterId = 0L;
+        if (after != null && !after.isBlank()) {
+            int comma = after.lastIndexOf(',');
+            try {
+                afterDate = LocalDateTime.parse(after.substring(0, comma));
+                afterId = Long.parseLong(after.substring(comma + 1));
+            } catch (DateTimeParseException | NumberFormatException | StringIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+        }
+        return paymentRepository.findHistory(accountId,
+                        serviceType != null && !serviceType.isBlank() ? serviceType : null,
+                        from != null ? from : now.minus(defaultWindow),
+                        upper,
+                        afterDate, afterId, Limit.of(limit))
+                .stream().map(row -> mapToDTO(accountId, row)).collect(Collectors.toList());
+    }
+
+    public static String cursorOf(PaymentDTO payment) {
+        return payment.getPaymentDate() + "," + payment.getId();
+    }
+
     public PaymentDTO getPaymentById(Long id) {
         return paymentRepository.findById(id).map(this::mapToDTO).orElse(null);
     }
 
+    // Etapas: validar aquí; el débito (reserva y confirmación en un solo paso condicional e idempotente
+    // en account-service) lo envía OutboxDispatcher en micro-lotes, y su resultado deja el pago
+    // completado o fallido. El POST no espera a otros servicios.
+    // Lanza IllegalArgumentException si el pago no es válido y DuplicatePaymentException si repite uno
+    // reciente sin confirmDuplicate
+    @Transactional
     public PaymentDTO createPayment(PaymentDTO dto) {
+        validate(dto);
+        if (!Boolean.TRUE.equals(dto.getConfirmDuplicate())) {
+            Long duplicateOfId = duplicatePaymentDetector.findDuplicate(dto.getAccountId(),
+                    dto.getServiceType(), dto.getServiceReference());
+            if (duplicateOfId != null) {
+                throw new DuplicatePaymentException(duplicateOfId);
+            }
+        }
         Payment payment = mapToEntity(dto);
-        return mapToDTO(paymentRepository.save(payment));
+        payment.setStatus(Payment.PENDING);
+        payment = paymentRepository.save(payment);
+        duplicatePaymentDetector.record(payment);
+        paymentRollupService.record(payment, 1);
+
+        AccountEventDTO event = new AccountEventDTO();
+        event.setAccountId(payment.getAccountId());
+        event.setAmount(payment.getAmount());
+        event.setReference("PAG-" + payment.getId());
+        outboxService.enqueue(OutboxService.PAYMENT_CREATED, payment.getId(), event);
+        return mapToDTO(payment);
     }
 
+    private void validate(PaymentDTO dto) {
+        if (dto.getAccountId() == null) {
+            throw new IllegalArgumentException("Cuenta origen requerida.");
+        }
+        if (dto.getServiceType() == null || dto.getServiceType().isBlank()
+                || dto.getServiceReference() == null || dto.getServiceReference().isBlank()) {
+            throw new IllegalArgumentException("Servicio y referencia requeridos.");
+        }
+        if (dto.getAmount() == null || dto.getAmount().signum() <= 0 || dto.getAmount().scale() > 2) {
+            throw new IllegalArgumentException("Monto inválido.");
+        }
+    }
+
+    // Un pago fallido ya se descontó de los totales al fallar
+    @Transactional
     public void deletePayment(Long id) {
-        paymentRepository.deleteById(id);
+        paymentRepository.findById(id).ifPresent(payment -> {
+            if (!Payment.FAILED.equals(payment.getStatus())) {
+                paymentRollupService.record(payment, -1);
+            }
+            paymentRepository.delete(payment);
+        });
     }
 
     private PaymentDTO mapToDTO(Payment entity) {
@@ -38,6 +171,22 @@ public class PaymentService {
         dto.setServiceType(entity.getServiceType());
         dto.setServiceReference(entity.getServiceReference());
         dto.setAmount(entity.getAmount());
+        dto.setPaymentDate(entity.getPaymentDate());
+        dto.setStatus(entity.getStatus());
+        dto.setFailureReason(entity.getFailureReason());
+        return dto;
+    }
+
+    private PaymentDTO mapToDTO(Long accountId, PaymentHistoryView row) {
+        PaymentDTO dto = new PaymentDTO();
+        dto.setId(row.getId());
+        dto.setAccountId(accountId);
+        dto.setServiceType(row.getServiceType());
+        dto.setServiceReference(row.getServiceReference());
+        dto.setAmount(row.getAmount());
+        dto.setPaymentDate(row.getPaymentDate());
+        dto.setStatus(row.getStatus());
+        dto.setFailureReason(row.getFailureReason());
         return dto;
     }
 
@@ -0,0 +1,57 @@
+package com.bank.payment_service;
+
+import com.bank.payment_service.entity.Payment;
+import com.bank.payment_service.service.DuplicatePaymentDetector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DuplicatePaymentDetectorTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private DuplicatePaymentDetector detector;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		detector = new DuplicatePaymentDetector(Duration.ofMinutes(10), 1000);
+		ReflectionTestUtils.setField(detector, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(detector, "enabled", true);
+	}
+
+	// 1. Caso común
+	// Una referencia que no está en memoria no es duplicado y no consulta la base.
+	@Test
+	void unknownReferenceSkipsDatabase() {
+		assertNull(detector.findDuplicate(1L, "luz", "REF-1"));
+		verifyNoInteractions(jdbcTemplate);
+	}
+
+	// 2. Referencia reciente
+	// Se confirma con la base y se devuelve el id del pago anterior.
+	@Test
+	void recentReferenceIsConfirmedWithDatabase() {
+		Payment previous = new Payment();
+		previous.setId(42L);
+		previous.setAccountId(1L);
+		previous.setServiceType("luz");
+		previous.setServiceReference("REF-1");
+		detector.record(previous);
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any(), any())).thenReturn(List.of(42L));
+
+		assertEquals(42L, detector.findDuplicate(1L, "luz", "REF-1"));
+		assertNull(detector.findDuplicate(1L, "agua", "REF-1"));
+		verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), any(), any(), any(), any());
+	}
+}
@@ -0,0 +1,110 @@
+package com.bank.payment_service;
+
+import com.bank.payment_service.service.PartitionMaintenance;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PartitionMaintenanceTests {
+
+	// 1. Rango de meses
+	// Incluye ambos extremos y cruza el cambio de año.
+	@Test
+	void monthsIncludeBothEndsAcrossYears() {
+		List<YearMonth> months = ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "months",
+				YearMonth.of(2025, 11), YearMonth.of(2026, 2));
+		assertEquals(List.of(YearMonth.of(2025, 11), YearMonth.of(2025, 12), YearMonth.of(2026, 1), YearMonth.of(2026, 2)), months);
+	}
+
+	// 2. Límites de la partición
+	// Rango semiabierto del primer día del mes al primer día del siguiente.
+	@Test
+	void boundsCoverOneMonth() {
+		assertEquals("service_payments_p202602", ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "partitionName",
+				"service_payments", YearMonth.of(2026, 2)));
+		assertEquals(" FOR VALUES FROM ('2026-02-01') TO ('2026-03-01')",
+				ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "bounds", YearMonth.of(2026, 2)));
+		assertEquals(" FOR VALUES FROM ('2025-12-01') TO ('2026-01-01')",
+				ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "bounds", YearMonth.of(2025, 12)));
+	}
+
+	// 3. Nombres al desacoplar
+	// Solo las particiones mensuales tienen mes; DEFAULT y otras tablas se ignoran.
+	@Test
+	void onlyMonthlyPartitionsHaveMonth() {
+		assertEquals(YearMonth.of(2026, 1), partitionMonth("service_payments_p202601"));
+		assertNull(partitionMonth("service_payments_default"));
+		assertNull(partitionMonth("service_payments_legacy"));
+		assertNull(partitionMonth("service_payments_p2026xx"));
+		assertNull(partitionMonth("service_payments_p202613"));
+		assertNull(partitionMonth("other_p202601"));
+	}
+
+	// 4. Retención
+	// Se desacoplan los meses anteriores al más antiguo conservado, nunca DEFAULT.
+	@Test
+	void detachSkipsDefaultAndRecentMonths() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		PartitionMaintenance maintenance = new PartitionMaintenance();
+		ReflectionTestUtils.setField(maintenance, "jdbcTemplate", jdbcTemplate);
+		when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("service_payments")))
+				.thenReturn(List.of("service_payments_p202312", "service_payments_p202401", "service_payments_default"));
+
+		ReflectionTestUtils.invokeMethod(maintenance, "detachOlderThan", YearMonth.of(2024, 1));
+
+		verify(jdbcTemplate).execute("ALTER TABLE service_payments DETACH PARTITION service_payments_p202312");
+		verify(jdbcTemplate, never()).execute("ALTER TABLE service_payments DETACH PARTITION service_payments_p202401");
+		verify(jdbcTemplate, never()).execute("ALTER TABLE service_payments DETACH PARTITION service_payments_default");
+	}
+
+	// 5. Filas en DEFAULT
+	// Si el mes nuevo ya tiene filas en DEFAULT, se mueven y la partición se acopla después.
+	@Test
+	void strayRowsAreMovedBeforeAttaching() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		PartitionMaintenance maintenance = new PartitionMaintenance();
+		ReflectionTestUtils.setField(maintenance, "jdbcTemplate", jdbcTemplate);
+		when(jdbcTemplate.queryForObject(eq("SELECT to_regclass(?) IS NOT NULL"), eq(Boolean.class), any(Object[].class)))
+				.thenReturn(false);
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), any(Object[].class)))
+				.thenReturn(true);
+
+		ReflectionTestUtils.invokeMethod(maintenance, "createPartitions", YearMonth.of(2026, 5), YearMonth.of(2026, 5));
+
+		var order = inOrder(jdbcTemplate);
+		order.verify(jdbcTemplate).execute("CREATE TABLE service_payments_p202605 (LIKE service_payments INCLUDING DEFAULTS)");
+		order.verify(jdbcTemplate).update(startsWith("WITH moved AS (DELETE FROM service_payments_default"), any(Object[].class));
+		order.verify(jdbcTemplate).execute("ALTER TABLE service_payments ATTACH PARTITION service_payments_p202605" +
+				" FOR VALUES FROM ('2026-05-01') TO ('2026-06-01')");
+	}
+
+	// 6. Índice del historial
+	// El índice sin INCLUDE se borra antes de crear el que cubre las columnas del listado.
+	@Test
+	void historyIndexReplacesTheOldOne() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		PartitionMaintenance maintenance = new PartitionMaintenance();
+		ReflectionTestUtils.setField(maintenance, "jdbcTemplate", jdbcTemplate);
+
+		ReflectionTestUtils.invokeMethod(maintenance, "createIndexes");
+
+		var order = inOrder(jdbcTemplate);
+		order.verify(jdbcTemplate).execute("DROP INDEX IF EXISTS idx_payments_account_date");
+		order.verify(jdbcTemplate).execute(startsWith("CREATE INDEX IF NOT EXISTS idx_payments_account_history"));
+		verify(jdbcTemplate).execute(contains("INCLUDE (service_type, service_reference, amount, status, failure_reason)"));
+	}
+
+	private YearMonth partitionMonth(String partition) {
+		return ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "partitionMonth", "service_payments", partition);
+	}
+}
@@ -0,0 +1,151 @@
+package com.bank.payment_service;
+
+import com.bank.payment_service.controller.PaymentController;
+import com.bank.payment_service.dto.PaymentDTO;
+import com.bank.payment_service.repository.PaymentHistoryView;
+import com.bank.payment_service.repository.PaymentRepository;
+import com.bank.payment_service.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Historial por cuenta: cursor "<paymentDate>,<id>", rango por defecto y bordes de página
+class PaymentHistoryTests {
+
+	private static final LocalDateTime DATE = LocalDateTime.of(2026, 3, 1, 10, 15, 30);
+
+	private PaymentRepository paymentRepository;
+	private PaymentService paymentService;
+
+	@BeforeEach
+	void setUp() {
+		paymentRepository = mock(PaymentRepository.class);
+		paymentService = new PaymentService();
+		ReflectionTestUtils.setField(paymentService, "paymentRepository", paymentRepository);
+		ReflectionTestUtils.setField(paymentService, "defaultWindow", Duration.ofDays(365));
+	}
+
+	// 1. Cursor válido
+	// La fecha y el id del cursor llegan tal cual a la consulta por rango.
+	@Test
+	void cursorIsSplitIntoDateAndId() {
+		paymentService.getPaymentsByAccount(5L, null, null, null, DATE + ",42", 10);
+
+		verify(paymentRepository).findHistory(eq(5L), isNull(), any(LocalDateTime.class),
+				any(LocalDateTime.class), eq(DATE), eq(42L), eq(Limit.of(10)));
+	}
+
+	// 2. Cursor mal formado
+	// Sin coma, con fecha o id inválidos: se rechaza sin consultar.
+	@Test
+	void malformedCursorIsRejected() {
+		for (String after : List.of("42", "ayer,42", DATE + ",x", DATE + ",")) {
+			assertThrows(IllegalArgumentException.class,
+					() -> paymentService.getPaymentsByAccount(5L, null, null, null, after, 10));
+		}
+		verifyNoInteractions(paymentRepository);
+	}
+
+	// 3. Rango por defecto
+	// Sin from/to se acota a la ventana configurada hasta poco después de ahora, no a 1970/9999.
+	@Test
+	void missingBoundsDefaultToRecentWindow() {
+		LocalDateTime before = LocalDateTime.now();
+		paymentService.getPaymentsByAccount(5L, null, null, null, null, 10);
+		LocalDateTime after = LocalDateTime.now();
+
+		ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+		ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(paymentRepository).findHistory(eq(5L), isNull(), from.capture(), to.capture(),
+				any(LocalDateTime.class), eq(0L), any(Limit.class));
+		assertTrue(!from.getValue().isBefore(before.minusDays(365)) && !from.getValue().isAfter(after.minusDays(365)));
+		assertTrue(!to.getValue().isBefore(before.plusDays(1)) && !to.getValue().isAfter(after.plusDays(1)));
+
+		LocalDateTime explicit = LocalDateTime.of(2020, 1, 1, 0, 0);
+		paymentService.getPaymentsByAccount(5L, null, explicit, DATE, null, 10);
+		verify(paymentRepository).findHistory(eq(5L), isNull(), eq(explicit), eq(DATE), eq(DATE), eq(0L), any(Limit.class));
+	}
+
+	// 4. Página llena
+	// Con tantas filas como el límite el cursor de la última va en X-Next-After.
+	@Test
+	void fullPageCarriesNextCursor() throws Exception {
+		List<PaymentHistoryView> rows = rows(2);
+		when(paymentRepository.findHistory(anyLong(), any(), any(), any(), any(), anyLong(), eq(Limit.of(2))))
+				.thenReturn(rows);
+
+		mockMvc().perform(get("/api/payments/account/5").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(header().string(PaymentController.NEXT_CURSOR_HEADER, DATE.minusMinutes(1) + ",2"));
+	}
+
+	// 5. Última página
+	// Con menos filas que el límite no hay cursor; un cursor inválido responde 400.
+	@Test
+	void shortPageHasNoCursorAndBadCursorIs400() throws Exception {
+		List<PaymentHistoryView> rows = rows(2);
+		when(paymentRepository.findHistory(anyLong(), any(), any(), any(), any(), anyLong(), eq(Limit.of(3))))
+				.thenReturn(rows);
+
+		mockMvc().perform(get("/api/payments/account/5").param("limit", "3"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(PaymentController.NEXT_CURSOR_HEADER));
+		mockMvc().perform(get("/api/payments/account/5").param("after", "x"))
+				.andExpect(status().isBadRequest());
+	}
+
+	// 6. Límite acotado
+	// Un limit fuera de rango se lleva a [1, 1000] antes de consultar.
+	@Test
+	void limitIsClamped() throws Exception {
+		when(paymentRepository.findHistory(anyLong(), any(), any(), any(), any(), anyLong(), any(Limit.class)))
+				.thenReturn(List.of());
+
+		mockMvc().perform(get("/api/payments/account/5").param("limit", "50000")).andExpect(status().isOk());
+		mockMvc().perform(get("/api/payments/account/5").param("limit", "0")).andExpect(status().isOk());
+
+		verify(paymentRepository).findHistory(anyLong(), any(), any(), any(), any(), anyLong(), eq(Limit.of(1000)));
+		verify(paymentRepository).findHistory(anyLong(), any(), any(), any(), any(), anyLong(), eq(Limit.of(1)));
+	}
+
+	private MockMvc mockMvc() {
+		PaymentController controller = new PaymentController();
+		ReflectionTestUtils.setField(controller, "paymentService", paymentService);
+		return MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	// Filas con id 1..n, cada una un minuto más antigua que la anterior
+	private List<PaymentHistoryView> rows(int n) {
+		List<PaymentHistoryView> rows = new ArrayList<>();
+		for (int i = 1; i <= n; i++) {
+			PaymentHistoryView row = mock(PaymentHistoryView.class);
+			when(row.getId()).thenReturn((long) i);
+			when(row.getPaymentDate()).thenReturn(DATE.minusMinutes(i - 1));
+			rows.add(row);
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,104 @@
+package com.bank.payment_service;
+
+import com.bank.payment_service.controller.PaymentController;
+import com.bank.payment_service.entity.Payment;
+import com.bank.payment_service.repository.PaymentRepository;
+import com.bank.payment_service.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Listado de pagos: páginas por cursor sobre el id (X-Next-After) y listado completo en streaming
+class PaymentPageTests {
+
+	private PaymentRepository paymentRepository;
+	private EntityManager entityManager;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		paymentRepository = mock(PaymentRepository.class);
+		entityManager = mock(EntityManager.class);
+		PaymentService paymentService = new PaymentService();
+		ReflectionTestUtils.setField(paymentService, "paymentRepository", paymentRepository);
+		ReflectionTestUtils.setField(paymentService, "entityManager", entityManager);
+		ReflectionTestUtils.setField(paymentService, "objectMapper", new ObjectMapper().findAndRegisterModules());
+		PaymentController controller = new PaymentController();
+		ReflectionTestUtils.setField(controller, "paymentService", paymentService);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	// 1. Página llena
+	// El cursor siguiente es el id de la última fila y la consulta arranca después de ?after.
+	@Test
+	void fullPageReturnsLastIdAsNextCursor() throws Exception {
+		List<Payment> page = payments(11, 12, 13);
+		when(paymentRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3))).thenReturn(page);
+
+		mockMvc.perform(get("/api/payments").param("limit", "3").param("after", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(11))
+				.andExpect(header().string(PaymentController.NEXT_CURSOR_HEADER, "13"));
+	}
+
+	// 2. Última página
+	// Menos filas que el límite: no hay X-Next-After; sin ?after se empieza desde el id 0.
+	@Test
+	void lastPageHasNoNextCursor() throws Exception {
+		List<Payment> page = payments(1, 2);
+		when(paymentRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(5))).thenReturn(page);
+
+		mockMvc.perform(get("/api/payments").param("limit", "5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(header().doesNotExist(PaymentController.NEXT_CURSOR_HEADER));
+	}
+
+	// 3. Streaming
+	// ?stream=true escribe el arreglo completo y suelta cada entidad del contexto al escribirla.
+	@Test
+	void streamWritesEveryRowAndDetachesIt() throws Exception {
+		List<Payment> rows = payments(LongStream.rangeClosed(1, 1_000).toArray());
+		when(paymentRepository.streamAllByOrderByIdAsc()).thenReturn(rows.stream());
+
+		MvcResult started = mockMvc.perform(get("/api/payments").param("stream", "true"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1_000))
+				.andExpect(jsonPath("$[999].id").value(1_000));
+		verify(entityManager, times(1_000)).detach(any(Payment.class));
+		verify(paymentRepository, never()).findAll();
+	}
+
+	private List<Payment> payments(long... ids) {
+		return LongStream.of(ids).mapToObj(id -> {
+			Payment payment = new Payment();
+			payment.setId(id);
+			payment.setAccountId(1L);
+			payment.setAmount(BigDecimal.TEN);
+			return payment;
+		}).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,219 @@
+package com.bank.payment_service;
+
+import com.bank.payment_service.client.AccountClient;
+import com.bank.payment_service.client.DownstreamMetrics;
+import com.bank.payment_service.config.HttpClientConfig;
+import com.bank.payment_service.dto.AccountEventDTO;
+import com.bank.payment_service.entity.OutboxEvent;
+import com.bank.payment_service.entity.Payment;
+import com.bank.payment_service.repository.OutboxEventRepository;
+import com.bank.payment_service.repository.PaymentRepository;
+import com.bank.payment_service.service.OutboxDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+// Pipeline de pagos contra un account-service local de prueba (HttpServer del JDK): el cliente HTTP
+// es el real, las tablas se simulan en memoria
+class PaymentPipelineTests {
+
+	private static final int BATCH_SIZE = 200;
+	private static final long NO_FUNDS_ACCOUNT = 9_999L;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final List<Integer> receivedBatches = new CopyOnWriteArrayList<>();
+	private volatile int responseStatus = 200;
+
+	private HttpServer server;
+	private OutboxEventRepository outboxEventRepository;
+	private PaymentRepository paymentRepository;
+	private OutboxDispatcher dispatcher;
+	private List<OutboxEvent> outbox;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// Stand-in de POST /api/accounts/events: la cuenta 9999 no tiene fondos
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/api/accounts/events", exchange -> {
+			AccountEventDTO[] events = objectMapper.readValue(exchange.getRequestBody(), AccountEventDTO[].class);
+			receivedBatches.add(events.length);
+			byte[] body = new byte[0];
+			if (responseStatus == 200) {
+				for (AccountEventDTO event : events) {
+					boolean funds = event.getAccountId() != NO_FUNDS_ACCOUNT;
+					event.setStatus(funds ? Payment.COMPLETED : Payment.FAILED);
+					event.setMessage(funds ? null : "Fondos insuficientes.");
+				}
+				body = objectMapper.writeValueAsBytes(events);
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+			}
+			exchange.sendResponseHeaders(responseStatus, body.length > 0 ? body.length : -1);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+
+		AccountClient accountClient = new AccountClient();
+		ReflectionTestUtils.setField(accountClient, "restTemplate", HttpClientConfig.pooledRestTemplate(
+				HttpClientConfig.ACCOUNT_SERVICE, "http://localhost:" + server.getAddress().getPort(),
+				Duration.ofSeconds(2), Duration.ofSeconds(5), 4, new DownstreamMetrics()));
+
+		// Outbox en memoria: devuelve los pendientes listos en orden de id, como la consulta real
+		outbox = new ArrayList<>();
+		outboxEventRepository = mock(OutboxEventRepository.class);
+		when(outboxEventRepository.findDue(eq(OutboxEvent.PENDING), any(LocalDateTime.class), any(Limit.class)))
+				.thenAnswer(invocation -> {
+					LocalDateTime now = invocation.getArgument(1);
+					Set<Long> waiting = new HashSet<>();
+					List<OutboxEvent> due = new ArrayList<>();
+					for (OutboxEvent event : outbox) {
+						if (!OutboxEvent.PENDING.equals(event.getStatus())) {
+							continue;
+						}
+						if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+							waiting.add(event.getAccountId());
+						} else if (!waiting.contains(event.getAccountId())) {
+							due.add(event);
+						}
+					}
+					return due.stream().limit(((Limit) invocation.getArgument(2)).max()).toList();
+				});
+		paymentRepository = mock(PaymentRepository.class);
+
+		dispatcher = new OutboxDispatcher();
+		ReflectionTestUtils.setField(dispatcher, "outboxEventRepository", outboxEventRepository);
+		ReflectionTestUtils.setField(dispatcher, "paymentRepository", paymentRepository);
+		ReflectionTestUtils.setField(dispatcher, "accountClient", accountClient);
+		ReflectionTestUtils.setField(dispatcher, "objectMapper", objectMapper);
+		ReflectionTestUtils.setField(dispatcher, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(dispatcher, "batchSize", BATCH_SIZE);
+		ReflectionTestUtils.setField(dispatcher, "maxBatchDelay", Duration.ofMillis(200));
+		ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofSeconds(1));
+		ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofMinutes(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	// 1. Pico de fin de mes
+	// 450 pagos salen en 3 llamadas (200, 200, 50); el pago sin fondos queda fallido
+	// y el resto completado, cada uno con su propio resultado.
+	@Test
+	void peakIsSentInSizeBatchesWithPerPaymentResults() throws Exception {
+		LocalDateTime createdAt = LocalDateTime.now().minusSeconds(1);
+		for (long id = 1; id <= 450; id++) {
+			outbox.add(event(id, id == 7 ? NO_FUNDS_ACCOUNT : id, createdAt));
+		}
+
+		drain();
+
+		assertEquals(List.of(200, 200, 50), receivedBatches);
+		assertTrue(outbox.stream().allMatch(event -> OutboxEvent.SENT.equals(event.getStatus())));
+		verify(paymentRepository).completePending(eq(1007L), any(), any(), eq(Payment.FAILED), eq("Fondos insuficientes."));
+		verify(paymentRepository, times(449)).completePending(anyLong(), any(), any(), eq(Payment.COMPLETED), isNull());
+	}
+
+	// 2. Ventana de tiempo
+	// Pocos pagos recién creados esperan a juntarse; al cumplir max-batch-delay salen en una sola llamada.
+	@Test
+	void smallBatchWaitsForTimeWindow() throws Exception {
+		ReflectionTestUtils.setField(dispatcher, "maxBatchDelay", Duration.ofMinutes(1));
+		for (long id = 1; id <= 3; id++) {
+			outbox.add(event(id, id, LocalDateTime.now()));
+		}
+
+		drain();
+		assertEquals(List.of(), receivedBatches);
+
+		outbox.forEach(event -> event.setCreatedAt(LocalDateTime.now().minusMinutes(2)));
+		drain();
+		assertEquals(List.of(3), receivedBatches);
+	}
+
+	// 3. account-service no disponible
+	// Los pagos siguen pendientes con reintento programado; ninguno se marca fallido.
+	@Test
+	void unavailableAccountServiceKeepsPaymentsPending() throws Exception {
+		responseStatus = 503;
+		outbox.add(event(1L, 1L, LocalDateTime.now().minusSeconds(1)));
+
+		drain();
+
+		OutboxEvent event = outbox.get(0);
+		assertEquals(OutboxEvent.PENDING, event.getStatus());
+		assertEquals(1, event.getAttempts());
+		assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now()));
+		verifyNoInteractions(paymentRepository);
+	}
+
+	// 4. Payload ilegible
+	// El evento roto queda fallido con su error y su pago fallido; el resto del lote sale igual.
+	@Test
+	void unreadablePayloadDoesNotBlockTheBatch() throws Exception {
+		LocalDateTime createdAt = LocalDateTime.now().minusSeconds(1);
+		for (long id = 1; id <= 3; id++) {
+			outbox.add(event(id, id, createdAt));
+		}
+		outbox.get(1).setPayload("{roto");
+
+		drain();
+
+		assertEquals(List.of(2), receivedBatches);
+		assertEquals(OutboxEvent.SENT, outbox.get(0).getStatus());
+		assertEquals(OutboxEvent.FAILED, outbox.get(1).getStatus());
+		assertTrue(outbox.get(1).getLastError().startsWith("Payload inválido"));
+		assertEquals(OutboxEvent.SENT, outbox.get(2).getStatus());
+		verify(paymentRepository).completePending(eq(1002L), any(), any(), eq(Payment.FAILED), startsWith("Payload inválido"));
+	}
+
+	// Igual que dispatch(), sin el candado de PostgreSQL
+	private void drain() {
+		Integer read;
+		do {
+			read = ReflectionTestUtils.invokeMethod(dispatcher, "dispatchBatch");
+		} while (read != null && read == BATCH_SIZE);
+	}
+
+	private OutboxEvent event(Long id, Long accountId, LocalDateTime createdAt) throws Exception {
+		AccountEventDTO payload = new AccountEventDTO();
+		payload.setEventId("payment-service:PAYMENT_CREATED:" + (1000 + id));
+		payload.setEventType("PAYMENT_CREATED");
+		payload.setAccountId(accountId);
+		payload.setAmount(BigDecimal.TEN);
+
+		OutboxEvent event = new OutboxEvent();
+		event.setId(id);
+		event.setAccountId(accountId);
+		event.setAggregateId(1000 + id);
+		event.setEventType("PAYMENT_CREATED");
+		event.setStatus(OutboxEvent.PENDING);
+		event.setCreatedAt(createdAt);
+		event.setPayload(objectMapper.writeValueAsString(payload));
+		return event;
+	}
+}
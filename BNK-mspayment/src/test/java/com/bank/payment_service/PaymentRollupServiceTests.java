@@ -0,0 +1,92 @@
+package com.bank.payment_service;
+
+import com.bank.payment_service.entity.Payment;
+import com.bank.payment_service.service.PaymentRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PaymentRollupServiceTests {
+
+	private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 31, 10, 0);
+
+	private JdbcTemplate jdbcTemplate;
+	private PaymentRollupService rollupService;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		rollupService = new PaymentRollupService();
+		ReflectionTestUtils.setField(rollupService, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(rollupService, "transactionManager", mock(PlatformTransactionManager.class));
+	}
+
+	// 1. Agregación en memoria
+	// Varios pagos del mismo servicio y día salen en una sola fila del upsert; el borrado descuenta.
+	@Test
+	@SuppressWarnings("unchecked")
+	void deltasAreMergedPerServiceAndDay() {
+		rollupService.record(payment("luz", "10.00", DAY), 1);
+		rollupService.record(payment("luz", "5.50", DAY.plusHours(3)), 1);
+		rollupService.record(payment("agua", "7.00", DAY), 1);
+		rollupService.record(payment("luz", "5.50", DAY), -1);
+
+		rollupService.flush();
+
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+		assertEquals(2, rows.getValue().size());
+		Object[] agua = rows.getValue().get(0);
+		Object[] luz = rows.getValue().get(1);
+		assertEquals("agua", agua[0]);
+		assertEquals("luz", luz[0]);
+		assertEquals(Date.valueOf(DAY.toLocalDate()), luz[1]);
+		assertEquals(1L, luz[2]);
+		assertEquals(0, new BigDecimal("10.00").compareTo((BigDecimal) luz[3]));
+
+		rollupService.flush();
+		verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+	}
+
+	// 2. Fallo de la base
+	// Los deltas no aplicados se conservan y salen junto con los nuevos en el siguiente flush.
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedFlushKeepsDeltas() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+				.thenThrow(new DataAccessResourceFailureException("sin conexión"))
+				.thenReturn(new int[]{1});
+		rollupService.record(payment("luz", "10.00", DAY), 1);
+		rollupService.flush();
+		rollupService.record(payment("luz", "2.00", DAY), 1);
+		rollupService.flush();
+
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+		Object[] luz = rows.getAllValues().get(1).get(0);
+		assertEquals(2L, luz[2]);
+		assertEquals(0, new BigDecimal("12.00").compareTo((BigDecimal) luz[3]));
+	}
+
+	private Payment payment(String serviceType, String amount, LocalDateTime date) {
+		Payment payment = new Payment();
+		payment.setServiceType(serviceType);
+		payment.setAmount(new BigDecimal(amount));
+		payment.setPaymentDate(date);
+		return payment;
+	}
+}
@@ -0,0 +1,72 @@
+package com.bank.transfer_service.client;
+
+import com.bank.transfer_service.dto.AccountEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Llamadas a account-service; la URL base y los timeouts vienen de application.yml
+@Component
+public class AccountClient {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountClient.class);
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> MAP_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    @Qualifier("accountServiceRestTemplate")
+    private RestTemplate restTemplate;
+
+    // Lista vacía si el cliente no tiene cuentas o account-service no respondió (ClientAccountsCache no la guarda)
+    public List<Long> getAccountIdsByClientId(Long clientId) {
+        List<Map<String, Object>> accountList;
+        try {
+            accountList = restTemplate.exchange("/api/accounts/client/{clientId}", HttpMethod.GET, null, MAP_LIST,
+                    clientId).getBody();
+        } catch (RestClientException e) {
+            log.warn("Error al obtener cuentas del cliente {}: {}", clientId, e.getMessage());
+            return Collections.emptyList();
+        }
+
+        if (accountList == null || accountList.isEmpty()) {
+            log.debug("No se encontraron cuentas para el cliente con ID {}", clientId);
+            return Collections.emptyList();
+        }
+
+        return accountList.stream()
+                .map(acc -> ((Number) acc.get("id")).longValue())
+                .collect(Collectors.toList());
+    }
+
+    // Lote de eventos del outbox; devuelve el resultado de cada uno. Los errores de red o 5xx se
+    // propagan: el lote se reintenta y account-service descarta los eventos ya aplicados
+    public List<AccountEventDTO> sendEvents(List<AccountEventDTO> events) {
+        AccountEventDTO[] results = restTemplate.postForObject("/api/accounts/events", events, AccountEventDTO[].class);
+        return results != null ? Arrays.asList(results) : Collections.emptyList();
+    }
+
+    // Feed de cambios de account-service; se propaga el error para que el poller reintente
+    public List<Map<String, Object>> getAccountChanges(Long after, int limit) {
+        List<Map<String, Object>> changes = restTemplate.exchange(
+                "/api/accounts/changes?after={after}&limit={limit}", HttpMethod.GET, null, MAP_LIST, after, limit).getBody();
+        return changes != null ? changes : Collections.emptyList();
+    }
+
+    public Long getLatestAccountChangeId() {
+        return restTemplate.getForObject("/api/accounts/changes/latest", Long.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bank.transfer_service.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cache local clientId -> ids de cuenta. Se mantiene al día leyendo el feed de cambios de
+// account-service; el TTL acota la desactualización si el feed no está disponible.
+@Component
+public class ClientAccountsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientAccountsCache.class);
+
+    // Con account-service caído el feed falla en cada sondeo: se avisa como mucho una vez por minuto
+    private static final long FAILURE_LOG_INTERVAL_MS = 60_000;
+
+    // Ids leídos de nuevo en cada consulta: cubre eventos que confirman fuera de orden
+    private static final int FEED_OVERLAP = 100;
+    private static final int FEED_PAGE_SIZE = 500;
+
+    @Autowired
+    private AccountClient accountClient;
+
+    private final Cache<Long, List<Long>> accountIdsByClient;
+    private final Set<Long> recentlySeen = ConcurrentHashMap.newKeySet();
+    private volatile Long lastChangeId;
+    private long lastFailureLoggedAt;
+    private int suppressedFailures;
+
+    public ClientAccountsCache(@Value("${client-accounts-cache.maximum-size:50000}") long maximumSize,
+                               @Value("${client-accounts-cache.ttl:10m}") Duration ttl) {
+        this.accountIdsByClient = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    public List<Long> getAccountIds(Long clientId) {
+        // Una lista vacía puede venir de un error de red: no se guarda
+        List<Long> ids = accountIdsByClient.get(clientId, key -> {
+            List<Long> loaded = accountClient.getAccountIdsByClientId(key);
+            return loaded.isEmpty() ? null : loaded;
+        });
+        return ids != null ? ids : Collections.emptyList();
+    }
+
+    @Scheduled(fixedDelayString = "${client-accounts-cache.feed-poll-interval:1000}")
+    public void pollChanges() {
+        try {
+            if (lastChangeId == null) {
+                // Al arrancar la cache está vacía: basta con posicionarse al final del feed
+                lastChangeId = accountClient.getLatestAccountChangeId();
+                return;
+            }
+            List<Map<String, Object>> changes;
+            do {
+                changes = accountClient.getAccountChanges(Math.max(0, lastChangeId - FEED_OVERLAP), FEED_PAGE_SIZE);
+                applyChanges(changes);
+            } while (changes.size() == FEED_PAGE_SIZE);
+            if (suppressedFailures > 0) {
+                log.info("Feed de cuentas disponible de nuevo tras {} fallos", suppressedFailures);
+                suppressedFailures = 0;
+                lastFailureLoggedAt = 0;
+            }
+        } catch (Exception e) {
+            long now = System.currentTimeMillis();
+            if (now - lastFailureLoggedAt >= FAILURE_LOG_INTERVAL_MS) {
+                log.warn("No se pudo leer el feed de cuentas ({} fallos sin informar): {}", suppressedFailures, e.getMessage());
+                lastFailureLoggedAt = now;
+            }
+            suppressedFailures++;
+        }
+    }
+
+    void applyChanges(List<Map<String, Object>> changes) {
+        long latest = lastChangeId;
+        for (Map<String, Object> change : changes) {
+            long id = ((Number) change.get("id")).longValue();
+            if (recentlySeen.add(id) && change.get("clientId") != null) {
+                accountIdsByClient.invalidate(((Number) change.get("clientId")).longValue());
+            }
+            latest = Math.max(latest, id);
+        }
+        lastChangeId = latest;
+        long floor = latest - FEED_OVERLAP;
+        recentlySeen.removeIf(id -> id < floor);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bank.transfer_service.config;
+
+import com.bank.transfer_service.client.DownstreamMetrics;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    public static final String ACCOUNT_SERVICE = "account-service";
+
+    // Cliente compartido hacia account-service: pool con keep-alive y timeouts acotados,
+    // para que un account-service lento no acapare los hilos de Tomcat de este servicio
+    @Bean
+    public RestTemplate accountServiceRestTemplate(
+            @Value("${downstream.account-service.base-url:http://localhost:8082}") String baseUrl,
+            @Value("${downstream.account-service.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${downstream.account-service.read-timeout:5s}") Duration readTimeout,
+            @Value("${downstream.account-service.max-connections:50}") int maxConnections,
+            DownstreamMetrics metrics) {
+        return pooledRestTemplate(ACCOUNT_SERVICE, baseUrl, connectTimeout, readTimeout, maxConnections, metrics);
+    }
+
+    public static RestTemplate pooledRestTemplate(String downstream, String baseUrl, Duration connectTimeout,
+                                                  Duration readTimeout, int maxConnections, DownstreamMetrics metrics) {
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Esperar una conexión libre del pool también está acotado
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
+        restTemplate.getInterceptors().add(metrics.interceptor(downstream));
+        metrics.registerPool(downstream, pool);
+        return restTemplate;
+    }
+}
@@ -0,0 +1,82 @@
+package com.bank.transfer_service.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+// transfers venía con IDENTITY: se pasa una sola vez a transfers_seq con incremento 100 (allocationSize)
+// antes del EntityManagerFactory, que no arranca si el incremento no coincide. Además deja nextval como
+// default de id en las tablas que se insertan por JDBC sin id
+@Component(SequenceMigration.BEAN_NAME)
+public class SequenceMigration implements InitializingBean, SmartInitializingSingleton {
+
+    static final String BEAN_NAME = "sequenceMigration";
+
+    // Candado para que dos instancias no migren a la vez
+    private static final long LOCK_ID = 84_021L;
+
+    private static final String TABLE = "transfers";
+    private static final String SEQUENCE = TABLE + "_seq";
+    private static final int INCREMENT = 100;
+
+    // TransferBatchWriter y BulkTransferService insertan sin id
+    private static final String[] JDBC_TABLES = {
+            "transfers", "transfer_outbox", "bulk_transfer_job_chunks", "bulk_transfer_job_errors"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    // Sin el transactionManager de JPA: todavía no existe cuando esto corre
+    public SequenceMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, LOCK_ID);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, SEQUENCE))) {
+                jdbcTemplate.execute("CREATE SEQUENCE " + SEQUENCE + " INCREMENT BY " + INCREMENT);
+            }
+            boolean identity = Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT count(*) = 1 " +
+                    "FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = ? " +
+                    "AND column_name = 'id' AND is_identity = 'YES'", Boolean.class, TABLE));
+            if (!identity) {
+                return; // base nueva o ya migrada
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id DROP IDENTITY");
+            // El próximo bloque empieza por encima de todo id ya usado
+            jdbcTemplate.queryForObject("SELECT setval('" + SEQUENCE + "', (SELECT COALESCE(max(id), 0) FROM " +
+                    TABLE + ") + " + INCREMENT + ")", Long.class);
+        });
+    }
+
+    // Con la base vacía Hibernate crea estas tablas sin default en id
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String table : JDBC_TABLES) {
+            Boolean missing = jdbcTemplate.queryForObject("SELECT count(*) = 1 FROM information_schema.columns " +
+                    "WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'id' " +
+                    "AND column_default IS NULL", Boolean.class, table);
+            if (Boolean.TRUE.equals(missing)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + table + "_seq')");
+            }
+        }
+    }
+
+    // Hace que el EntityManagerFactory dependa de esta migración
+    @Component
+    static class JpaDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        JpaDependency() {
+            super(BEAN_NAME);
+        }
+    }
+}
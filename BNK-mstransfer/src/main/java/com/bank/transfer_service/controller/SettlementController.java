@@ -0,0 +1,49 @@
+package com.bank.transfer_service.controller;
+
+import com.bank.transfer_service.dto.SettlementDTO;
+import com.bank.transfer_service.service.SettlementService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+// Liquidación de transferencias a otros bancos
+@RestController
+@RequestMapping("/api/transfers/settlements")
+public class SettlementController {
+
+    @Autowired
+    private SettlementService settlementService;
+
+    // Ejecuta un ciclo con las transferencias anteriores a ?cutoff= (por defecto, ahora)
+    @PostMapping
+    public ResponseEntity<SettlementDTO> runSettlement(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cutoff) {
+        return ResponseEntity.ok(settlementService.runCycle(cutoff != null ? cutoff : LocalDateTime.now()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SettlementDTO> getSettlement(@PathVariable Long id) {
+        SettlementDTO settlement = settlementService.getSettlement(id);
+        return settlement != null ? ResponseEntity.ok(settlement) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> getSettlementFile(@PathVariable Long id) {
+        Path file = settlementService.getSettlementFile(id);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,46 @@
+package com.bank.transfer_service.controller;
+
+import com.bank.transfer_service.dto.StandingOrderDTO;
+import com.bank.transfer_service.service.StandingOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Transferencias recurrentes (semanales o mensuales)
+@RestController
+@RequestMapping("/api/transfers/standing-orders")
+public class StandingOrderController {
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @PostMapping
+    public ResponseEntity<StandingOrderDTO> createStandingOrder(@RequestBody StandingOrderDTO dto) {
+        try {
+            return ResponseEntity.ok(standingOrderService.createStandingOrder(dto));
+        } catch (IllegalArgumentException e) {
+            dto.setStatus("rechazado");
+            dto.setFailureReason(e.getMessage());
+            return ResponseEntity.badRequest().body(dto);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StandingOrderDTO> getStandingOrder(@PathVariable Long id) {
+        StandingOrderDTO order = standingOrderService.getStandingOrderById(id);
+        return order != null ? ResponseEntity.ok(order) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StandingOrderDTO>> getStandingOrdersByAccount(@RequestParam Long accountId) {
+        return ResponseEntity.ok(standingOrderService.getStandingOrdersByAccount(accountId));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<StandingOrderDTO> cancelStandingOrder(@PathVariable Long id) {
+        StandingOrderDTO order = standingOrderService.cancelStandingOrder(id);
+        return order != null ? ResponseEntity.ok(order) : ResponseEntity.notFound().build();
+    }
+}
@@ -1,25 +1,92 @@
 package com.bank.transfer_service.controller;
 
+import com.bank.transfer_service.client.DownstreamMetrics;
+import com.bank.transfer_service.dto.BulkJobDTO;
+import com.bank.transfer_service.dto.BulkJobErrorDTO;
 import com.bank.transfer_service.dto.TransferDTO;
+import com.bank.transfer_service.service.BulkTransferService;
+import com.bank.transfer_service.service.ExportWriter;
+import com.bank.transfer_service.service.TransferExportService;
 import com.bank.transfer_service.service.TransferService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transfers")
 public class TransferController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private TransferService transferService;
 
+    @Autowired
+    private TransferExportService transferExportService;
+
+    @Autowired
+    private BulkTransferService bulkTransferService;
+
+    @Autowired
+    private DownstreamMetrics downstreamMetrics;
+
     @GetMapping
     public ResponseEntity<List<TransferDTO>> getAllTransfers() {
         return ResponseEntity.ok(transferService.getAllTransfers());
     }
 
+    // Página por cursor: ?limit=N&after=<último id>; el siguiente cursor va en X-Next-After
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<TransferDTO>> getTransfersPage(@RequestParam int limit, @RequestParam(required = false) Long after) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<TransferDTO> page = transferService.getTransfersPage(after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(size - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    // Listado completo en streaming: ?stream=true
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllTransfers() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(transferService::writeAllTransfers);
+    }
+
+    // Exportación completa: ?format=csv|ndjson&accountId=&from=&to=&gzip=true. Para reanudar una
+    // descarga cortada se repite con ?after=<id de la última fila recibida>
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransfers(
+            @RequestParam(defaultValue = ExportWriter.CSV) String format,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!ExportWriter.isSupported(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportWriter.contentType(format)))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transfers." + format + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> transferExportService.export(format, accountId, from, to, after, gzip, out));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TransferDTO> getTransferById(@PathVariable Long id) {
         TransferDTO transfer = transferService.getTransferById(id);
@@ -28,7 +95,13 @@ public class TransferController {
 
     @PostMapping
     public ResponseEntity<TransferDTO> createTransfer(@RequestBody TransferDTO dto) {
-        return ResponseEntity.ok(transferService.createTransfer(dto));
+        try {
+            return ResponseEntity.ok(transferService.createTransfer(dto));
+        } catch (IllegalArgumentException e) {
+            dto.setStatus("rechazado");
+            dto.setFailureReason(e.getMessage());
+            return ResponseEntity.badRequest().body(dto);
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -36,10 +109,55 @@ public class TransferController {
         transferService.deleteTransfer(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Historial del cliente, más reciente primero; ?from=&to= (ISO) y ?page=&size=. Sin from se
+    // devuelven los últimos history.default-window (365 días)
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<TransferDTO>> getTransfersByClientId(@PathVariable Long clientId) {
-        List<TransferDTO> transfers = transferService.getTransfersByClientId(clientId);
+    public ResponseEntity<List<TransferDTO>> getTransfersByClientId(
+            @PathVariable Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        List<TransferDTO> transfers = transferService.getTransfersByClientId(clientId, from, to,
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
         return ResponseEntity.ok(transfers);
     }
 
-}
\ No newline at end of file
+    // Carga masiva (planillas): archivo CSV origen,cuentaDestino,bancoDestino,monto. Responde 202 con el id
+    // del trabajo; el avance se consulta en GET /bulk/{jobId}
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkJobDTO> uploadBulk(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkTransferService.submit(file));
+    }
+
+    @GetMapping("/bulk/{jobId}")
+    public ResponseEntity<BulkJobDTO> getBulkJob(@PathVariable Long jobId) {
+        BulkJobDTO job = bulkTransferService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    // Líneas rechazadas, paginadas por número de línea: ?after=&limit=
+    @GetMapping("/bulk/{jobId}/errors")
+    public ResponseEntity<List<BulkJobErrorDTO>> getBulkJobErrors(@PathVariable Long jobId,
+                                                                  @RequestParam(required = false) Long after,
+                                                                  @RequestParam(defaultValue = "100") int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<BulkJobErrorDTO> errors = bulkTransferService.getErrors(jobId, after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (errors.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(errors.get(size - 1).getLineNumber()));
+        }
+        return response.body(errors);
+    }
+
+    // Estado del pool y latencia de las llamadas a otros servicios
+    @GetMapping("/downstream/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getDownstreamStats() {
+        return ResponseEntity.ok(downstreamMetrics.snapshot());
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.bank.transfer_service.dto;
+import java.time.LocalDateTime;
+
+public class BulkJobDTO {
+    private Long id;
+    private String fileName;
+    private String status;
+    private Long totalLines;
+    private Long processedLines;
+    private Long acceptedLines;
+    private Long rejectedLines;
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(Long totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public Long getProcessedLines() {
+        return processedLines;
+    }
+
+    public void setProcessedLines(Long processedLines) {
+        this.processedLines = processedLines;
+    }
+
+    public Long getAcceptedLines() {
+        return acceptedLines;
+    }
+
+    public void setAcceptedLines(Long acceptedLines) {
+        this.acceptedLines = acceptedLines;
+    }
+
+    public Long getRejectedLines() {
+        return rejectedLines;
+    }
+
+    public void setRejectedLines(Long rejectedLines) {
+        this.rejectedLines = rejectedLines;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
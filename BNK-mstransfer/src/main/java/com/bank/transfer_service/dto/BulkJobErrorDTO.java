@@ -0,0 +1,24 @@
+package com.bank.transfer_service.dto;
+
+public class BulkJobErrorDTO {
+    private Long lineNumber;
+    private String message;
+
+    // Getters y Setters
+
+    public Long getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(Long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.transfer_service.dto;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SettlementDTO {
+    private Long id;
+    private LocalDateTime cutoff;
+    private String status;
+    private Long transferCount;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private List<SettlementLineDTO> lines;
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getCutoff() {
+        return cutoff;
+    }
+
+    public void setCutoff(LocalDateTime cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getTransferCount() {
+        return transferCount;
+    }
+
+    public void setTransferCount(Long transferCount) {
+        this.transferCount = transferCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public List<SettlementLineDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<SettlementLineDTO> lines) {
+        this.lines = lines;
+    }
+}
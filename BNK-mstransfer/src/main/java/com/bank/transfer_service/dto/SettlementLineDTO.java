@@ -0,0 +1,34 @@
+package com.bank.transfer_service.dto;
+import java.math.BigDecimal;
+
+public class SettlementLineDTO {
+    private String destinationBank;
+    private Long transferCount;
+    private BigDecimal totalAmount;
+
+    // Getters y Setters
+
+    public String getDestinationBank() {
+        return destinationBank;
+    }
+
+    public void setDestinationBank(String destinationBank) {
+        this.destinationBank = destinationBank;
+    }
+
+    public Long getTransferCount() {
+        return transferCount;
+    }
+
+    public void setTransferCount(Long transferCount) {
+        this.transferCount = transferCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
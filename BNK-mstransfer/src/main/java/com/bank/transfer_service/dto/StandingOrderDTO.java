@@ -0,0 +1,144 @@
+package com.bank.transfer_service.dto;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class StandingOrderDTO {
+    private Long id;
+    private Long originAccountId;
+    private String destinationAccountNumber;
+    private String destinationBank;
+    private BigDecimal amount;
+    private String frequency;
+    private LocalDateTime startAt; // primera ejecución; por defecto, ahora
+    private LocalDateTime nextRunAt;
+    private LocalDate endDate;
+    private String status;
+    private String failureReason;
+    private Long executions;
+    private LocalDateTime lastRunAt;
+    private Long lastTransferId;
+    private LocalDateTime createdAt;
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOriginAccountId() {
+        return originAccountId;
+    }
+
+    public void setOriginAccountId(Long originAccountId) {
+        this.originAccountId = originAccountId;
+    }
+
+    public String getDestinationAccountNumber() {
+        return destinationAccountNumber;
+    }
+
+    public void setDestinationAccountNumber(String destinationAccountNumber) {
+        this.destinationAccountNumber = destinationAccountNumber;
+    }
+
+    public String getDestinationBank() {
+        return destinationBank;
+    }
+
+    public void setDestinationBank(String destinationBank) {
+        this.destinationBank = destinationBank;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(String frequency) {
+        this.frequency = frequency;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public Long getExecutions() {
+        return executions;
+    }
+
+    public void setExecutions(Long executions) {
+        this.executions = executions;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public Long getLastTransferId() {
+        return lastTransferId;
+    }
+
+    public void setLastTransferId(Long lastTransferId) {
+        this.lastTransferId = lastTransferId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.bank.transfer_service.dto;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class TransferDTO {
     private Long id;
@@ -8,6 +9,9 @@ public class TransferDTO {
     private String destinationBank;
     private BigDecimal amount;
     private String status;
+    private String failureReason;
+    private LocalDateTime transferDate;
+    private Long settlementId;
 
     // Getters y Setters
 
@@ -58,5 +62,28 @@ public class TransferDTO {
     public void setStatus(String status) {
         this.status = status;
     }
-}
 
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getTransferDate() {
+        return transferDate;
+    }
+
+    public void setTransferDate(LocalDateTime transferDate) {
+        this.transferDate = transferDate;
+    }
+
+    public Long getSettlementId() {
+        return settlementId;
+    }
+
+    public void setSettlementId(Long settlementId) {
+        this.settlementId = settlementId;
+    }
+}
@@ -0,0 +1,127 @@
+package com.bank.transfer_service.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Carga masiva de transferencias (planillas); el archivo queda en bulk_transfer_job_file_parts hasta terminar
+@Entity
+@Table(name = "bulk_transfer_jobs")
+public class BulkJob {
+
+    public static final String PENDING = "pendiente";
+    public static final String PROCESSING = "procesando";
+    public static final String COMPLETED = "completado";
+    public static final String FAILED = "fallido";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_transfer_jobs_seq")
+    @SequenceGenerator(name = "bulk_transfer_jobs_seq", sequenceName = "bulk_transfer_jobs_seq", allocationSize = 10)
+    private Long id;
+
+    private String fileName;
+    private String status;
+
+    private Long totalLines; // se conoce al terminar de leer el archivo
+    private Long processedLines = 0L;
+    private Long acceptedLines = 0L;
+    private Long rejectedLines = 0L;
+    private String failureReason;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime heartbeatAt; // lo renueva la instancia que procesa; si se detiene, otra lo retoma
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(Long totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public Long getProcessedLines() {
+        return processedLines;
+    }
+
+    public void setProcessedLines(Long processedLines) {
+        this.processedLines = processedLines;
+    }
+
+    public Long getAcceptedLines() {
+        return acceptedLines;
+    }
+
+    public void setAcceptedLines(Long acceptedLines) {
+        this.acceptedLines = acceptedLines;
+    }
+
+    public Long getRejectedLines() {
+        return rejectedLines;
+    }
+
+    public void setRejectedLines(Long rejectedLines) {
+        this.rejectedLines = rejectedLines;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
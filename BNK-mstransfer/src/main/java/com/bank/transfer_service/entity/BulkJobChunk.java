@@ -0,0 +1,60 @@
+package com.bank.transfer_service.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Bloque confirmado de una carga masiva; se inserta en la misma transacción que sus transferencias,
+// así al reanudar se saltan exactamente los bloques ya aplicados
+@Entity
+@Table(name = "bulk_transfer_job_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_bulk_chunk", columnNames = {"job_id", "chunk_index"})
+})
+public class BulkJobChunk {
+
+    // allocationSize 1: solo se inserta por JDBC con el default de la columna
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_transfer_job_chunks_seq")
+    @SequenceGenerator(name = "bulk_transfer_job_chunks_seq", sequenceName = "bulk_transfer_job_chunks_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "chunk_index")
+    private Integer chunkIndex;
+
+    private LocalDateTime committedAt;
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Integer getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public void setChunkIndex(Integer chunkIndex) {
+        this.chunkIndex = chunkIndex;
+    }
+
+    public LocalDateTime getCommittedAt() {
+        return committedAt;
+    }
+
+    public void setCommittedAt(LocalDateTime committedAt) {
+        this.committedAt = committedAt;
+    }
+}
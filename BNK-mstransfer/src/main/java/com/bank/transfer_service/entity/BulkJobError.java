@@ -0,0 +1,58 @@
+package com.bank.transfer_service.entity;
+import jakarta.persistence.*;
+
+// Línea rechazada de una carga masiva; no detiene el resto del archivo
+@Entity
+@Table(name = "bulk_transfer_job_errors", indexes = {
+        @Index(name = "idx_bulk_errors_job_line", columnList = "job_id, line_number")
+})
+public class BulkJobError {
+
+    // allocationSize 1: solo se inserta por JDBC con el default de la columna
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_transfer_job_errors_seq")
+    @SequenceGenerator(name = "bulk_transfer_job_errors_seq", sequenceName = "bulk_transfer_job_errors_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "line_number")
+    private Long lineNumber;
+
+    private String message;
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(Long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
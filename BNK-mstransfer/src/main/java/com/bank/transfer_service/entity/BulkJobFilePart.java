@@ -0,0 +1,64 @@
+package com.bank.transfer_service.entity;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+// Archivo de una carga masiva, en partes de tamaño fijo: vive en la base y no en el disco de la
+// instancia que lo recibió, así cualquier instancia puede retomar el trabajo tras un reinicio
+@Entity
+@Table(name = "bulk_transfer_job_file_parts")
+@IdClass(BulkJobFilePart.Key.class)
+public class BulkJobFilePart {
+
+    @Id
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Id
+    @Column(name = "part_index")
+    private Integer partIndex;
+
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+    public static class Key implements Serializable {
+        private Long jobId;
+        private Integer partIndex;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(jobId, key.jobId) && Objects.equals(partIndex, key.partIndex);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jobId, partIndex);
+        }
+    }
+
+    // Getters y Setters
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Integer getPartIndex() {
+        return partIndex;
+    }
+
+    public void setPartIndex(Integer partIndex) {
+        this.partIndex = partIndex;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+}
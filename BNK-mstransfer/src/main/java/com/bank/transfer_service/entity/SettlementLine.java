@@ -0,0 +1,73 @@
+package com.bank.transfer_service.entity;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+// Neto de una liquidación hacia un banco destino
+@Entity
+@Table(name = "settlement_lines", indexes = {
+        @Index(name = "idx_settlement_lines_settlement", columnList = "settlement_id")
+})
+public class SettlementLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlement_lines_seq")
+    @SequenceGenerator(name = "settlement_lines_seq", sequenceName = "settlement_lines_seq", allocationSize = 50)
+    private Long id;
+
+    private Long settlementId;
+    private String destinationBank;
+    private Long transferCount;
+    private BigDecimal totalAmount;
+
+    public SettlementLine() {
+    }
+
+    public SettlementLine(Long settlementId, String destinationBank, Long transferCount, BigDecimal totalAmount) {
+        this.settlementId = settlementId;
+        this.destinationBank = destinationBank;
+        this.transferCount = transferCount;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSettlementId() {
+        return settlementId;
+    }
+
+    public void setSettlementId(Long settlementId) {
+        this.settlementId = settlementId;
+    }
+
+    public String getDestinationBank() {
+        return destinationBank;
+    }
+
+    public void setDestinationBank(String destinationBank) {
+        this.destinationBank = destinationBank;
+    }
+
+    public Long getTransferCount() {
+        return transferCount;
+    }
+
+    public void setTransferCount(Long transferCount) {
+        this.transferCount = transferCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,171 @@
+package com.bank.transfer_service.entity;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Orden de transferencia recurrente (semanal o mensual); la ejecuta StandingOrderScheduler
+@Entity
+@Table(name = "standing_orders", indexes = {
+        @Index(name = "idx_standing_orders_due", columnList = "status, next_run_at"),
+        @Index(name = "idx_standing_orders_origin", columnList = "origin_account_id")
+})
+public class StandingOrder {
+
+    public static final String WEEKLY = "semanal";
+    public static final String MONTHLY = "mensual";
+
+    public static final String ACTIVE = "activo";
+    public static final String CANCELLED = "cancelado";
+    public static final String FINISHED = "finalizado";
+    public static final String SUSPENDED = "suspendido"; // falló al ejecutarse sola; el motivo queda en lastError
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "standing_orders_seq")
+    @SequenceGenerator(name = "standing_orders_seq", sequenceName = "standing_orders_seq", allocationSize = 50)
+    private Long id;
+
+    private Long originAccountId;
+    private String destinationAccountNumber;
+    private String destinationBank;
+    private BigDecimal amount;
+
+    private String frequency;
+    private Integer dayOfMonth; // día ancla de las mensuales: el 31 cae al último día en meses cortos
+    private LocalDateTime nextRunAt;
+    private LocalDate endDate;
+
+    private String status;
+    private Long executions = 0L;
+    private LocalDateTime lastRunAt;
+    private Long lastTransferId;
+    private String lastError;
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOriginAccountId() {
+        return originAccountId;
+    }
+
+    public void setOriginAccountId(Long originAccountId) {
+        this.originAccountId = originAccountId;
+    }
+
+    public String getDestinationAccountNumber() {
+        return destinationAccountNumber;
+    }
+
+    public void setDestinationAccountNumber(String destinationAccountNumber) {
+        this.destinationAccountNumber = destinationAccountNumber;
+    }
+
+    public String getDestinationBank() {
+        return destinationBank;
+    }
+
+    public void setDestinationBank(String destinationBank) {
+        this.destinationBank = destinationBank;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(String frequency) {
+        this.frequency = frequency;
+    }
+
+    public Integer getDayOfMonth() {
+        return dayOfMonth;
+    }
+
+    public void setDayOfMonth(Integer dayOfMonth) {
+        this.dayOfMonth = dayOfMonth;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getExecutions() {
+        return executions;
+    }
+
+    public void setExecutions(Long executions) {
+        this.executions = executions;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public Long getLastTransferId() {
+        return lastTransferId;
+    }
+
+    public void setLastTransferId(Long lastTransferId) {
+        this.lastTransferId = lastTransferId;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -4,11 +4,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transfers")
+@Table(name = "transfers", indexes = {
+        @Index(name = "idx_transfers_origin_date", columnList = "origin_account_id, transfer_date"),
+        @Index(name = "idx_transfers_settlement", columnList = "settlement_id, id")
+})
 public class Transfer {
 
+    public static final String OWN_BANK = "propio";
+    public static final String PENDING = "pendiente";
+    public static final String COMPLETED = "completado";
+    public static final String FAILED = "fallido";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfers_seq")
+    @SequenceGenerator(name = "transfers_seq", sequenceName = "transfers_seq", allocationSize = 100)
     private Long id;
 
     private Long originAccountId;
@@ -16,6 +25,8 @@ public class Transfer {
     private String destinationBank; // "propio" si es interno
     private BigDecimal amount;
     private String status = "completado";
+    private String failureReason;
+    private Long settlementId; // Liquidación interbancaria que incluyó la transferencia; null si aún no se liquidó
 
     private LocalDateTime transferDate;
 
@@ -75,6 +86,14 @@ public class Transfer {
         this.status = status;
     }
 
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
     public LocalDateTime getTransferDate() {
         return transferDate;
     }
@@ -82,4 +101,12 @@ public class Transfer {
     public void setTransferDate(LocalDateTime transferDate) {
         this.transferDate = transferDate;
     }
+
+    public Long getSettlementId() {
+        return settlementId;
+    }
+
+    public void setSettlementId(Long settlementId) {
+        this.settlementId = settlementId;
+    }
 }
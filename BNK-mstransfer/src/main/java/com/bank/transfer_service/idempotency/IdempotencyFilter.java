@@ -0,0 +1,245 @@
+package com.bank.transfer_service.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Idempotency-Key en los POST de transferencias, órdenes permanentes, liquidaciones y cargas masivas:
+// la primera petición se ejecuta y su respuesta se guarda;
+// los reintentos con la misma clave reciben la respuesta guardada sin repetir el efecto.
+// Duplicados simultáneos esperan a la primera en vez de ejecutarse dos veces.
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final Duration waitTimeout;
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotencyStore.StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyStore store, @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.store = store;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return request.getHeader(HEADER) == null || !("POST".equals(method) || "PATCH".equals(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Idempotency-Key inválida.");
+            return;
+        }
+        // Multipart (POST /bulk): las partes las guarda Tomcat en disco y se recorren por streaming,
+        // sin copiar el archivo al heap ni consumir el cuerpo antes que el controlador
+        HttpServletRequest target = isMultipart(request) ? request : new CachedBodyRequest(request);
+        String scopeKey = request.getMethod() + " " + request.getRequestURI() + " " + key;
+        String fingerprint = fingerprint(target);
+
+        IdempotencyStore.StoredResponse stored = store.find(scopeKey);
+        if (stored != null) {
+            replay(stored, fingerprint, response);
+            return;
+        }
+
+        CompletableFuture<IdempotencyStore.StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyStore.StoredResponse> running = inFlight.putIfAbsent(scopeKey, mine);
+        if (running != null) {
+            // Duplicado en esta misma instancia: se espera el resultado de la primera
+            replay(awaitLocal(running), fingerprint, response);
+            return;
+        }
+        try {
+            if (!store.claim(scopeKey, fingerprint)) {
+                // Otra instancia tiene la clave: se espera a que guarde su respuesta. Si no llega y el
+                // lease venció (la instancia se cayó), este reintento se queda con la clave
+                stored = store.awaitCompleted(scopeKey, waitTimeout);
+                if (stored != null || !store.claim(scopeKey, fingerprint)) {
+                    mine.complete(stored);
+                    replay(stored, fingerprint, response);
+                    return;
+                }
+            }
+
+            ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+            try {
+                chain.doFilter(target, cachingResponse);
+            } catch (IOException | ServletException | RuntimeException e) {
+                store.release(scopeKey);
+                mine.complete(null);
+                throw e;
+            }
+            IdempotencyStore.StoredResponse result = new IdempotencyStore.StoredResponse(fingerprint,
+                    cachingResponse.getStatus(), cachingResponse.getContentType(), cachingResponse.getContentAsByteArray());
+            if (result.getStatusCode() >= 500) {
+                store.release(scopeKey);
+                mine.complete(null);
+            } else {
+                store.complete(scopeKey, result);
+                mine.complete(result);
+            }
+            cachingResponse.copyBodyToResponse();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            mine.complete(null);
+            response.sendError(HttpStatus.CONFLICT.value(), "Solicitud con la misma Idempotency-Key en proceso.");
+        } finally {
+            inFlight.remove(scopeKey, mine);
+        }
+    }
+
+    private IdempotencyStore.StoredResponse awaitLocal(CompletableFuture<IdempotencyStore.StoredResponse> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private void replay(IdempotencyStore.StoredResponse stored, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (stored == null) {
+            // La primera petición falló o no terminó a tiempo: el cliente puede reintentar
+            response.sendError(HttpStatus.CONFLICT.value(), "Solicitud con la misma Idempotency-Key en proceso.");
+            return;
+        }
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Idempotency-Key usada con otra solicitud.");
+            return;
+        }
+        response.setStatus(stored.getStatusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        byte[] body = stored.getBody() != null ? stored.getBody() : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        return request.getContentType() != null && request.getContentType().toLowerCase().startsWith("multipart/");
+    }
+
+    // Huella de la solicitud: misma clave con otro contenido es un error del cliente. En multipart se
+    // usan nombre y contenido de cada parte: el boundary cambia en cada reintento
+    private String fingerprint(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        if (request.getQueryString() != null) {
+            digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        if (request instanceof CachedBodyRequest cached) {
+            digest.update(cached.body);
+        } else {
+            byte[] buffer = new byte[8192];
+            for (Part part : request.getParts()) {
+                digest.update(part.getName().getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = part.getInputStream()) {
+                    for (int read; (read = in.read(buffer)) != -1; ) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // El cuerpo se lee una vez para la huella y se vuelve a entregar al controlador
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Todo el cuerpo ya está en memoria: se avisa de inmediato que hay datos y que terminaron
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.bank.transfer_service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dos niveles: memoria acotada (rápido, por instancia) y PostgreSQL con vencimiento (compartido)
+@Component
+public class IdempotencyStore {
+
+    private static final String TABLE = "transfer_idempotency_keys";
+
+    public static class StoredResponse {
+        private final String fingerprint;
+        private final int statusCode;
+        private final String contentType;
+        private final byte[] body;
+
+        public StoredResponse(String fingerprint, int statusCode, String contentType, byte[] body) {
+            this.fingerprint = fingerprint;
+            this.statusCode = statusCode;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Cache<String, StoredResponse> memory;
+
+    // Claves IN_PROGRESS tomadas por esta instancia (con su huella); su lease se renueva mientras corren
+    private final Map<String, String> held = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.lease:30s}") Duration lease,
+                            @Value("${idempotency.memory-max-size:64MB}") DataSize memoryMaxSize,
+                            @Value("${idempotency.memory-ttl:10m}") Duration memoryTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lease = lease;
+        // Acotada por bytes: una respuesta de un lote grande pesa lo que su cuerpo, no una entrada más
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(memoryMaxSize.toBytes())
+                .weigher((String key, StoredResponse value) ->
+                        key.length() + 64 + (value.getBody() != null ? value.getBody().length : 0))
+                .expireAfterWrite(memoryTtl)
+                .build();
+    }
+
+    public StoredResponse find(String scopeKey) {
+        StoredResponse cached = memory.getIfPresent(scopeKey);
+        if (cached != null) {
+            return cached;
+        }
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT fingerprint, status_code, content_type, response_body FROM " + TABLE +
+                        " WHERE scope_key = ? AND state = 'COMPLETED' AND expires_at > now()",
+                (rs, i) -> new StoredResponse(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getBytes(4)),
+                scopeKey);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        memory.put(scopeKey, rows.get(0));
+        return rows.get(0);
+    }
+
+    // true si esta petición se quedó con la clave; false si otra ya la tiene (en curso o terminada).
+    // IN_PROGRESS vence a los `lease` salvo que se renueve: si la instancia que la tomó se cayó, un
+    // reintento la recupera. Una respuesta COMPLETED vencida que aún no se purgó también se puede reutilizar
+    public boolean claim(String scopeKey, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean claimed = jdbcTemplate.update("INSERT INTO " + TABLE +
+                        " (scope_key, fingerprint, state, created_at, expires_at) VALUES (?, ?, 'IN_PROGRESS', ?, ?)" +
+                        " ON CONFLICT (scope_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, state = 'IN_PROGRESS', " +
+                        "status_code = NULL, content_type = NULL, response_body = NULL, created_at = EXCLUDED.created_at, " +
+                        "expires_at = EXCLUDED.expires_at WHERE " + TABLE + ".expires_at <= now()",
+                scopeKey, fingerprint, Timestamp.valueOf(now), Timestamp.valueOf(now.plus(lease))) == 1;
+        if (claimed) {
+            held.put(scopeKey, fingerprint);
+        }
+        return claimed;
+    }
+
+    // Mientras la petición sigue corriendo su clave no vence: un duplicado lento espera en vez de
+    // reclamarla y repetir el efecto. Si la instancia se cae, deja de renovarse y vence a los `lease`
+    @Scheduled(fixedDelayString = "${idempotency.renew-interval:10000}")
+    public void renewHeld() {
+        if (held.isEmpty()) {
+            return;
+        }
+        Timestamp expiresAt = Timestamp.valueOf(LocalDateTime.now().plus(lease));
+        List<Object[]> rows = new ArrayList<>(held.size());
+        held.forEach((scopeKey, fingerprint) -> rows.add(new Object[]{expiresAt, scopeKey, fingerprint}));
+        jdbcTemplate.batchUpdate("UPDATE " + TABLE + " SET expires_at = ? WHERE scope_key = ? " +
+                "AND fingerprint = ? AND state = 'IN_PROGRESS'", rows);
+    }
+
+    // La respuesta guardada dura ttl desde que se completa
+    public void complete(String scopeKey, StoredResponse response) {
+        held.remove(scopeKey);
+        jdbcTemplate.update("UPDATE " + TABLE + " SET state = 'COMPLETED', status_code = ?, content_type = ?, " +
+                        "response_body = ?, expires_at = ? WHERE scope_key = ? AND state = 'IN_PROGRESS'",
+                response.getStatusCode(), response.getContentType(), response.getBody(),
+                Timestamp.valueOf(LocalDateTime.now().plus(ttl)), scopeKey);
+        memory.put(scopeKey, response);
+    }
+
+    // Libera la clave para que un reintento vuelva a ejecutar la operación (p. ej. tras un 5xx)
+    public void release(String scopeKey) {
+        held.remove(scopeKey);
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE scope_key = ? AND state = 'IN_PROGRESS'", scopeKey);
+    }
+
+    // Espera a que otra instancia termine la petición con la misma clave
+    public StoredResponse awaitCompleted(String scopeKey, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            StoredResponse response = find(scopeKey);
+            if (response != null) {
+                return response;
+            }
+            Thread.sleep(50);
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:3600000}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE expires_at <= now()");
+    }
+}
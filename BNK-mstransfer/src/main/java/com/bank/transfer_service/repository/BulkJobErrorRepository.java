@@ -0,0 +1,13 @@
+package com.bank.transfer_service.repository;
+import com.bank.transfer_service.entity.BulkJobError;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BulkJobErrorRepository extends JpaRepository<BulkJobError, Long> {
+
+    List<BulkJobError> findByJobIdAndLineNumberGreaterThanOrderByLineNumberAsc(Long jobId, Long lineNumber, Limit limit);
+}
@@ -0,0 +1,27 @@
+package com.bank.transfer_service.repository;
+import com.bank.transfer_service.entity.BulkJob;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BulkJobRepository extends JpaRepository<BulkJob, Long> {
+
+    // Trabajos sin terminar cuyo procesador dejó de dar señales (p. ej. reinicio)
+    @Query("SELECT j.id FROM BulkJob j WHERE j.status IN ('pendiente', 'procesando') " +
+            "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore) ORDER BY j.id")
+    List<Long> findStaleJobIds(@Param("staleBefore") LocalDateTime staleBefore);
+
+    // Toma el trabajo solo si nadie más lo está procesando
+    @Transactional
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.status = 'procesando', j.heartbeatAt = :now WHERE j.id = :id " +
+            "AND j.status IN ('pendiente', 'procesando') AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+}
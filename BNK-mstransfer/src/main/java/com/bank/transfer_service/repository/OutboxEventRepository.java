@@ -0,0 +1,24 @@
+package com.bank.transfer_service.repository;
+import com.bank.transfer_service.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Eventos listos para enviar, los más antiguos primero. Se excluyen los que esperan (backoff) y los
+    // que tienen un evento anterior de su cuenta esperando, así los nuevos no quedan detrás de los demorados
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :status " +
+            "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM OutboxEvent p WHERE p.accountId = e.accountId AND p.status = :status " +
+            "AND p.id < e.id AND p.nextAttemptAt > :now) " +
+            "ORDER BY e.id")
+    List<OutboxEvent> findDue(String status, LocalDateTime now, Limit limit);
+
+    long countByStatus(String status);
+}
@@ -0,0 +1,12 @@
+package com.bank.transfer_service.repository;
+import com.bank.transfer_service.entity.SettlementLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SettlementLineRepository extends JpaRepository<SettlementLine, Long> {
+
+    List<SettlementLine> findBySettlementIdOrderByDestinationBankAsc(Long settlementId);
+}
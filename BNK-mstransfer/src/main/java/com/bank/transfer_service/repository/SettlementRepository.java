@@ -0,0 +1,8 @@
+package com.bank.transfer_service.repository;
+import com.bank.transfer_service.entity.Settlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SettlementRepository extends JpaRepository<Settlement, Long> {
+}
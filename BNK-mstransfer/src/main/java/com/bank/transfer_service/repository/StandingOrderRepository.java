@@ -0,0 +1,21 @@
+package com.bank.transfer_service.repository;
+import com.bank.transfer_service.entity.StandingOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, Long> {
+    List<StandingOrder> findByOriginAccountIdOrderByIdAsc(Long originAccountId);
+
+    // Solo toca el estado: si el scheduler tiene la fila reclamada, espera su commit y no pisa la fecha avanzada
+    @Transactional
+    @Modifying
+    @Query("UPDATE StandingOrder o SET o.status = :status WHERE o.id = :id AND o.status = :expected")
+    int updateStatus(@Param("id") Long id, @Param("expected") String expected, @Param("status") String status);
+}
@@ -1,10 +1,47 @@
 package com.bank.transfer_service.repository;
 import com.bank.transfer_service.entity.Transfer;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
 
-}
+    List<Transfer> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Lectura en streaming con fetch size fijo (requiere transacción abierta)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Transfer> streamAllByOrderByIdAsc();
 
+    // Historial de un conjunto de cuentas origen; usa idx_transfers_origin_date
+    @Query("SELECT t FROM Transfer t WHERE t.originAccountId IN :accountIds " +
+            "AND t.transferDate >= :from AND t.transferDate < :to ORDER BY t.transferDate DESC, t.id DESC")
+    List<Transfer> findByOriginAccounts(@Param("accountIds") Collection<Long> accountIds,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        Pageable pageable);
+
+    // Resultado de account-service; el rango de fechas permite leer una sola partición. Solo cambia transferencias que siguen pendientes
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transfer t SET t.status = :status, t.failureReason = :failureReason " +
+            "WHERE t.id = :id AND t.transferDate BETWEEN :since AND :until AND t.status = 'pendiente'")
+    int completePending(@Param("id") Long id, @Param("since") LocalDateTime since, @Param("until") LocalDateTime until,
+                        @Param("status") String status, @Param("failureReason") String failureReason);
+}
@@ -0,0 +1,384 @@
+package com.bank.transfer_service.service;
+import com.bank.transfer_service.dto.BulkJobDTO;
+import com.bank.transfer_service.dto.BulkJobErrorDTO;
+import com.bank.transfer_service.entity.BulkJob;
+import com.bank.transfer_service.entity.Transfer;
+import com.bank.transfer_service.repository.BulkJobErrorRepository;
+import com.bank.transfer_service.repository.BulkJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+// Carga masiva de transferencias desde un archivo CSV (origen,cuentaDestino,bancoDestino,monto).
+// El archivo se lee en streaming y se reparte en bloques que se procesan en paralelo; cada bloque se
+// confirma con sus inserts en lote y su marca en bulk_transfer_job_chunks, así un reinicio retoma
+// el trabajo saltando los bloques ya confirmados. Las líneas inválidas se registran y no detienen el lote.
+// El archivo se guarda en la base (bulk_transfer_job_file_parts) para que cualquier instancia pueda retomarlo
+@Service
+public class BulkTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkTransferService.class);
+
+    private static final Duration HEARTBEAT_STALE = Duration.ofMinutes(2);
+
+    // Tamaño de cada parte del archivo guardada en la base
+    private static final int FILE_PART_SIZE = 1024 * 1024;
+
+    private static final String INSERT_ERROR_SQL = "INSERT INTO bulk_transfer_job_errors (job_id, line_number, message) " +
+            "VALUES (?, ?, ?)";
+
+    @Autowired
+    private BulkJobRepository bulkJobRepository;
+
+    @Autowired
+    private BulkJobErrorRepository bulkJobErrorRepository;
+
+    @Autowired
+    private TransferBatchWriter transferBatchWriter;
+
+    @Autowired
+    private VelocityEngine velocityEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${bulk.parallelism:4}")
+    private int parallelism;
+
+    private ExecutorService jobExecutor;
+    private ExecutorService chunkExecutor;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void startExecutors() {
+        jobExecutor = Executors.newFixedThreadPool(2);
+        chunkExecutor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    void stopExecutors() {
+        jobExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    // Guarda el trabajo y su archivo en una sola transacción y lo devuelve de inmediato; el avance se consulta por id
+    public BulkJobDTO submit(MultipartFile file) throws IOException {
+        BulkJob job = new BulkJob();
+        job.setFileName(file.getOriginalFilename());
+        job.setStatus(BulkJob.PROCESSING);
+        job.setHeartbeatAt(LocalDateTime.now());
+        BulkJob saved;
+        try (InputStream in = file.getInputStream()) {
+            saved = new TransactionTemplate(transactionManager).execute(status -> {
+                BulkJob created = bulkJobRepository.save(job);
+                storeFile(created.getId(), in);
+                return created;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        start(saved.getId());
+        return mapToDTO(saved);
+    }
+
+    public BulkJobDTO getJob(Long id) {
+        return bulkJobRepository.findById(id).map(this::mapToDTO).orElse(null);
+    }
+
+    public List<BulkJobErrorDTO> getErrors(Long jobId, Long afterLine, int limit) {
+        return bulkJobErrorRepository.findByJobIdAndLineNumberGreaterThanOrderByLineNumberAsc(jobId,
+                        afterLine != null ? afterLine : 0L, Limit.of(limit))
+                .stream().map(error -> {
+                    BulkJobErrorDTO dto = new BulkJobErrorDTO();
+                    dto.setLineNumber(error.getLineNumber());
+                    dto.setMessage(error.getMessage());
+                    return dto;
+                }).collect(Collectors.toList());
+    }
+
+    // Al arrancar y periódicamente: retoma trabajos cuyo procesador se detuvo
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${bulk.resume-interval:60000}", initialDelayString = "${bulk.resume-interval:60000}")
+    public void resumeStaleJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(HEARTBEAT_STALE);
+        for (Long id : bulkJobRepository.findStaleJobIds(staleBefore)) {
+            if (!running.contains(id) && bulkJobRepository.claim(id, LocalDateTime.now(), staleBefore) == 1) {
+                start(id);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bulk.heartbeat-interval:30000}")
+    public void heartbeat() {
+        for (Long id : running) {
+            jdbcTemplate.update("UPDATE bulk_transfer_jobs SET heartbeat_at = now() WHERE id = ?", id);
+        }
+    }
+
+    private void start(Long jobId) {
+        running.add(jobId);
+        jobExecutor.submit(() -> {
+            try {
+                run(jobId);
+            } finally {
+                running.remove(jobId);
+            }
+        });
+    }
+
+    private void run(Long jobId) {
+        int parts = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM bulk_transfer_job_file_parts WHERE job_id = ?", Integer.class, jobId);
+        if (parts == 0) {
+            finish(jobId, BulkJob.FAILED, null, "Archivo no disponible.");
+            return;
+        }
+        Set<Integer> committed = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT chunk_index FROM bulk_transfer_job_chunks WHERE job_id = ?", Integer.class, jobId));
+
+        // Como mucho dos bloques por hilo en espera: memoria acotada aunque el archivo sea enorme
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Future<?>> chunks = new ArrayList<>();
+        long dataLines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(readFile(jobId, parts), StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            int chunkIndex = 0;
+            List<String[]> chunk = new ArrayList<>(chunkSize);
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank() || (lineNumber == 1 && !Character.isDigit(text.strip().charAt(0)))) {
+                    continue; // línea vacía o cabecera
+                }
+                dataLines++;
+                chunk.add(new String[]{String.valueOf(lineNumber), text});
+                if (chunk.size() == chunkSize) {
+                    submitChunk(jobId, chunkIndex++, chunk, committed, inFlight, chunks);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submitChunk(jobId, chunkIndex, chunk, committed, inFlight, chunks);
+            }
+            for (Future<?> future : chunks) {
+                future.get();
+            }
+        } catch (IOException | ExecutionException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            finish(jobId, BulkJob.FAILED, dataLines, cause.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            // Apagado: el trabajo queda en proceso y se retoma al volver
+            Thread.currentThread().interrupt();
+            return;
+        }
+        finish(jobId, BulkJob.COMPLETED, dataLines, null);
+    }
+
+    private void storeFile(Long jobId, InputStream in) {
+        try {
+            byte[] buffer = new byte[FILE_PART_SIZE];
+            int partIndex = 0;
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                jdbcTemplate.update("INSERT INTO bulk_transfer_job_file_parts (job_id, part_index, content) VALUES (?, ?, ?)",
+                        jobId, partIndex++, Arrays.copyOf(buffer, read));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Lee las partes en orden, una a la vez: en memoria nunca hay más de una parte del archivo
+    private InputStream readFile(Long jobId, int parts) {
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < parts;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (next >= parts) {
+                    throw new NoSuchElementException();
+                }
+                byte[] content = jdbcTemplate.queryForObject(
+                        "SELECT content FROM bulk_transfer_job_file_parts WHERE job_id = ? AND part_index = ?",
+                        byte[].class, jobId, next++);
+                return new ByteArrayInputStream(content);
+            }
+        });
+    }
+
+    private void submitChunk(Long jobId, int chunkIndex, List<String[]> lines, Set<Integer> committed,
+                             Semaphore inFlight, List<Future<?>> chunks) throws InterruptedException {
+        if (committed.contains(chunkIndex)) {
+            return;
+        }
+        inFlight.acquire();
+        chunks.add(chunkExecutor.submit(() -> {
+            try {
+                processChunk(jobId, chunkIndex, lines);
+            } finally {
+                inFlight.release();
+            }
+        }));
+    }
+
+    void processChunk(Long jobId, int chunkIndex, List<String[]> lines) {
+        List<Transfer> valid = new ArrayList<>(lines.size());
+        List<Long> validLines = new ArrayList<>(lines.size());
+        List<Object[]> errors = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (String[] line : lines) {
+            long lineNumber = Long.parseLong(line[0]);
+            String error = parse(line[1], now, valid);
+            if (error != null) {
+                errors.add(new Object[]{jobId, lineNumber, error});
+            } else {
+                validLines.add(lineNumber);
+            }
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // La marca del bloque va primero: si ya existe, otra ejecución lo aplicó y no se repite
+            int claimed = jdbcTemplate.update("INSERT INTO bulk_transfer_job_chunks (job_id, chunk_index, committed_at) " +
+                    "VALUES (?, ?, now()) ON CONFLICT (job_id, chunk_index) DO NOTHING", jobId, chunkIndex);
+            if (claimed == 0) {
+                return;
+            }
+            // Mismos límites que una transferencia individual; se evalúan con el bloque ya reclamado
+            // para no contar dos veces un bloque que otra ejecución ya aplicó
+            List<Transfer> allowed = new ArrayList<>(valid.size());
+            for (int i = 0; i < valid.size(); i++) {
+                Transfer transfer = valid.get(i);
+                String rejection = velocityEngine.checkAndRecord(transfer.getOriginAccountId(),
+                        transfer.getDestinationAccountNumber(), transfer.getAmount());
+                if (rejection == null) {
+                    allowed.add(transfer);
+                } else {
+                    errors.add(new Object[]{jobId, validLines.get(i), rejection});
+                }
+            }
+            transferBatchWriter.insert(allowed);
+            if (!errors.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ERROR_SQL, errors);
+            }
+            jdbcTemplate.update("UPDATE bulk_transfer_jobs SET processed_lines = processed_lines + ?, " +
+                            "accepted_lines = accepted_lines + ?, rejected_lines = rejected_lines + ?, heartbeat_at = now() " +
+                            "WHERE id = ?", lines.size(), allowed.size(), errors.size(), jobId);
+        });
+    }
+
+    // Devuelve el error de la línea, o null si la agregó a valid
+    static String parse(String text, LocalDateTime now, List<Transfer> valid) {
+        String[] fields = text.split(",", -1);
+        if (fields.length != 4) {
+            return "Se esperaban 4 campos.";
+        }
+        Transfer transfer = new Transfer();
+        try {
+            transfer.setOriginAccountId(Long.parseLong(fields[0].strip()));
+        } catch (NumberFormatException e) {
+            return "Cuenta origen inválida.";
+        }
+        transfer.setDestinationAccountNumber(fields[1].strip());
+        if (transfer.getDestinationAccountNumber().isEmpty()) {
+            return "Cuenta destino vacía.";
+        }
+        transfer.setDestinationBank(fields[2].strip());
+        if (transfer.getDestinationBank().isEmpty()) {
+            return "Banco destino vacío.";
+        }
+        try {
+            transfer.setAmount(new BigDecimal(fields[3].strip()));
+        } catch (NumberFormatException e) {
+            return "Monto inválido.";
+        }
+        if (transfer.getAmount().signum() <= 0 || transfer.getAmount().scale() > 2) {
+            return "Monto inválido.";
+        }
+        transfer.setStatus(Transfer.OWN_BANK.equalsIgnoreCase(transfer.getDestinationBank())
+                ? Transfer.PENDING : Transfer.COMPLETED);
+        transfer.setTransferDate(now);
+        valid.add(transfer);
+        return null;
+    }
+
+    private void finish(Long jobId, String status, Long totalLines, String failureReason) {
+        bulkJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            if (totalLines != null) {
+                job.setTotalLines(totalLines);
+            }
+            job.setFailureReason(failureReason);
+            job.setCompletedAt(LocalDateTime.now());
+            bulkJobRepository.save(job);
+        });
+        // Trabajo terminado: el archivo ya no hace falta
+        int deleted = jdbcTemplate.update("DELETE FROM bulk_transfer_job_file_parts WHERE job_id = ?", jobId);
+        log.debug("Carga {} terminada en estado {}; {} partes de archivo borradas", jobId, status, deleted);
+    }
+
+    private BulkJobDTO mapToDTO(BulkJob job) {
+        BulkJobDTO dto = new BulkJobDTO();
+        dto.setId(job.getId());
+        dto.setFileName(job.getFileName());
+        dto.setStatus(job.getStatus());
+        dto.setTotalLines(job.getTotalLines());
+        dto.setProcessedLines(job.getProcessedLines());
+        dto.setAcceptedLines(job.getAcceptedLines());
+        dto.setRejectedLines(job.getRejectedLines());
+        dto.setFailureReason(job.getFailureReason());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bank.transfer_service.service;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.zip.GZIPOutputStream;
+
+// Escribe filas de un ResultSet como CSV o NDJSON (un objeto JSON por línea), sin acumularlas en memoria.
+// La cabecera CSV sale al crear el writer: una exportación sin filas igual la lleva
+public class ExportWriter implements Closeable {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private final String format;
+    private final Writer writer;
+    private final JsonGenerator json;
+    private final String[] columns;
+
+    // columns: en el mismo orden que las columnas del SELECT
+    public ExportWriter(String format, String[] columns, OutputStream out, boolean gzip, ObjectMapper objectMapper)
+            throws IOException {
+        this.format = format;
+        this.columns = columns;
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        this.writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        this.json = NDJSON.equals(format) ? objectMapper.getFactory().createGenerator(writer) : null;
+        if (json != null) {
+            json.setRootValueSeparator(null); // las líneas las separa writeRaw('\n')
+        }
+        if (CSV.equals(format)) {
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+    }
+
+    public static boolean isSupported(String format) {
+        return CSV.equals(format) || NDJSON.equals(format);
+    }
+
+    public static String contentType(String format) {
+        return CSV.equals(format) ? "text/csv" : "application/x-ndjson";
+    }
+
+    public void writeRow(ResultSet rs) throws SQLException, IOException {
+        if (json != null) {
+            json.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                json.writeFieldName(columns[i]);
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof BigDecimal) {
+                    json.writeNumber((BigDecimal) value);
+                } else if (value instanceof Number) {
+                    json.writeNumber(((Number) value).longValue());
+                } else {
+                    json.writeString(text(value));
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+            return;
+        }
+
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = rs.getObject(i + 1);
+            writer.write(value == null ? "" : csv(text(value)));
+        }
+        writer.write('\n');
+    }
+
+    private static String text(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return value.toString();
+    }
+
+    public static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // Cierra también el gzip para escribir su trailer
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        }
+        writer.close();
+    }
+}
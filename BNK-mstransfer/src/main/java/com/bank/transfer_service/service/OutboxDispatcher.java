@@ -0,0 +1,204 @@
+package com.bank.transfer_service.service;
+import com.bank.transfer_service.client.AccountClient;
+import com.bank.transfer_service.dto.AccountEventDTO;
+import com.bank.transfer_service.entity.OutboxEvent;
+import com.bank.transfer_service.entity.Transfer;
+import com.bank.transfer_service.repository.OutboxEventRepository;
+import com.bank.transfer_service.repository.TransferRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Vacía transfer_outbox en lotes hacia account-service. Los eventos de una misma cuenta salen en orden:
+// si uno está en espera (backoff), los siguientes de esa cuenta también esperan
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    // Candado de sesión de PostgreSQL: con varias instancias, solo una despacha a la vez
+    private static final long LOCK_ID = 84_011L;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private AccountClient accountClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:500}")
+    public void dispatch() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)")) {
+                return null;
+            }
+            try {
+                int read;
+                do {
+                    read = dispatchBatch();
+                } while (read == batchSize);
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            }
+            return null;
+        });
+    }
+
+    private boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, LOCK_ID);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    // Devuelve cuántos eventos leyó de la tabla (batchSize si puede haber más)
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findDue(OutboxEvent.PENDING, now, Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Un payload ilegible no frena al resto: ese evento se descarta y el lote sale sin él
+        List<OutboxEvent> sendable = new ArrayList<>(batch.size());
+        List<AccountEventDTO> payloads = new ArrayList<>(batch.size());
+        List<OutboxEvent> unreadable = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            AccountEventDTO payload = readPayload(event);
+            if (payload != null) {
+                sendable.add(event);
+                payloads.add(payload);
+            } else {
+                unreadable.add(event);
+            }
+        }
+        if (!unreadable.isEmpty()) {
+            discard(unreadable);
+        }
+        if (sendable.isEmpty()) {
+            return batch.size();
+        }
+
+        List<AccountEventDTO> results;
+        try {
+            results = accountClient.sendEvents(payloads);
+        } catch (RestClientException e) {
+            // Sin respuesta: se reintenta todo el lote más tarde; el receptor descarta lo ya aplicado
+            sendable.forEach(event -> backoff(event, e.getMessage()));
+            outboxEventRepository.saveAll(sendable);
+            return 0;
+        }
+
+        Map<String, AccountEventDTO> byId = results.stream()
+                .collect(Collectors.toMap(AccountEventDTO::getEventId, Function.identity(), (a, b) -> a));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Cuentas con un evento sin resultado en este lote: sus eventos siguientes quedan pendientes
+            // y se reenvían detrás de él (el receptor descarta lo ya aplicado)
+            Set<Long> held = new HashSet<>();
+            for (int i = 0; i < sendable.size(); i++) {
+                OutboxEvent event = sendable.get(i);
+                if (held.contains(event.getAccountId())) {
+                    continue;
+                }
+                AccountEventDTO result = byId.get(payloads.get(i).getEventId());
+                if (result == null || result.getStatus() == null) {
+                    backoff(event, "Sin resultado de account-service.");
+                    held.add(event.getAccountId());
+                    continue;
+                }
+                event.setStatus(OutboxEvent.SENT);
+                event.setSentAt(LocalDateTime.now());
+                // La fila de negocio se guardó justo antes que el evento, en la misma transacción
+                transferRepository.completePending(event.getAggregateId(),
+                        event.getCreatedAt().minusDays(1), event.getCreatedAt(),
+                        Transfer.COMPLETED.equals(result.getStatus()) ? Transfer.COMPLETED : Transfer.FAILED,
+                        result.getMessage());
+            }
+            outboxEventRepository.saveAll(sendable);
+        });
+        return batch.size();
+    }
+
+    // El evento nunca se envió, así que la operación no se aplicó en account-service: queda fallida
+    private void discard(List<OutboxEvent> events) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (OutboxEvent event : events) {
+                event.setStatus(OutboxEvent.FAILED);
+                transferRepository.completePending(event.getAggregateId(),
+                        event.getCreatedAt().minusDays(1), event.getCreatedAt(), Transfer.FAILED, event.getLastError());
+            }
+            outboxEventRepository.saveAll(events);
+        });
+    }
+
+    // Espera exponencial acotada: 1s, 2s, 4s ... hasta maxBackoff
+    private void backoff(OutboxEvent event, String error) {
+        int attempts = event.getAttempts() != null ? event.getAttempts() + 1 : 1;
+        long delay = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(Math.min(delay, maxBackoff.toMillis()))));
+        event.setLastError(truncate(error));
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 255 ? error.substring(0, 255) : error;
+    }
+
+    // null si el payload no se puede leer; el error queda en el evento
+    private AccountEventDTO readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), AccountEventDTO.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.error("Payload inválido en outbox {}", event.getId(), e);
+            event.setLastError(truncate("Payload inválido: " + e.getMessage()));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.transfer_service.service;
+import com.bank.transfer_service.dto.AccountEventDTO;
+import com.bank.transfer_service.entity.OutboxEvent;
+import com.bank.transfer_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OutboxService {
+
+    public static final String TRANSFER_CREATED = "TRANSFER_CREATED";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Solo dentro de la transacción del cambio de negocio: ambos se confirman o ninguno
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String eventType, Long aggregateId, AccountEventDTO event) {
+        outboxEventRepository.save(build(eventType, aggregateId, event));
+    }
+
+    // Fila del outbox sin guardar, para quien inserta en lote por su cuenta
+    public OutboxEvent build(String eventType, Long aggregateId, AccountEventDTO event) {
+        // Un evento de cada tipo por entidad: el id es estable aunque se vuelva a generar
+        event.setEventId("transfer-service:" + eventType + ":" + aggregateId);
+        event.setEventType(eventType);
+
+        OutboxEvent outbox = new OutboxEvent();
+        outbox.setAggregateId(aggregateId);
+        outbox.setAccountId(event.getAccountId());
+        outbox.setEventType(eventType);
+        outbox.setStatus(OutboxEvent.PENDING);
+        try {
+            outbox.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return outbox;
+    }
+}
@@ -0,0 +1,189 @@
+package com.bank.transfer_service.service;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Particionado mensual por rango de transfers.transfer_date. Las consultas que filtran por fecha solo
+// leen los meses del rango y los meses viejos se desacoplan sin DELETE masivos.
+// Hibernate crea la tabla normal; al arrancar se convierte una sola vez en tabla particionada.
+// La partición DEFAULT recibe las fechas fuera de los meses creados en vez de rechazar el INSERT
+@Component
+public class PartitionMaintenance implements SmartInitializingSingleton {
+
+    private static final String TABLE = "transfers";
+    private static final String COLUMN = "transfer_date";
+    private static final String SEQUENCE = "transfers_seq";
+    private static final String[] INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_transfers_origin_date ON transfers (origin_account_id, transfer_date)",
+            "CREATE INDEX IF NOT EXISTS idx_transfers_settlement ON transfers (settlement_id, id)",
+            // Solo las transferencias que la liquidación puede reclamar (mismo filtro que su CLAIM_SQL): al
+            // reclamarlas salen del índice, así que cada lote no vuelve a recorrer las de 'propio' ni las ya liquidadas
+            "CREATE INDEX IF NOT EXISTS idx_transfers_unsettled ON transfers (id) WHERE settlement_id IS NULL " +
+                    "AND destination_bank IS NOT NULL AND lower(destination_bank) <> 'propio' AND status = 'completado'"
+    };
+
+    // Candado para que varias instancias no migren ni creen particiones a la vez
+    private static final long LOCK_ID = 84_015L;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 = nunca desacoplar
+    @Value("${partitioning.retention-months:24}")
+    private int retentionMonths;
+
+    // Después de que Hibernate actualiza el esquema y antes de que el servidor acepte peticiones
+    @Override
+    public void afterSingletonsInstantiated() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, LOCK_ID);
+            if (!isPartitioned()) {
+                migrate();
+            }
+        });
+        maintain();
+    }
+
+    @Scheduled(cron = "${partitioning.cron:0 30 0 * * *}")
+    public void maintain() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, LOCK_ID);
+            if (!isPartitioned()) {
+                return;
+            }
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + "_default PARTITION OF " + TABLE + " DEFAULT");
+            createIndexes();
+            YearMonth current = YearMonth.now();
+            createPartitions(current, current.plusMonths(monthsAhead));
+            if (retentionMonths > 0) {
+                detachOlderThan(current.minusMonths(retentionMonths));
+            }
+        });
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_partitioned_table p " +
+                "JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    // Copia la tabla existente a una particionada con el mismo nombre, en una sola transacción.
+    // La PK pasa a (id, fecha) porque PostgreSQL exige la clave de partición en la PK; el id sigue
+    // siendo único porque sale de una sola secuencia
+    private void migrate() {
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, TABLE) != Boolean.TRUE) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + TABLE + "_legacy");
+        jdbcTemplate.execute("UPDATE " + TABLE + "_legacy SET " + COLUMN + " = now() WHERE " + COLUMN + " IS NULL");
+
+        // La secuencia ya existe y está por encima del id más alto (config.SequenceMigration corre antes)
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + TABLE + "_legacy INCLUDING DEFAULTS) " +
+                "PARTITION BY RANGE (" + COLUMN + ")");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + SEQUENCE + "')");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN " + COLUMN + " SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, " + COLUMN + ")");
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + "_default PARTITION OF " + TABLE + " DEFAULT");
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT min(" + COLUMN + ") FROM " + TABLE + "_legacy", Timestamp.class);
+        YearMonth current = YearMonth.now();
+        createPartitions(oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : current, current.plusMonths(monthsAhead));
+
+        jdbcTemplate.execute("INSERT INTO " + TABLE + " SELECT * FROM " + TABLE + "_legacy");
+        jdbcTemplate.execute("DROP TABLE " + TABLE + "_legacy");
+        // Los índices se crean después de la carga y una vez liberados los nombres de la tabla vieja
+        createIndexes();
+    }
+
+    // Idempotente: en una tabla ya migrada solo crea los índices que falten
+    private void createIndexes() {
+        for (String index : INDEXES) {
+            jdbcTemplate.execute(index);
+        }
+    }
+
+    private void createPartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month : months(from, to)) {
+            String partition = partitionName(TABLE, month);
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition) == Boolean.TRUE) {
+                continue;
+            }
+            LocalDate start = month.atDay(1);
+            Boolean stray = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + TABLE + "_default WHERE " +
+                    COLUMN + " >= ? AND " + COLUMN + " < ?)", Boolean.class, start, start.plusMonths(1));
+            if (stray != Boolean.TRUE) {
+                jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF " + TABLE + bounds(month));
+                continue;
+            }
+            // El mes ya tiene filas en DEFAULT: se mueven a la partición nueva antes de acoplarla
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + TABLE + " INCLUDING DEFAULTS)");
+            jdbcTemplate.update("WITH moved AS (DELETE FROM " + TABLE + "_default WHERE " + COLUMN + " >= ? AND " +
+                    COLUMN + " < ? RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved", start, start.plusMonths(1));
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition + bounds(month));
+        }
+    }
+
+    static List<YearMonth> months(YearMonth from, YearMonth to) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    // Rango semiabierto [primer día del mes, primer día del siguiente)
+    static String bounds(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        return " FOR VALUES FROM ('" + start + "') TO ('" + start.plusMonths(1) + "')";
+    }
+
+    // Mes de una partición mensual; null para DEFAULT o cualquier otra tabla acoplada
+    static YearMonth partitionMonth(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(prefix.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // La partición desacoplada queda como tabla suelta para archivarla o eliminarla aparte
+    private void detachOlderThan(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass", String.class, TABLE);
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(TABLE, partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            }
+        }
+    }
+}
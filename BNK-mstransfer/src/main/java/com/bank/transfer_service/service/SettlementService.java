@@ -0,0 +1,336 @@
+package com.bank.transfer_service.service;
+import com.bank.transfer_service.dto.SettlementDTO;
+import com.bank.transfer_service.dto.SettlementLineDTO;
+import com.bank.transfer_service.entity.Settlement;
+import com.bank.transfer_service.entity.SettlementLine;
+import com.bank.transfer_service.repository.SettlementLineRepository;
+import com.bank.transfer_service.repository.SettlementRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+// Liquidación de transferencias interbancarias: reclama las pendientes en lotes, calcula el neto por
+// banco destino en paralelo y escribe el archivo (CSV con gzip) leyendo con cursor, en memoria constante.
+// Si la instancia muere a mitad de un ciclo, la recuperación lo marca fallido y libera sus transferencias
+@Service
+public class SettlementService {
+
+    private static final int CLAIM_BATCH = 10_000;
+    private static final int FETCH_SIZE = 1_000;
+
+    // SKIP LOCKED: dos ciclos simultáneos se reparten las filas en vez de bloquearse. Lee el índice parcial
+    // idx_transfers_unsettled (PartitionMaintenance); si cambia este filtro, el del índice tiene que seguirlo
+    private static final String CLAIM_SQL = "UPDATE transfers SET settlement_id = ? WHERE id IN (" +
+            "SELECT id FROM transfers WHERE settlement_id IS NULL AND destination_bank IS NOT NULL " +
+            "AND lower(destination_bank) <> 'propio' AND status = 'completado' AND transfer_date < ? " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String RELEASE_SQL = "UPDATE transfers SET settlement_id = NULL WHERE id IN (" +
+            "SELECT id FROM transfers WHERE settlement_id = ? LIMIT ?)";
+
+    // Usa idx_transfers_settlement (settlement_id, id): cada porción es un rango del índice
+    private static final String NET_SQL = "SELECT destination_bank, count(*), sum(amount) FROM transfers " +
+            "WHERE settlement_id = ? AND id BETWEEN ? AND ? GROUP BY destination_bank";
+
+    // Ciclos abandonados, o fallidos que todavía retienen transferencias (la liberación se cortó)
+    private static final String RECOVERABLE_SQL = "SELECT id FROM settlements s WHERE (s.status = 'generando' " +
+            "AND s.created_at < ?) OR (s.status = 'fallido' AND EXISTS (SELECT 1 FROM transfers t WHERE t.settlement_id = s.id))";
+
+    // Solo se publica si nadie lo recuperó mientras tanto
+    private static final String COMPLETE_SQL = "UPDATE settlements SET status = 'generado', transfer_count = ?, " +
+            "total_amount = ?, file_name = ?, completed_at = ? WHERE id = ? AND status = 'generando'";
+
+    private static final String DETAIL_SQL = "SELECT id, origin_account_id, destination_bank, " +
+            "destination_account_number, amount, transfer_date FROM transfers WHERE settlement_id = ? ORDER BY id";
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Autowired
+    private SettlementLineRepository settlementLineRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${settlement.directory:${java.io.tmpdir}/bnk-settlements}")
+    private String directory;
+
+    // 0 = automático: un hilo por núcleo, sin pasar de la mitad del pool (cada hilo retiene una
+    // conexión mientras agrega su porción; la otra mitad queda para las peticiones)
+    @Value("${settlement.parallelism:0}")
+    private int parallelism;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${settlement.stale-after:6h}")
+    private Duration staleAfter;
+
+    private ExecutorService netExecutor;
+    private int threads;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void startExecutor() {
+        threads = netThreads(parallelism, poolSize, Runtime.getRuntime().availableProcessors());
+        netExecutor = Executors.newFixedThreadPool(threads);
+    }
+
+    static int netThreads(int parallelism, int poolSize, int cores) {
+        if (parallelism > 0) {
+            return parallelism;
+        }
+        return Math.max(1, Math.min(cores, poolSize / 2));
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        netExecutor.shutdownNow();
+    }
+
+    // Desactivado por defecto ("-"); se habilita en una sola instancia
+    @Scheduled(cron = "${settlement.cron:-}")
+    public void scheduledCycle() {
+        runCycle(LocalDateTime.now());
+    }
+
+    public SettlementDTO runCycle(LocalDateTime cutoff) {
+        Settlement settlement = new Settlement();
+        settlement.setCutoff(cutoff);
+        settlement.setStatus(Settlement.GENERATING);
+        settlement = settlementRepository.save(settlement);
+        running.add(settlement.getId());
+
+        try {
+            claim(settlement.getId(), cutoff);
+            Map<String, SettlementLine> nets = computeNets(settlement.getId());
+            settlement.setTransferCount(nets.values().stream().mapToLong(SettlementLine::getTransferCount).sum());
+            settlement.setTotalAmount(nets.values().stream().map(SettlementLine::getTotalAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+            settlement.setFileName(writeFile(settlement, nets).getFileName().toString());
+            settlement.setStatus(Settlement.GENERATED);
+            settlement.setCompletedAt(LocalDateTime.now());
+            complete(settlement, nets);
+        } catch (IOException | RuntimeException e) {
+            // Las transferencias vuelven a quedar pendientes para el siguiente ciclo
+            release(settlement.getId());
+            settlement.setStatus(Settlement.FAILED);
+            settlement.setCompletedAt(LocalDateTime.now());
+            settlementRepository.save(settlement);
+            throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+        } finally {
+            running.remove(settlement.getId());
+        }
+        return mapToDTO(settlement);
+    }
+
+    // Al arrancar y periódicamente: un ciclo en "generando" más allá de stale-after quedó huérfano
+    // (la instancia murió); se marca fallido y sus transferencias vuelven al siguiente ciclo
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${settlement.recovery-interval:600000}",
+            initialDelayString = "${settlement.recovery-interval:600000}")
+    public void recoverStaleSettlements() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+        for (Long id : jdbcTemplate.queryForList(RECOVERABLE_SQL, Long.class, staleBefore)) {
+            if (running.contains(id)) {
+                continue;
+            }
+            // Primero el estado: desde aquí el ciclo original, si sigue vivo, ya no puede publicarse
+            jdbcTemplate.update("UPDATE settlements SET status = 'fallido', completed_at = now() " +
+                    "WHERE id = ? AND status = 'generando'", id);
+            release(id);
+        }
+    }
+
+    private void complete(Settlement settlement, Map<String, SettlementLine> nets) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int updated = jdbcTemplate.update(COMPLETE_SQL, settlement.getTransferCount(), settlement.getTotalAmount(),
+                    settlement.getFileName(), settlement.getCompletedAt(), settlement.getId());
+            if (updated == 0) {
+                throw new IllegalStateException("La liquidación " + settlement.getId() + " fue recuperada como fallida.");
+            }
+            settlementLineRepository.saveAll(nets.values());
+        });
+    }
+
+    public SettlementDTO getSettlement(Long id) {
+        return settlementRepository.findById(id).map(this::mapToDTO).orElse(null);
+    }
+
+    public Path getSettlementFile(Long id) {
+        return settlementRepository.findById(id)
+                .filter(settlement -> Settlement.GENERATED.equals(settlement.getStatus()))
+                .map(settlement -> Paths.get(directory, settlement.getFileName()))
+                .filter(Files::exists)
+                .orElse(null);
+    }
+
+    // Cada lote se confirma por separado: sin una transacción gigante ni bloqueos largos
+    void claim(Long settlementId, LocalDateTime cutoff) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int claimed;
+        do {
+            claimed = transaction.execute(status ->
+                    jdbcTemplate.update(CLAIM_SQL, settlementId, cutoff, CLAIM_BATCH));
+        } while (claimed == CLAIM_BATCH);
+    }
+
+    private void release(Long settlementId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int released;
+        do {
+            released = transaction.execute(status -> jdbcTemplate.update(RELEASE_SQL, settlementId, CLAIM_BATCH));
+        } while (released == CLAIM_BATCH);
+    }
+
+    // Divide el rango de ids en porciones y agrega cada una en paralelo; luego suma por banco
+    Map<String, SettlementLine> computeNets(Long settlementId) {
+        Map<String, SettlementLine> nets = new TreeMap<>();
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT min(id) AS lo, max(id) AS hi FROM transfers WHERE settlement_id = ?", settlementId);
+        if (range.get("lo") == null) {
+            return nets;
+        }
+        long lo = ((Number) range.get("lo")).longValue();
+        long hi = ((Number) range.get("hi")).longValue();
+        int slices = threads * 4;
+        long step = Math.max(1, (hi - lo) / slices + 1);
+
+        List<Future<List<SettlementLine>>> parts = new ArrayList<>();
+        for (long from = lo; from <= hi; from += step) {
+            long sliceFrom = from;
+            long sliceTo = Math.min(hi, from + step - 1);
+            parts.add(netExecutor.submit(() -> jdbcTemplate.query(NET_SQL,
+                    (rs, i) -> new SettlementLine(settlementId, rs.getString(1), rs.getLong(2), rs.getBigDecimal(3)),
+                    settlementId, sliceFrom, sliceTo)));
+        }
+
+        for (Future<List<SettlementLine>> part : parts) {
+            try {
+                for (SettlementLine line : part.get()) {
+                    nets.merge(line.getDestinationBank(), line, (a, b) -> new SettlementLine(settlementId,
+                            a.getDestinationBank(), a.getTransferCount() + b.getTransferCount(),
+                            a.getTotalAmount().add(b.getTotalAmount())));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Cálculo de netos interrumpido.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Error al calcular netos.", e.getCause());
+            }
+        }
+        return nets;
+    }
+
+    // Formato: H (cabecera), D (una línea por transferencia), T (neto por banco), F (totales)
+    Path writeFile(Settlement settlement, Map<String, SettlementLine> nets) throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        Path file = dir.resolve("settlement-" + settlement.getId() + ".csv.gz");
+        Path partial = dir.resolve(file.getFileName() + ".part");
+
+        long[] written = {0};
+        BigDecimal[] writtenAmount = {BigDecimal.ZERO};
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024), StandardCharsets.UTF_8), 64 * 1024)) {
+            out.write("H," + settlement.getId() + "," + settlement.getCutoff() + "," + LocalDateTime.now() + "\n");
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            // Con autocommit desactivado el driver de PostgreSQL trae las filas de a FETCH_SIZE
+            transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(DETAIL_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setLong(1, settlement.getId());
+                return statement;
+            }, rs -> {
+                try {
+                    out.write("D," + rs.getLong(1) + "," + rs.getLong(2) + "," + ExportWriter.csv(rs.getString(3)) + ","
+                            + ExportWriter.csv(rs.getString(4)) + "," + rs.getBigDecimal(5).toPlainString() + ","
+                            + rs.getTimestamp(6).toLocalDateTime() + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                written[0]++;
+                writtenAmount[0] = writtenAmount[0].add(rs.getBigDecimal(5));
+            }));
+
+            for (SettlementLine net : nets.values()) {
+                out.write("T," + ExportWriter.csv(net.getDestinationBank()) + "," + net.getTransferCount() + ","
+                        + net.getTotalAmount().toPlainString() + "\n");
+            }
+            out.write("F," + settlement.getTransferCount() + "," + settlement.getTotalAmount().toPlainString() + "\n");
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(partial);
+            throw e.getCause();
+        }
+
+        // El detalle debe cuadrar con los netos; si no, el archivo no se publica
+        if (written[0] != settlement.getTransferCount() || writtenAmount[0].compareTo(settlement.getTotalAmount()) != 0) {
+            Files.deleteIfExists(partial);
+            throw new IllegalStateException("El detalle de la liquidación no cuadra con los netos.");
+        }
+        return Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private SettlementDTO mapToDTO(Settlement settlement) {
+        SettlementDTO dto = new SettlementDTO();
+        dto.setId(settlement.getId());
+        dto.setCutoff(settlement.getCutoff());
+        dto.setStatus(settlement.getStatus());
+        dto.setTransferCount(settlement.getTransferCount());
+        dto.setTotalAmount(settlement.getTotalAmount());
+        dto.setCreatedAt(settlement.getCreatedAt());
+        dto.setCompletedAt(settlement.getCompletedAt());
+        dto.setLines(settlementLineRepository.findBySettlementIdOrderByDestinationBankAsc(settlement.getId()).stream()
+                .map(line -> {
+                    SettlementLineDTO lineDto = new SettlementLineDTO();
+                    lineDto.setDestinationBank(line.getDestinationBank());
+                    lineDto.setTransferCount(line.getTransferCount());
+                    lineDto.setTotalAmount(line.getTotalAmount());
+                    return lineDto;
+                })
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
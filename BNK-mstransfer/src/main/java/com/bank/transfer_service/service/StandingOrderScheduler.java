@@ -0,0 +1,254 @@
+package com.bank.transfer_service.service;
+import com.bank.transfer_service.entity.StandingOrder;
+import com.bank.transfer_service.entity.Transfer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Ejecuta las órdenes recurrentes vencidas. En memoria mantiene una cola de prioridad con las que vencen
+// dentro de la ventana actual (se recarga por el índice (status, next_run_at), nunca recorre la tabla);
+// en cada tick saca las vencidas y las ejecuta en lotes, con paralelismo acotado.
+// Varias instancias pueden cargar las mismas órdenes: cada lote se reclama con FOR UPDATE SKIP LOCKED y
+// la condición next_run_at <= ahora, y la próxima fecha se avanza en la misma transacción que crea las
+// transferencias, así una orden se ejecuta una sola vez por período. Si un lote falla, se repite orden por
+// orden y la que vuelve a fallar queda suspendida con su error, sin frenar al resto
+@Component
+public class StandingOrderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(StandingOrderScheduler.class);
+
+    private static final String WINDOW_SQL = "SELECT id, next_run_at FROM standing_orders " +
+            "WHERE status = 'activo' AND next_run_at < ? ORDER BY next_run_at LIMIT ?";
+
+    private static final String CLAIM_SQL = "SELECT id, origin_account_id, destination_account_number, " +
+            "destination_bank, amount, frequency, day_of_month, next_run_at, end_date FROM standing_orders " +
+            "WHERE id = ANY(?) AND status = 'activo' AND next_run_at <= ? FOR UPDATE SKIP LOCKED";
+
+    private static final String ADVANCE_SQL = "UPDATE standing_orders SET next_run_at = ?, status = ?, " +
+            "executions = executions + 1, last_run_at = ?, last_transfer_id = ? WHERE id = ?";
+
+    // Solo si sigue activa: una cancelación concurrente gana
+    private static final String SUSPEND_SQL = "UPDATE standing_orders SET status = 'suspendido', last_error = ? " +
+            "WHERE id = ? AND status = 'activo'";
+
+    private record Due(long id, LocalDateTime at) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransferBatchWriter transferBatchWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${standing-orders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${standing-orders.window:1m}")
+    private Duration window;
+
+    @Value("${standing-orders.window-capacity:100000}")
+    private int windowCapacity;
+
+    @Value("${standing-orders.batch-size:500}")
+    private int batchSize;
+
+    @Value("${standing-orders.parallelism:4}")
+    private int parallelism;
+
+    private final PriorityQueue<Due> queue = new PriorityQueue<>(Comparator.comparing(Due::at));
+    private LocalDateTime windowEnd = LocalDateTime.MIN;
+    private boolean windowTruncated;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void startExecutor() {
+        executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    // Una orden nueva que vence dentro de la ventana ya cargada entra directo a la cola
+    public synchronized void schedule(Long id, LocalDateTime at) {
+        if (at.isBefore(windowEnd)) {
+            queue.add(new Due(id, at));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${standing-orders.tick:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> due = pollDue(now);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<Future<?>> batches = new ArrayList<>();
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<Long> batch = due.subList(i, Math.min(i + batchSize, due.size()));
+            batches.add(executor.submit(() -> runBatchOrIsolate(batch, now)));
+        }
+        for (Future<?> batch : batches) {
+            try {
+                batch.get();
+            } catch (ExecutionException e) {
+                // No se pudo ni suspender (p. ej. la base no responde): siguen vencidas y se reintentan con la próxima ventana
+                log.error("Error ejecutando órdenes programadas", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private synchronized List<Long> pollDue(LocalDateTime now) {
+        // Ventana vencida, o agotada cuando venía truncada por capacidad: se recarga desde el índice
+        if (!now.isBefore(windowEnd) || (queue.isEmpty() && windowTruncated)) {
+            loadWindow(now);
+        }
+        List<Long> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().at().isAfter(now)) {
+            due.add(queue.poll().id());
+        }
+        return due;
+    }
+
+    private void loadWindow(LocalDateTime now) {
+        LocalDateTime end = now.plus(window);
+        List<Due> rows = jdbcTemplate.query(WINDOW_SQL,
+                (rs, i) -> new Due(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()),
+                Timestamp.valueOf(end), windowCapacity);
+        queue.clear();
+        queue.addAll(rows);
+        windowTruncated = rows.size() == windowCapacity;
+        // Si se truncó, lo que vence después de la última fila cargada no está en la cola
+        windowEnd = windowTruncated ? rows.get(rows.size() - 1).at() : end;
+    }
+
+    // Un lote que falla se revierte entero; repetido de a una orden, solo la culpable queda afuera
+    private void runBatchOrIsolate(List<Long> ids, LocalDateTime now) {
+        try {
+            runBatch(ids, now);
+            return;
+        } catch (RuntimeException e) {
+            if (ids.size() == 1) {
+                suspend(ids.get(0), e);
+                return;
+            }
+            log.warn("Lote de {} órdenes programadas falló; se ejecutan de a una", ids.size(), e);
+        }
+        for (Long id : ids) {
+            try {
+                runBatch(List.of(id), now);
+            } catch (RuntimeException e) {
+                suspend(id, e);
+            }
+        }
+    }
+
+    private void suspend(Long id, RuntimeException e) {
+        log.error("Orden programada {} suspendida", id, e);
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        jdbcTemplate.update(SUSPEND_SQL, error.length() > 255 ? error.substring(0, 255) : error, id);
+    }
+
+    private void runBatch(List<Long> ids, LocalDateTime now) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<StandingOrder> orders = jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(CLAIM_SQL);
+                statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+                statement.setTimestamp(2, Timestamp.valueOf(now));
+                return statement;
+            }, (rs, i) -> {
+                StandingOrder order = new StandingOrder();
+                order.setId(rs.getLong("id"));
+                order.setOriginAccountId(rs.getLong("origin_account_id"));
+                order.setDestinationAccountNumber(rs.getString("destination_account_number"));
+                order.setDestinationBank(rs.getString("destination_bank"));
+                order.setAmount(rs.getBigDecimal("amount"));
+                order.setFrequency(rs.getString("frequency"));
+                order.setDayOfMonth((Integer) rs.getObject("day_of_month"));
+                order.setNextRunAt(rs.getTimestamp("next_run_at").toLocalDateTime());
+                order.setEndDate(rs.getObject("end_date", LocalDate.class));
+                return order;
+            });
+            if (orders.isEmpty()) {
+                return;
+            }
+
+            // Órdenes ya autorizadas por el cliente: no pasan por los límites de velocidad
+            List<Transfer> transfers = new ArrayList<>(orders.size());
+            for (StandingOrder order : orders) {
+                Transfer transfer = new Transfer();
+                transfer.setOriginAccountId(order.getOriginAccountId());
+                transfer.setDestinationAccountNumber(order.getDestinationAccountNumber());
+                transfer.setDestinationBank(order.getDestinationBank());
+                transfer.setAmount(order.getAmount());
+                transfer.setStatus(Transfer.OWN_BANK.equalsIgnoreCase(order.getDestinationBank())
+                        ? Transfer.PENDING : Transfer.COMPLETED);
+                transfer.setTransferDate(now);
+                transfers.add(transfer);
+            }
+            List<Long> transferIds = transferBatchWriter.insert(transfers);
+
+            List<Object[]> advances = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                StandingOrder order = orders.get(i);
+                LocalDateTime next = nextRun(order.getFrequency(), order.getDayOfMonth(), order.getNextRunAt(), now);
+                String nextStatus = order.getEndDate() != null && next.toLocalDate().isAfter(order.getEndDate())
+                        ? StandingOrder.FINISHED : StandingOrder.ACTIVE;
+                advances.add(new Object[]{Timestamp.valueOf(next), nextStatus, Timestamp.valueOf(now),
+                        transferIds.get(i), order.getId()});
+            }
+            jdbcTemplate.batchUpdate(ADVANCE_SQL, advances);
+        });
+    }
+
+    // Próxima fecha estrictamente posterior a now: si el servicio estuvo detenido, los períodos
+    // perdidos no se ejecutan en ráfaga, se ejecuta una vez y se sigue con el calendario
+    static LocalDateTime nextRun(String frequency, Integer dayOfMonth, LocalDateTime from, LocalDateTime now) {
+        LocalDateTime next = from;
+        do {
+            if (StandingOrder.WEEKLY.equals(frequency)) {
+                next = next.plusWeeks(1);
+            } else {
+                next = next.plusMonths(1);
+                if (dayOfMonth != null) {
+                    next = next.withDayOfMonth(Math.min(dayOfMonth, next.toLocalDate().lengthOfMonth()));
+                }
+            }
+        } while (!next.isAfter(now));
+        return next;
+    }
+}
@@ -0,0 +1,89 @@
+package com.bank.transfer_service.service;
+import com.bank.transfer_service.dto.StandingOrderDTO;
+import com.bank.transfer_service.entity.StandingOrder;
+import com.bank.transfer_service.repository.StandingOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class StandingOrderService {
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private StandingOrderScheduler standingOrderScheduler;
+
+    // Lanza IllegalArgumentException si la orden no es válida
+    public StandingOrderDTO createStandingOrder(StandingOrderDTO dto) {
+        if (dto.getOriginAccountId() == null || dto.getDestinationAccountNumber() == null
+                || dto.getDestinationBank() == null) {
+            throw new IllegalArgumentException("Faltan datos de origen o destino.");
+        }
+        if (dto.getAmount() == null || dto.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Monto inválido.");
+        }
+        if (!StandingOrder.WEEKLY.equals(dto.getFrequency()) && !StandingOrder.MONTHLY.equals(dto.getFrequency())) {
+            throw new IllegalArgumentException("Frecuencia inválida: use semanal o mensual.");
+        }
+        LocalDateTime startAt = dto.getStartAt() != null ? dto.getStartAt() : LocalDateTime.now();
+        if (dto.getEndDate() != null && dto.getEndDate().isBefore(startAt.toLocalDate())) {
+            throw new IllegalArgumentException("La fecha de fin es anterior al inicio.");
+        }
+
+        StandingOrder order = new StandingOrder();
+        order.setOriginAccountId(dto.getOriginAccountId());
+        order.setDestinationAccountNumber(dto.getDestinationAccountNumber());
+        order.setDestinationBank(dto.getDestinationBank());
+        order.setAmount(dto.getAmount());
+        order.setFrequency(dto.getFrequency());
+        order.setDayOfMonth(StandingOrder.MONTHLY.equals(dto.getFrequency()) ? startAt.getDayOfMonth() : null);
+        order.setNextRunAt(startAt);
+        order.setEndDate(dto.getEndDate());
+        order.setStatus(StandingOrder.ACTIVE);
+        order = standingOrderRepository.save(order);
+
+        standingOrderScheduler.schedule(order.getId(), order.getNextRunAt());
+        return mapToDTO(order);
+    }
+
+    public StandingOrderDTO getStandingOrderById(Long id) {
+        return standingOrderRepository.findById(id).map(this::mapToDTO).orElse(null);
+    }
+
+    public List<StandingOrderDTO> getStandingOrdersByAccount(Long accountId) {
+        return standingOrderRepository.findByOriginAccountIdOrderByIdAsc(accountId)
+                .stream().map(this::mapToDTO).collect(Collectors.toList());
+    }
+
+    // La orden queda registrada como cancelada; el scheduler solo toma las activas. Una suspendida también se cancela
+    public StandingOrderDTO cancelStandingOrder(Long id) {
+        if (standingOrderRepository.updateStatus(id, StandingOrder.ACTIVE, StandingOrder.CANCELLED) == 0) {
+            standingOrderRepository.updateStatus(id, StandingOrder.SUSPENDED, StandingOrder.CANCELLED);
+        }
+        return getStandingOrderById(id);
+    }
+
+    private StandingOrderDTO mapToDTO(StandingOrder order) {
+        StandingOrderDTO dto = new StandingOrderDTO();
+        dto.setId(order.getId());
+        dto.setOriginAccountId(order.getOriginAccountId());
+        dto.setDestinationAccountNumber(order.getDestinationAccountNumber());
+        dto.setDestinationBank(order.getDestinationBank());
+        dto.setAmount(order.getAmount());
+        dto.setFrequency(order.getFrequency());
+        dto.setNextRunAt(order.getNextRunAt());
+        dto.setEndDate(order.getEndDate());
+        dto.setStatus(order.getStatus());
+        dto.setFailureReason(order.getLastError());
+        dto.setExecutions(order.getExecutions());
+        dto.setLastRunAt(order.getLastRunAt());
+        dto.setLastTransferId(order.getLastTransferId());
+        dto.setCreatedAt(order.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,88 @@
+package com.bank.transfer_service.service;
+import com.bank.transfer_service.dto.AccountEventDTO;
+import com.bank.transfer_service.entity.OutboxEvent;
+import com.bank.transfer_service.entity.Transfer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+// Insert en lote de transferencias y de sus eventos de outbox (las propias), dentro de la transacción
+// del llamador. Lo usan la carga masiva y las órdenes programadas
+@Component
+public class TransferBatchWriter {
+
+    private static final String INSERT_TRANSFER_SQL = "INSERT INTO transfers (origin_account_id, " +
+            "destination_account_number, destination_bank, amount, status, transfer_date) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO transfer_outbox (aggregate_id, account_id, " +
+            "event_type, payload, status, attempts, created_at) VALUES (?, ?, ?, ?, ?, 0, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    // Devuelve los ids generados, en el mismo orden que la lista. Cada transferencia debe traer su
+    // transferDate: el evento se crea con esa fecha para que el dispatcher ubique la partición
+    public List<Long> insert(List<Transfer> transfers) {
+        if (transfers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = insertTransfers(transfers);
+
+        // Las propias mueven dinero vía outbox, igual que POST /api/transfers
+        List<Object[]> outbox = new ArrayList<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            Transfer transfer = transfers.get(i);
+            transfer.setId(ids.get(i));
+            if (!Transfer.OWN_BANK.equalsIgnoreCase(transfer.getDestinationBank())) {
+                continue;
+            }
+            AccountEventDTO event = new AccountEventDTO();
+            event.setAccountId(transfer.getOriginAccountId());
+            event.setDestinationAccountNumber(transfer.getDestinationAccountNumber());
+            event.setAmount(transfer.getAmount());
+            event.setReference("TRF-" + transfer.getId());
+            OutboxEvent row = outboxService.build(OutboxService.TRANSFER_CREATED, transfer.getId(), event);
+            outbox.add(new Object[]{row.getAggregateId(), row.getAccountId(), row.getEventType(),
+                    row.getPayload(), row.getStatus(), Timestamp.valueOf(transfer.getTransferDate())});
+        }
+        if (!outbox.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, outbox);
+        }
+        return ids;
+    }
+
+    // El driver agrega RETURNING a cada fila del lote
+    private List<Long> insertTransfers(List<Transfer> transfers) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> ids = new ArrayList<>(transfers.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TRANSFER_SQL, new String[]{"id"})) {
+                for (Transfer transfer : transfers) {
+                    statement.setLong(1, transfer.getOriginAccountId());
+                    statement.setString(2, transfer.getDestinationAccountNumber());
+                    statement.setString(3, transfer.getDestinationBank());
+                    statement.setBigDecimal(4, transfer.getAmount());
+                    statement.setString(5, transfer.getStatus());
+                    statement.setTimestamp(6, Timestamp.valueOf(transfer.getTransferDate()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+            }
+            return ids;
+        });
+    }
+}
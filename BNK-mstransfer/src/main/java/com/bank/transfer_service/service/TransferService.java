@@ -1,33 +1,113 @@
 package com.bank.transfer_service.service;
+import com.bank.transfer_service.client.ClientAccountsCache;
+import com.bank.transfer_service.dto.AccountEventDTO;
 import com.bank.transfer_service.dto.TransferDTO;
 import com.bank.transfer_service.entity.Transfer;
 import com.bank.transfer_service.repository.TransferRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TransferService {
 
+    // Margen sobre "ahora" del límite superior por defecto: las transferencias se fechan al crearse,
+    // el margen cubre el desfase de reloj entre instancias
+    private static final Duration CLOCK_MARGIN = Duration.ofDays(1);
+
+    // Sin from el historial cubre solo esta ventana: con 1970 se recorrerían todas las particiones
+    @Value("${history.default-window:365d}")
+    private Duration defaultWindow;
+
     @Autowired
     private TransferRepository transferRepository;
 
+    @Autowired
+    private ClientAccountsCache clientAccountsCache;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private VelocityEngine velocityEngine;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<TransferDTO> getAllTransfers() {
         return transferRepository.findAll().stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 
+    public List<TransferDTO> getTransfersPage(Long after, int limit) {
+        return transferRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit))
+                .stream().map(this::mapToDTO).collect(Collectors.toList());
+    }
+
+    // Escribe el arreglo JSON a medida que se leen las filas; memoria constante sin importar el tamaño
+    @Transactional(readOnly = true)
+    public void writeAllTransfers(OutputStream out) throws IOException {
+        try (Stream<Transfer> rows = transferRepository.streamAllByOrderByIdAsc();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            Iterator<Transfer> it = rows.iterator();
+            while (it.hasNext()) {
+                Transfer row = it.next();
+                json.writeObject(mapToDTO(row));
+                entityManager.detach(row);
+            }
+            json.writeEndArray();
+        }
+    }
+
     public TransferDTO getTransferById(Long id) {
         return transferRepository.findById(id).map(this::mapToDTO).orElse(null);
     }
 
+    // El movimiento en account-service lo hace OutboxDispatcher: el POST no espera a otros servicios
+    // Lanza IllegalArgumentException si la cuenta origen supera sus límites de velocidad
+    @Transactional
     public TransferDTO createTransfer(TransferDTO dto) {
+        String rejection = velocityEngine.checkAndRecord(dto.getOriginAccountId(),
+                dto.getDestinationAccountNumber(), dto.getAmount());
+        if (rejection != null) {
+            throw new IllegalArgumentException(rejection);
+        }
+
         Transfer transfer = mapToEntity(dto);
-        return mapToDTO(transferRepository.save(transfer));
+        if (!Transfer.OWN_BANK.equalsIgnoreCase(transfer.getDestinationBank())) {
+            return mapToDTO(transferRepository.save(transfer));
+        }
+
+        transfer.setStatus(Transfer.PENDING);
+        transfer = transferRepository.save(transfer);
+
+        AccountEventDTO event = new AccountEventDTO();
+        event.setAccountId(transfer.getOriginAccountId());
+        event.setDestinationAccountNumber(transfer.getDestinationAccountNumber());
+        event.setAmount(transfer.getAmount());
+        event.setReference("TRF-" + transfer.getId());
+        outboxService.enqueue(OutboxService.TRANSFER_CREATED, transfer.getId(), event);
+        return mapToDTO(transfer);
     }
 
     public void deleteTransfer(Long id) {
@@ -42,6 +122,9 @@ public class TransferService {
         dto.setDestinationBank(transfer.getDestinationBank());
         dto.setAmount(transfer.getAmount());
         dto.setStatus(transfer.getStatus());
+        dto.setFailureReason(transfer.getFailureReason());
+        dto.setTransferDate(transfer.getTransferDate());
+        dto.setSettlementId(transfer.getSettlementId());
         return dto;
     }
 
@@ -51,34 +134,21 @@ public class TransferService {
         transfer.setDestinationAccountNumber(dto.getDestinationAccountNumber());
         transfer.setDestinationBank(dto.getDestinationBank());
         transfer.setAmount(dto.getAmount());
-        transfer.setStatus(dto.getStatus() != null ? dto.getStatus() : "completado");
+        transfer.setStatus(dto.getStatus() != null ? dto.getStatus() : Transfer.COMPLETED);
         return transfer;
     }
 
-    public List<TransferDTO> getTransfersByClientId(Long clientId) {
-        RestTemplate restTemplate = new RestTemplate();
-        String url = "http://localhost:8082/api/accounts/client/" + clientId;
-
-        List<Map<String, Object>> accountList;
-        try {
-            accountList = restTemplate.getForObject(url, List.class);
-        } catch (Exception e) {
-            System.out.println("Error al obtener cuentas del cliente: " + e.getMessage());
-            return Collections.emptyList();
-        }
-
-        if (accountList == null || accountList.isEmpty()) {
-            System.out.println("No se encontraron cuentas para el cliente con ID " + clientId);
+    public List<TransferDTO> getTransfersByClientId(Long clientId, LocalDateTime from, LocalDateTime to, int page, int size) {
+        List<Long> accountIds = clientAccountsCache.getAccountIds(clientId);
+        if (accountIds.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<Long> accountIds = accountList.stream()
-                .map(acc -> ((Number) acc.get("id")).longValue())
-                .collect(Collectors.toList());
-
-        return transferRepository.findAll().stream()
-                .filter(transfer -> accountIds.contains(transfer.getOriginAccountId()))
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        return transferRepository.findByOriginAccounts(accountIds,
+                        from != null ? from : now.minus(defaultWindow),
+                        to != null ? to : now.plus(CLOCK_MARGIN),
+                        PageRequest.of(page, size))
+                .stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 }
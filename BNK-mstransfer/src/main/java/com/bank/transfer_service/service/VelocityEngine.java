@@ -0,0 +1,327 @@
+package com.bank.transfer_service.service;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Límites de velocidad por cuenta origen (cantidad y monto por minuto, hora y día) y control de destino
+// nuevo, en memoria: ventanas deslizantes por cubetas, con bloqueo por franjas de cuentas.
+// El estado se reconstruye al arrancar con las transferencias no fallidas de las últimas 24 h.
+// Cada instancia cuenta solo el tráfico que atiende
+@Component
+public class VelocityEngine implements SmartInitializingSingleton {
+
+    private static final int STRIPES = 256;
+    private static final int MAX_KNOWN_DESTINATIONS = 256;
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private static final String REBUILD_SQL = "SELECT origin_account_id, destination_account_number, amount, transfer_date " +
+            "FROM transfers WHERE transfer_date >= ? AND origin_account_id IS NOT NULL " +
+            "AND (status IS NULL OR status <> 'fallido') ORDER BY transfer_date";
+
+    // Acotada por fecha: recorre el tramo de idx_transfers_origin_date y solo las particiones del período
+    private static final String KNOWN_DESTINATION_SQL = "SELECT EXISTS (SELECT 1 FROM transfers " +
+            "WHERE origin_account_id = ? AND transfer_date >= ? AND destination_account_number = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${velocity.enabled:true}")
+    private boolean enabled;
+
+    // 0 = sin límite
+    @Value("${velocity.max-count-per-minute:0}")
+    private long maxCountPerMinute;
+
+    @Value("${velocity.max-count-per-hour:0}")
+    private long maxCountPerHour;
+
+    @Value("${velocity.max-count-per-day:0}")
+    private long maxCountPerDay;
+
+    @Value("${velocity.max-amount-per-minute:0}")
+    private BigDecimal maxAmountPerMinute;
+
+    @Value("${velocity.max-amount-per-hour:0}")
+    private BigDecimal maxAmountPerHour;
+
+    @Value("${velocity.max-amount-per-day:0}")
+    private BigDecimal maxAmountPerDay;
+
+    // Monto máximo hacia un destino al que la cuenta nunca transfirió
+    @Value("${velocity.max-first-time-destination-amount:0}")
+    private BigDecimal maxFirstTimeDestinationAmount;
+
+    // Un destino sin transferencias en este período vuelve a contar como nuevo
+    @Value("${velocity.known-destination-lookback:365d}")
+    private Duration knownDestinationLookback;
+
+    private final ConcurrentHashMap<Long, AccountWindow> windows = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public VelocityEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Antes de que el servidor acepte peticiones, para no empezar con contadores vacíos
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Devuelve el motivo del rechazo, o null si la transferencia pasa (y entonces ya quedó contada).
+    // Dentro de una transacción el registro es una reserva: contar recién en afterCommit dejaría pasar
+    // a varias peticiones concurrentes por el mismo cupo, así que se cuenta ya y se descuenta si no confirma
+    public String checkAndRecord(Long originAccountId, String destinationAccountNumber, BigDecimal amount) {
+        if (!enabled || originAccountId == null || amount == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        long cents = toCents(amount);
+
+        // La consulta a la base, solo si el destino no está en memoria y fuera del candado
+        boolean firstTime = false;
+        if (maxFirstTimeDestinationAmount.signum() > 0 && amount.compareTo(maxFirstTimeDestinationAmount) > 0
+                && destinationAccountNumber != null && !isKnownInMemory(originAccountId, destinationAccountNumber)) {
+            firstTime = !Boolean.TRUE.equals(jdbcTemplate.queryForObject(KNOWN_DESTINATION_SQL, Boolean.class,
+                    originAccountId, Timestamp.valueOf(LocalDateTime.now().minus(knownDestinationLookback)),
+                    destinationAccountNumber));
+        }
+
+        ReentrantLock lock = lockFor(originAccountId);
+        lock.lock();
+        try {
+            AccountWindow window = windows.computeIfAbsent(originAccountId, id -> new AccountWindow());
+            if (firstTime && !window.destinations.containsKey(destinationAccountNumber)) {
+                return "Monto no permitido hacia un destino nuevo.";
+            }
+            String rejection = window.check(now, cents);
+            if (rejection != null) {
+                return rejection;
+            }
+            boolean newDestination = window.record(now, cents, destinationAccountNumber);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            undo(originAccountId, now, cents, newDestination ? destinationAccountNumber : null);
+                        }
+                    }
+                });
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Descuenta una reserva cuya transacción no confirmó
+    private void undo(Long originAccountId, long time, long cents, String newDestination) {
+        ReentrantLock lock = lockFor(originAccountId);
+        lock.lock();
+        try {
+            AccountWindow window = windows.get(originAccountId);
+            if (window != null) {
+                window.remove(time, cents, newDestination);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isKnownInMemory(Long originAccountId, String destinationAccountNumber) {
+        ReentrantLock lock = lockFor(originAccountId);
+        lock.lock();
+        try {
+            AccountWindow window = windows.get(originAccountId);
+            return window != null && window.destinations.containsKey(destinationAccountNumber);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Cuentas sin movimientos en 24 h ya no aportan nada a ninguna ventana
+    @Scheduled(fixedDelayString = "${velocity.evict-interval:60000}")
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - DAY_MILLIS;
+        windows.forEach((accountId, window) -> {
+            ReentrantLock lock = lockFor(accountId);
+            lock.lock();
+            try {
+                if (window.lastSeen < threshold) {
+                    windows.remove(accountId, window);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    void rebuild() {
+        windows.clear();
+        LocalDateTime since = LocalDateTime.now().minusDays(1);
+        ZoneId zone = ZoneId.systemDefault();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REBUILD_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(1_000);
+            statement.setTimestamp(1, Timestamp.valueOf(since));
+            return statement;
+        }, (ResultSet rs) -> {
+            BigDecimal amount = rs.getBigDecimal(3);
+            Timestamp date = rs.getTimestamp(4);
+            if (amount == null || date == null) {
+                return;
+            }
+            windows.computeIfAbsent(rs.getLong(1), id -> new AccountWindow())
+                    .record(date.toLocalDateTime().atZone(zone).toInstant().toEpochMilli(), toCents(amount), rs.getString(2));
+        }));
+    }
+
+    private ReentrantLock lockFor(Long accountId) {
+        return locks[(Long.hashCode(accountId) & 0x7fffffff) % STRIPES];
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    // Ventanas de una cuenta; solo se accede con el candado de su franja tomado
+    private final class AccountWindow {
+        private final Buckets minute = new Buckets(60, 1_000L);         // 60 cubetas de 1 s
+        private final Buckets hour = new Buckets(60, 60_000L);          // 60 cubetas de 1 min
+        private final Buckets day = new Buckets(96, 15 * 60_000L);      // 96 cubetas de 15 min
+        private final Map<String, Boolean> destinations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_KNOWN_DESTINATIONS;
+            }
+        };
+        private long lastSeen;
+
+        String check(long now, long cents) {
+            if (exceeds(minute, now, cents, maxCountPerMinute, maxAmountPerMinute)) {
+                return "Límite de transferencias por minuto excedido.";
+            }
+            if (exceeds(hour, now, cents, maxCountPerHour, maxAmountPerHour)) {
+                return "Límite de transferencias por hora excedido.";
+            }
+            if (exceeds(day, now, cents, maxCountPerDay, maxAmountPerDay)) {
+                return "Límite de transferencias por día excedido.";
+            }
+            return null;
+        }
+
+        // Devuelve true si el destino no estaba entre los conocidos
+        boolean record(long time, long cents, String destination) {
+            minute.add(time, cents);
+            hour.add(time, cents);
+            day.add(time, cents);
+            lastSeen = Math.max(lastSeen, time);
+            return destination != null && destinations.put(destination, Boolean.TRUE) == null;
+        }
+
+        void remove(long time, long cents, String newDestination) {
+            minute.add(time, -cents, -1);
+            hour.add(time, -cents, -1);
+            day.add(time, -cents, -1);
+            if (newDestination != null) {
+                destinations.remove(newDestination);
+            }
+        }
+
+        private boolean exceeds(Buckets buckets, long now, long cents, long maxCount, BigDecimal maxAmount) {
+            if (maxCount > 0 && buckets.count(now) + 1 > maxCount) {
+                return true;
+            }
+            return maxAmount.signum() > 0 && buckets.amount(now) + cents > toCents(maxAmount);
+        }
+    }
+
+    // Ventana deslizante de n cubetas; cada cubeta recuerda a qué intervalo pertenece y se reinicia al reutilizarse
+    private static final class Buckets {
+        private final long width;
+        private final long[] slots;
+        private final long[] counts;
+        private final long[] amounts;
+
+        Buckets(int size, long width) {
+            this.width = width;
+            this.slots = new long[size];
+            this.counts = new long[size];
+            this.amounts = new long[size];
+            Arrays.fill(slots, -1L);
+        }
+
+        void add(long time, long cents) {
+            add(time, cents, 1);
+        }
+
+        // count -1 descuenta; si la cubeta ya se reutilizó, lo descontado ya salió de la ventana
+        void add(long time, long cents, int count) {
+            long slot = time / width;
+            int i = (int) (slot % slots.length);
+            if (slots[i] != slot) {
+                if (slots[i] > slot || count < 0) {
+                    return; // más viejo que la ventana
+                }
+                slots[i] = slot;
+                counts[i] = 0;
+                amounts[i] = 0;
+            }
+            counts[i] += count;
+            amounts[i] += cents;
+        }
+
+        long count(long now) {
+            long oldest = now / width - slots.length;
+            long total = 0;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] > oldest) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        long amount(long now) {
+            long oldest = now / width - slots.length;
+            long total = 0;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] > oldest) {
+                    total += amounts[i];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.client.AccountClient;
+import com.bank.transfer_service.client.DownstreamMetrics;
+import com.bank.transfer_service.config.HttpClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountClientTests {
+
+	private HttpServer server;
+	private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+	private RestTemplate restTemplate;
+	private DownstreamMetrics metrics;
+
+	@BeforeEach
+	void startStub() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/api/accounts/client/1", exchange -> {
+			clientPorts.add(exchange.getRemoteAddress().getPort());
+			byte[] body = "[{\"id\":5},{\"id\":7}]".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(2000);
+				exchange.sendResponseHeaders(200, -1);
+			} catch (Exception ignored) {
+			} finally {
+				exchange.close();
+			}
+		});
+		server.start();
+
+		metrics = new DownstreamMetrics();
+		restTemplate = HttpClientConfig.pooledRestTemplate("account-service",
+				"http://localhost:" + server.getAddress().getPort(),
+				Duration.ofSeconds(1), Duration.ofMillis(300), 4, metrics);
+	}
+
+	@AfterEach
+	void stopStub() {
+		server.stop(0);
+	}
+
+	// Verifica que llamadas sucesivas reutilicen la misma conexión del pool (keep-alive)
+	@Test
+	void sequentialCallsReuseOneConnection() {
+		for (int i = 0; i < 20; i++) {
+			assertNotNull(restTemplate.getForObject("/api/accounts/client/{id}", Object.class, 1));
+		}
+
+		assertEquals(1, clientPorts.size());
+		Map<String, Object> stats = metrics.snapshot().get("account-service");
+		assertEquals(20L, stats.get("calls"));
+		assertEquals(0L, stats.get("errors"));
+		assertEquals(0, stats.get("poolLeased"));
+	}
+
+	// Verifica que un servicio lento corte por read-timeout en lugar de retener el hilo
+	@Test
+	void slowDownstreamTimesOut() {
+		long start = System.nanoTime();
+
+		assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject("/slow", String.class));
+
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+		assertEquals(1L, metrics.snapshot().get("account-service").get("errors"));
+	}
+
+	// Verifica que el listado de cuentas del cliente se lea como lista tipada de ids
+	@Test
+	void accountIdsAreReadFromTypedList() {
+		AccountClient client = new AccountClient();
+		ReflectionTestUtils.setField(client, "restTemplate", restTemplate);
+
+		assertEquals(List.of(5L, 7L), client.getAccountIdsByClientId(1L));
+	}
+
+	// Verifica que un error de account-service (aquí 404) dé lista vacía en vez de propagarse
+	@Test
+	void failedLookupReturnsEmptyList() {
+		AccountClient client = new AccountClient();
+		ReflectionTestUtils.setField(client, "restTemplate", restTemplate);
+
+		assertEquals(List.of(), client.getAccountIdsByClientId(2L));
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.entity.Transfer;
+import com.bank.transfer_service.service.BulkTransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkTransferParseTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 9, 0);
+
+	private String parse(String line, List<Transfer> valid) {
+		return ReflectionTestUtils.invokeMethod(BulkTransferService.class, "parse", line, NOW, valid);
+	}
+
+	// Una línea válida se agrega con el estado según el banco destino
+	@Test
+	void validLinesAreAccepted() {
+		List<Transfer> valid = new ArrayList<>();
+		assertNull(parse("1,ACC-2,propio,150.50", valid));
+		assertNull(parse(" 3 , 998877 , BCP , 20 ", valid));
+
+		assertEquals(2, valid.size());
+		assertEquals(Transfer.PENDING, valid.get(0).getStatus());
+		assertEquals(0, new BigDecimal("150.50").compareTo(valid.get(0).getAmount()));
+		assertEquals(Transfer.COMPLETED, valid.get(1).getStatus());
+		assertEquals("998877", valid.get(1).getDestinationAccountNumber());
+	}
+
+	// Cada línea inválida devuelve su motivo y no se agrega
+	@Test
+	void invalidLinesReturnTheirReason() {
+		List<Transfer> valid = new ArrayList<>();
+		assertEquals("Se esperaban 4 campos.", parse("1,ACC-2,propio", valid));
+		assertEquals("Cuenta origen inválida.", parse("x,ACC-2,propio,10", valid));
+		assertEquals("Cuenta destino vacía.", parse("1, ,propio,10", valid));
+		assertEquals("Monto inválido.", parse("1,ACC-2,propio,-5", valid));
+		assertEquals("Monto inválido.", parse("1,ACC-2,propio,1.234", valid));
+		assertEquals(0, valid.size());
+	}
+}
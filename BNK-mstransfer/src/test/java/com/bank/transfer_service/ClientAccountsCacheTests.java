@@ -0,0 +1,96 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.client.AccountClient;
+import com.bank.transfer_service.client.ClientAccountsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ClientAccountsCacheTests {
+
+	private AccountClient accountClient;
+	private ClientAccountsCache cache;
+
+	@BeforeEach
+	void setUp() {
+		accountClient = mock(AccountClient.class);
+		cache = new ClientAccountsCache(100, Duration.ofMinutes(10));
+		ReflectionTestUtils.setField(cache, "accountClient", accountClient);
+		ReflectionTestUtils.setField(cache, "lastChangeId", 1000L);
+		when(accountClient.getAccountIdsByClientId(3L)).thenReturn(List.of(7L), List.of(7L, 8L), List.of(7L, 8L, 9L));
+	}
+
+	// 1. Cambio nuevo
+	// Invalida al cliente y avanza el cursor.
+	@Test
+	void newChangeInvalidatesClient() {
+		assertEquals(List.of(7L), cache.getAccountIds(3L));
+
+		applyChanges(List.of(change(1001L, 3L)));
+
+		assertEquals(List.of(7L, 8L), cache.getAccountIds(3L));
+		assertEquals(1001L, ReflectionTestUtils.getField(cache, "lastChangeId"));
+	}
+
+	// 2. Solapamiento
+	// Un cambio ya visto que vuelve en la ventana de solapamiento no invalida de nuevo.
+	@Test
+	void overlappingChangeIsAppliedOnce() {
+		applyChanges(List.of(change(1001L, 3L)));
+		assertEquals(List.of(7L), cache.getAccountIds(3L));
+
+		applyChanges(List.of(change(1001L, 3L), change(1002L, 4L)));
+
+		assertEquals(List.of(7L), cache.getAccountIds(3L));
+		verify(accountClient, times(1)).getAccountIdsByClientId(3L);
+	}
+
+	// 3. Paginado
+	// Sigue leyendo mientras la página venga llena, desde el cursor menos el solapamiento.
+	@Test
+	void pollReadsUntilShortPage() {
+		List<Map<String, Object>> fullPage = new ArrayList<>();
+		for (long id = 1001; id <= 1500; id++) {
+			fullPage.add(change(id, 5L));
+		}
+		when(accountClient.getAccountChanges(anyLong(), anyInt())).thenReturn(fullPage, List.of(change(1501L, 3L)));
+
+		cache.pollChanges();
+
+		verify(accountClient).getAccountChanges(900L, 500);
+		verify(accountClient).getAccountChanges(1400L, 500);
+		assertEquals(1501L, ReflectionTestUtils.getField(cache, "lastChangeId"));
+	}
+
+	// 4. Feed caído
+	// El error no sale del sondeo y el cursor no se mueve.
+	@Test
+	void feedFailureKeepsCursor() {
+		when(accountClient.getAccountChanges(anyLong(), anyInt())).thenThrow(new ResourceAccessException("timeout"));
+
+		cache.pollChanges();
+		cache.pollChanges();
+
+		assertEquals(1000L, ReflectionTestUtils.getField(cache, "lastChangeId"));
+		assertEquals(2, (int) ReflectionTestUtils.getField(cache, "suppressedFailures"));
+	}
+
+	private void applyChanges(List<Map<String, Object>> changes) {
+		ReflectionTestUtils.invokeMethod(cache, "applyChanges", changes);
+	}
+
+	private Map<String, Object> change(long id, long clientId) {
+		return Map.of("id", id, "clientId", clientId);
+	}
+}
@@ -0,0 +1,65 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.service.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportWriterTests {
+
+	private static final String[] COLUMNS = {"id", "destination_bank", "amount"};
+
+	// 1. CSV con cabecera y valores con coma entre comillas
+	@Test
+	void writesCsvWithHeaderAndQuoting() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ExportWriter writer = new ExportWriter(ExportWriter.CSV, COLUMNS, out, false, new ObjectMapper())) {
+			writer.writeRow(row(1L, "Banco, S.A.", new BigDecimal("10.50")));
+			writer.writeRow(row(2L, "Otro", new BigDecimal("3")));
+		}
+		assertEquals("id,destination_bank,amount\n1,\"Banco, S.A.\",10.50\n2,Otro,3\n",
+				out.toString(StandardCharsets.UTF_8));
+	}
+
+	// 2. NDJSON comprimido: un objeto por línea, sin separadores extra
+	@Test
+	void writesGzippedNdjsonOneObjectPerLine() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ExportWriter writer = new ExportWriter(ExportWriter.NDJSON, COLUMNS, out, true, new ObjectMapper())) {
+			writer.writeRow(row(1L, "Banco", new BigDecimal("10.50")));
+			writer.writeRow(row(2L, null, new BigDecimal("3")));
+		}
+		String text = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+				StandardCharsets.UTF_8);
+		assertEquals("{\"id\":1,\"destination_bank\":\"Banco\",\"amount\":10.50}\n" +
+				"{\"id\":2,\"destination_bank\":null,\"amount\":3}\n", text);
+	}
+
+	// 3. CSV sin filas: igual lleva la cabecera
+	@Test
+	void emptyCsvStillHasHeader() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ExportWriter writer = new ExportWriter(ExportWriter.CSV, COLUMNS, out, false, new ObjectMapper())) {
+			// sin filas
+		}
+		assertEquals("id,destination_bank,amount\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	private ResultSet row(Long id, String bank, BigDecimal amount) throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getObject(1)).thenReturn(id);
+		when(rs.getObject(2)).thenReturn(bank);
+		when(rs.getObject(3)).thenReturn(amount);
+		return rs;
+	}
+}
@@ -0,0 +1,172 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.idempotency.IdempotencyFilter;
+import com.bank.transfer_service.idempotency.IdempotencyStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IdempotencyFilterTests {
+
+	private static final int REQUESTS = 50;
+
+	// Almacén en memoria en lugar de PostgreSQL, con la misma semántica de reclamo
+	static class InMemoryStore extends IdempotencyStore {
+		private final Map<String, StoredResponse> rows = new ConcurrentHashMap<>();
+		private final Map<String, Boolean> claims = new ConcurrentHashMap<>();
+
+		InMemoryStore() {
+			super(null, Duration.ofHours(1), Duration.ofSeconds(30), DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+		}
+
+		@Override
+		public StoredResponse find(String scopeKey) {
+			return rows.get(scopeKey);
+		}
+
+		@Override
+		public boolean claim(String scopeKey, String fingerprint) {
+			return claims.putIfAbsent(scopeKey, Boolean.TRUE) == null;
+		}
+
+		@Override
+		public void complete(String scopeKey, StoredResponse response) {
+			rows.put(scopeKey, response);
+		}
+
+		@Override
+		public void release(String scopeKey) {
+			claims.remove(scopeKey);
+		}
+	}
+
+	// Dispara solicitudes idénticas en paralelo con la misma clave y verifica
+	// que el controlador se ejecute una sola vez y todas reciban la misma respuesta.
+	@Test
+	void parallelDuplicatesProduceSingleSideEffect() throws Exception {
+		IdempotencyFilter filter = new IdempotencyFilter(new InMemoryStore(), Duration.ofSeconds(5));
+		AtomicInteger sideEffects = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<MockHttpServletResponse>> results = new ArrayList<>();
+		for (int i = 0; i < REQUESTS; i++) {
+			results.add(executor.submit(() -> {
+				MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transfers");
+				request.addHeader(IdempotencyFilter.HEADER, "pago-123");
+				request.setContentType("application/json");
+				request.setContent("{\"amount\":10}".getBytes(StandardCharsets.UTF_8));
+				MockHttpServletResponse response = new MockHttpServletResponse();
+				start.await();
+				filter.doFilter(request, response, (req, res) -> {
+					int id = sideEffects.incrementAndGet();
+					try {
+						Thread.sleep(100);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					res.setContentType("application/json");
+					res.getOutputStream().write(("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8));
+				});
+				return response;
+			}));
+		}
+		start.countDown();
+
+		for (Future<MockHttpServletResponse> result : results) {
+			MockHttpServletResponse response = result.get();
+			assertEquals(200, response.getStatus());
+			assertEquals("{\"id\":1}", response.getContentAsString());
+		}
+		executor.shutdown();
+
+		assertEquals(1, sideEffects.get());
+	}
+
+	// Verifica que reutilizar la clave con otro contenido se rechace sin ejecutar nada.
+	@Test
+	void sameKeyWithDifferentBodyIsRejected() throws Exception {
+		IdempotencyFilter filter = new IdempotencyFilter(new InMemoryStore(), Duration.ofSeconds(5));
+		AtomicInteger sideEffects = new AtomicInteger();
+
+		for (String body : new String[]{"{\"amount\":10}", "{\"amount\":99}"}) {
+			MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transfers");
+			request.addHeader(IdempotencyFilter.HEADER, "pago-456");
+			request.setContent(body.getBytes(StandardCharsets.UTF_8));
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(request, response, (req, res) -> sideEffects.incrementAndGet());
+			if (body.contains("99")) {
+				assertEquals(422, response.getStatus());
+			}
+		}
+
+		assertEquals(1, sideEffects.get());
+	}
+
+	// Una carga multipart llega intacta al controlador (no se consume su cuerpo) y su reintento
+	// con la misma clave se responde con lo guardado aunque cambie el boundary.
+	@Test
+	void multipartUploadReachesControllerAndReplays() throws Exception {
+		IdempotencyFilter filter = new IdempotencyFilter(new InMemoryStore(), Duration.ofSeconds(5));
+		AtomicInteger sideEffects = new AtomicInteger();
+
+		for (int attempt = 0; attempt < 2; attempt++) {
+			MockMultipartHttpServletRequest request = new MockMultipartHttpServletRequest();
+			request.setRequestURI("/api/transfers/bulk");
+			request.setContentType("multipart/form-data; boundary=b" + attempt);
+			request.addHeader(IdempotencyFilter.HEADER, "nomina-01");
+			request.addPart(new MockPart("file", "1,ACC-2,BNK,10.00\n".getBytes(StandardCharsets.UTF_8)));
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(request, response, (req, res) -> {
+				sideEffects.incrementAndGet();
+				assertSame(request, req);
+				res.getOutputStream().write("{\"jobId\":7}".getBytes(StandardCharsets.UTF_8));
+			});
+			assertEquals("{\"jobId\":7}", response.getContentAsString());
+		}
+
+		assertEquals(1, sideEffects.get());
+	}
+
+	// Si la instancia que tenía la clave se cayó, el reintento espera, reclama el lease vencido y ejecuta.
+	@Test
+	void retryReclaimsStaleClaim() throws Exception {
+		InMemoryStore store = new InMemoryStore() {
+			private final AtomicInteger claims = new AtomicInteger();
+
+			@Override
+			public boolean claim(String scopeKey, String fingerprint) {
+				return claims.incrementAndGet() > 1;
+			}
+		};
+		IdempotencyFilter filter = new IdempotencyFilter(store, Duration.ofMillis(100));
+		AtomicInteger sideEffects = new AtomicInteger();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transfers");
+		request.addHeader(IdempotencyFilter.HEADER, "pago-789");
+		request.setContent("{\"amount\":10}".getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, (req, res) -> sideEffects.incrementAndGet());
+
+		assertEquals(200, response.getStatus());
+		assertEquals(1, sideEffects.get());
+	}
+}
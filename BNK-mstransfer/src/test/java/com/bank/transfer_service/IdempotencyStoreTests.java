@@ -0,0 +1,65 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.idempotency.IdempotencyStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private IdempotencyStore store;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		store = new IdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(30),
+				DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+	}
+
+	// Una clave en curso se renueva mientras la petición corre y deja de renovarse al completarse
+	@Test
+	void leaseIsRenewedUntilCompleted() {
+		when(jdbcTemplate.update(anyString(), any(), any(), any(), any())).thenReturn(1);
+		store.claim("POST /api/transfers k1", "huella");
+
+		store.renewHeld();
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+		assertEquals("POST /api/transfers k1", rows.getValue().get(0)[1]);
+		assertEquals("huella", rows.getValue().get(0)[2]);
+
+		store.complete("POST /api/transfers k1", new IdempotencyStore.StoredResponse("huella", 201, null, new byte[0]));
+		store.renewHeld();
+		verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+	}
+
+	// Las respuestas en memoria se acotan por bytes: cuerpos grandes no se acumulan por cantidad
+	@Test
+	void memoryTierIsBoundedByBodySize() {
+		for (int i = 0; i < 5; i++) {
+			store.complete("POST /api/transfers/bulk k" + i,
+					new IdempotencyStore.StoredResponse("huella", 200, null, new byte[400 * 1024]));
+		}
+
+		Cache<String, IdempotencyStore.StoredResponse> memory = (Cache<String, IdempotencyStore.StoredResponse>)
+				ReflectionTestUtils.getField(store, "memory");
+		memory.cleanUp();
+		assertTrue(memory.policy().eviction().orElseThrow().weightedSize().getAsLong() <= DataSize.ofMegabytes(1).toBytes());
+		assertTrue(memory.estimatedSize() <= 2);
+	}
+}
@@ -0,0 +1,160 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.client.AccountClient;
+import com.bank.transfer_service.dto.AccountEventDTO;
+import com.bank.transfer_service.entity.OutboxEvent;
+import com.bank.transfer_service.entity.Transfer;
+import com.bank.transfer_service.repository.OutboxEventRepository;
+import com.bank.transfer_service.repository.TransferRepository;
+import com.bank.transfer_service.service.OutboxDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTests {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 15, 10, 0);
+
+	@Mock
+	private OutboxEventRepository outboxEventRepository;
+
+	@Mock
+	private TransferRepository transferRepository;
+
+	@Mock
+	private AccountClient accountClient;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@InjectMocks
+	private OutboxDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 200);
+		ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofSeconds(1));
+		ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofMinutes(5));
+	}
+
+	// 1. Orden por cuenta
+	// Si un evento queda sin resultado, los siguientes de su cuenta en el mismo lote
+	// no se marcan enviados; los de otras cuentas sí.
+	@Test
+	void eventWithoutResultHoldsBackLaterEventsOfSameAccount() throws Exception {
+		OutboxEvent unanswered = event(1L, 10L, 100L);
+		OutboxEvent sameAccount = event(2L, 10L, 101L);
+		OutboxEvent otherAccount = event(3L, 20L, 102L);
+		when(outboxEventRepository.findDue(eq(OutboxEvent.PENDING), any(LocalDateTime.class), any(Limit.class)))
+				.thenReturn(List.of(unanswered, sameAccount, otherAccount));
+		when(accountClient.sendEvents(anyList())).thenReturn(List.of(
+				result("transfer-service:2"), result("transfer-service:3")));
+
+		ReflectionTestUtils.invokeMethod(dispatcher, "dispatchBatch");
+
+		ArgumentCaptor<List<AccountEventDTO>> sent = ArgumentCaptor.forClass(List.class);
+		verify(accountClient).sendEvents(sent.capture());
+		assertEquals(3, sent.getValue().size());
+		assertEquals(OutboxEvent.PENDING, unanswered.getStatus());
+		assertEquals(1, unanswered.getAttempts());
+		assertNotNull(unanswered.getNextAttemptAt());
+		assertEquals(OutboxEvent.PENDING, sameAccount.getStatus());
+		assertNull(sameAccount.getNextAttemptAt());
+		assertEquals(OutboxEvent.SENT, otherAccount.getStatus());
+		verify(transferRepository).completePending(102L, CREATED_AT.minusDays(1), CREATED_AT, Transfer.COMPLETED, null);
+		verifyNoMoreInteractions(transferRepository);
+	}
+
+	// 2. Backoff ante fallo de red
+	// Verifica que el lote quede pendiente con un reintento programado.
+	@Test
+	void networkErrorSchedulesRetry() throws Exception {
+		OutboxEvent pending = event(1L, 10L, 100L);
+		when(outboxEventRepository.findDue(eq(OutboxEvent.PENDING), any(LocalDateTime.class), any(Limit.class)))
+				.thenReturn(List.of(pending));
+		when(accountClient.sendEvents(anyList())).thenThrow(new ResourceAccessException("timeout"));
+
+		ReflectionTestUtils.invokeMethod(dispatcher, "dispatchBatch");
+
+		assertEquals(OutboxEvent.PENDING, pending.getStatus());
+		assertEquals(1, pending.getAttempts());
+		assertNotNull(pending.getNextAttemptAt());
+		assertNull(pending.getSentAt());
+		verifyNoInteractions(transferRepository);
+	}
+
+	// 3. Payload ilegible
+	// El evento roto queda fallido con su error, sin reintento; los demás del lote se envían.
+	@Test
+	void unreadablePayloadIsDiscardedAndBatchContinues() throws Exception {
+		OutboxEvent broken = event(1L, 10L, 100L);
+		broken.setPayload("{roto");
+		OutboxEvent valid = event(2L, 20L, 101L);
+		when(outboxEventRepository.findDue(eq(OutboxEvent.PENDING), any(LocalDateTime.class), any(Limit.class)))
+				.thenReturn(List.of(broken, valid));
+		when(accountClient.sendEvents(anyList())).thenReturn(List.of(result("transfer-service:2")));
+
+		ReflectionTestUtils.invokeMethod(dispatcher, "dispatchBatch");
+
+		ArgumentCaptor<List<AccountEventDTO>> sent = ArgumentCaptor.forClass(List.class);
+		verify(accountClient).sendEvents(sent.capture());
+		assertEquals(1, sent.getValue().size());
+		assertEquals(OutboxEvent.FAILED, broken.getStatus());
+		assertNull(broken.getNextAttemptAt());
+		assertTrue(broken.getLastError().startsWith("Payload inválido"));
+		verify(transferRepository).completePending(eq(100L), eq(CREATED_AT.minusDays(1)), eq(CREATED_AT),
+				eq(Transfer.FAILED), startsWith("Payload inválido"));
+		assertEquals(OutboxEvent.SENT, valid.getStatus());
+	}
+
+	private AccountEventDTO result(String eventId) {
+		AccountEventDTO result = new AccountEventDTO();
+		result.setEventId(eventId);
+		result.setStatus(Transfer.COMPLETED);
+		return result;
+	}
+
+	private OutboxEvent event(Long id, Long accountId, Long transferId) throws Exception {
+		AccountEventDTO payload = new AccountEventDTO();
+		payload.setEventId("transfer-service:" + id);
+		payload.setAccountId(accountId);
+		payload.setAmount(BigDecimal.TEN);
+
+		OutboxEvent event = new OutboxEvent();
+		event.setId(id);
+		event.setAccountId(accountId);
+		event.setAggregateId(transferId);
+		event.setStatus(OutboxEvent.PENDING);
+		event.setCreatedAt(CREATED_AT);
+		event.setPayload(objectMapper.writeValueAsString(payload));
+		return event;
+	}
+}
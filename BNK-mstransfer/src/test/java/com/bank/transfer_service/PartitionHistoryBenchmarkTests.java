@@ -0,0 +1,92 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.service.PartitionMaintenance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Medición con PostgreSQL real; no corre en el build normal. Por defecto 1M y 10M filas;
+// la escala completa se pide aparte (tarda y ocupa disco):
+// mvn test -Dtest=PartitionHistoryBenchmarkTests -Dbenchmark=true -Dhistory.rows=1000000,100000000
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PartitionHistoryBenchmarkTests {
+
+	private static final int ROWS_PER_STATEMENT = 1_000_000;
+	private static final int ACCOUNTS = 10_000;
+	private static final int HISTORY_HOURS = 730 * 24; // dos años
+	private static final int QUERIES = 200;
+	private static final String MARKER = "HIST-";
+
+	private static final String INSERT_SQL = "INSERT INTO transfers (origin_account_id, " +
+			"destination_account_number, destination_bank, amount, status, transfer_date) " +
+			"SELECT g % " + ACCOUNTS + " + 1, '" + MARKER + "' || g, 'BCP', 10, 'completado', " +
+			"now() - (g % " + HISTORY_HOURS + ") * interval '1 hour' FROM generate_series(?::bigint, ?::bigint) g";
+
+	private static final String QUERY_SQL = "SELECT id, amount, transfer_date FROM transfers " +
+			"WHERE origin_account_id = ? AND transfer_date >= ? AND transfer_date < ? ORDER BY transfer_date DESC LIMIT 50";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PartitionMaintenance partitionMaintenance;
+
+	// Consulta de un mes de una cuenta con el historial creciendo de 1M a 100M filas: con la poda de
+	// particiones solo se lee el mes pedido, así que la latencia debe quedar casi plana
+	@Test
+	void monthQueryStaysFlatAsHistoryGrows() {
+		YearMonth current = YearMonth.now();
+		ReflectionTestUtils.invokeMethod(partitionMaintenance, "createPartitions", current.minusMonths(25), current);
+		YearMonth month = current.minusMonths(6);
+		Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+		Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+		long[] sizes = Arrays.stream(System.getProperty("history.rows", "1000000,10000000").split(","))
+				.mapToLong(Long::parseLong).sorted().toArray();
+		long inserted = 0;
+		long[] micros = new long[sizes.length];
+		for (int i = 0; i < sizes.length; i++) {
+			for (long next = inserted + 1; next <= sizes[i]; next += ROWS_PER_STATEMENT) {
+				jdbcTemplate.update(INSERT_SQL, next, Math.min(sizes[i], next + ROWS_PER_STATEMENT - 1));
+			}
+			inserted = sizes[i];
+			jdbcTemplate.execute("ANALYZE transfers");
+
+			List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + QUERY_SQL, String.class, 42L, from, to);
+			String scanned = String.join("\n", plan);
+			assertEquals(1, plan.stream().filter(line -> line.contains("transfers_p")).map(line ->
+					line.replaceAll(".*(transfers_p\\d{6}).*", "$1")).distinct().count(), scanned);
+			assertFalse(scanned.contains("transfers_default"), scanned);
+
+			for (int q = 0; q < QUERIES / 4; q++) {
+				jdbcTemplate.queryForList(QUERY_SQL, 42L, from, to); // calentamiento
+			}
+			long start = System.nanoTime();
+			for (int q = 0; q < QUERIES; q++) {
+				jdbcTemplate.queryForList(QUERY_SQL, (long) (q % ACCOUNTS) + 1, from, to);
+			}
+			micros[i] = (System.nanoTime() - start) / 1_000 / QUERIES;
+			System.out.printf("transfers: %d filas de historial, consulta de un mes %d µs%n", sizes[i], micros[i]);
+		}
+		assertTrue(micros[micros.length - 1] < micros[0] * 10);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM transfers WHERE destination_account_number LIKE ?", MARKER + "%");
+	}
+}
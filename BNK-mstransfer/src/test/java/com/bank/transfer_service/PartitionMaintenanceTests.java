@@ -0,0 +1,110 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.service.PartitionMaintenance;
+import com.bank.transfer_service.service.SettlementService;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PartitionMaintenanceTests {
+
+	// 1. Rango de meses
+	// Incluye ambos extremos y cruza el cambio de año.
+	@Test
+	void monthsIncludeBothEndsAcrossYears() {
+		List<YearMonth> months = ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "months",
+				YearMonth.of(2025, 11), YearMonth.of(2026, 2));
+		assertEquals(List.of(YearMonth.of(2025, 11), YearMonth.of(2025, 12), YearMonth.of(2026, 1), YearMonth.of(2026, 2)), months);
+	}
+
+	// 2. Límites de la partición
+	// Rango semiabierto del primer día del mes al primer día del siguiente.
+	@Test
+	void boundsCoverOneMonth() {
+		assertEquals("transfers_p202602", ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "partitionName",
+				"transfers", YearMonth.of(2026, 2)));
+		assertEquals(" FOR VALUES FROM ('2026-02-01') TO ('2026-03-01')",
+				ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "bounds", YearMonth.of(2026, 2)));
+		assertEquals(" FOR VALUES FROM ('2025-12-01') TO ('2026-01-01')",
+				ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "bounds", YearMonth.of(2025, 12)));
+	}
+
+	// 3. Nombres al desacoplar
+	// Solo las particiones mensuales tienen mes; DEFAULT y otras tablas se ignoran.
+	@Test
+	void onlyMonthlyPartitionsHaveMonth() {
+		assertEquals(YearMonth.of(2026, 1), partitionMonth("transfers_p202601"));
+		assertNull(partitionMonth("transfers_default"));
+		assertNull(partitionMonth("transfers_legacy"));
+		assertNull(partitionMonth("transfers_p2026xx"));
+		assertNull(partitionMonth("transfers_p202613"));
+		assertNull(partitionMonth("other_p202601"));
+	}
+
+	// 4. Retención
+	// Se desacoplan los meses anteriores al más antiguo conservado, nunca DEFAULT.
+	@Test
+	void detachSkipsDefaultAndRecentMonths() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		PartitionMaintenance maintenance = new PartitionMaintenance();
+		ReflectionTestUtils.setField(maintenance, "jdbcTemplate", jdbcTemplate);
+		when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("transfers")))
+				.thenReturn(List.of("transfers_p202312", "transfers_p202401", "transfers_default"));
+
+		ReflectionTestUtils.invokeMethod(maintenance, "detachOlderThan", YearMonth.of(2024, 1));
+
+		verify(jdbcTemplate).execute("ALTER TABLE transfers DETACH PARTITION transfers_p202312");
+		verify(jdbcTemplate, never()).execute("ALTER TABLE transfers DETACH PARTITION transfers_p202401");
+		verify(jdbcTemplate, never()).execute("ALTER TABLE transfers DETACH PARTITION transfers_default");
+	}
+
+	// 5. Filas en DEFAULT
+	// Si el mes nuevo ya tiene filas en DEFAULT, se mueven y la partición se acopla después.
+	@Test
+	void strayRowsAreMovedBeforeAttaching() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		PartitionMaintenance maintenance = new PartitionMaintenance();
+		ReflectionTestUtils.setField(maintenance, "jdbcTemplate", jdbcTemplate);
+		when(jdbcTemplate.queryForObject(eq("SELECT to_regclass(?) IS NOT NULL"), eq(Boolean.class), any(Object[].class)))
+				.thenReturn(false);
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), any(Object[].class)))
+				.thenReturn(true);
+
+		ReflectionTestUtils.invokeMethod(maintenance, "createPartitions", YearMonth.of(2026, 5), YearMonth.of(2026, 5));
+
+		var order = inOrder(jdbcTemplate);
+		order.verify(jdbcTemplate).execute("CREATE TABLE transfers_p202605 (LIKE transfers INCLUDING DEFAULTS)");
+		order.verify(jdbcTemplate).update(startsWith("WITH moved AS (DELETE FROM transfers_default"), any(Object[].class));
+		order.verify(jdbcTemplate).execute("ALTER TABLE transfers ATTACH PARTITION transfers_p202605" +
+				" FOR VALUES FROM ('2026-05-01') TO ('2026-06-01')");
+	}
+
+	// 6. Índice de la liquidación
+	// El predicado del índice parcial es el mismo filtro que reclama la liquidación, así el planificador lo usa.
+	@Test
+	void unsettledIndexMatchesSettlementClaim() {
+		String claim = (String) ReflectionTestUtils.getField(SettlementService.class, "CLAIM_SQL");
+		String index = Arrays.stream((String[]) ReflectionTestUtils.getField(PartitionMaintenance.class, "INDEXES"))
+				.filter(sql -> sql.contains("idx_transfers_unsettled"))
+				.findFirst().orElseThrow();
+
+		String predicate = index.substring(index.indexOf(" WHERE ") + 7);
+		assertTrue(claim.contains("WHERE " + predicate + " AND transfer_date < ?"), predicate);
+	}
+
+	private YearMonth partitionMonth(String partition) {
+		return ReflectionTestUtils.invokeMethod(PartitionMaintenance.class, "partitionMonth", "transfers", partition);
+	}
+}
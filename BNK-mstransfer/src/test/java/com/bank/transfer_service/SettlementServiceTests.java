@@ -0,0 +1,166 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.entity.Settlement;
+import com.bank.transfer_service.entity.SettlementLine;
+import com.bank.transfer_service.service.SettlementService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SettlementServiceTests {
+
+	@TempDir
+	Path directory;
+
+	private JdbcTemplate jdbcTemplate;
+	private SettlementService service;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		service = new SettlementService();
+		ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(service, "directory", directory.toString());
+		ReflectionTestUtils.setField(service, "parallelism", 2);
+		ReflectionTestUtils.invokeMethod(service, "startExecutor");
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.invokeMethod(service, "stopExecutor");
+	}
+
+	// 1. Reclamo en lotes
+	// Sigue reclamando mientras el lote venga lleno y se detiene con el primero incompleto.
+	@Test
+	void claimRepeatsUntilPartialBatch() {
+		LocalDateTime cutoff = LocalDateTime.of(2026, 3, 31, 0, 0);
+		when(jdbcTemplate.update(anyString(), eq(7L), eq(cutoff), anyInt())).thenReturn(10_000, 10_000, 3);
+
+		ReflectionTestUtils.invokeMethod(service, "claim", 7L, cutoff);
+
+		verify(jdbcTemplate, times(3)).update(anyString(), eq(7L), eq(cutoff), anyInt());
+	}
+
+	// 2. Netos por banco
+	// Las porciones del rango de ids se suman por banco destino.
+	@Test
+	void netsAreMergedAcrossSlices() {
+		when(jdbcTemplate.queryForMap(anyString(), eq(7L))).thenReturn(Map.of("lo", 1L, "hi", 80L));
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(7L), anyLong(), anyLong()))
+				.thenAnswer(invocation -> {
+					long from = invocation.getArgument(3);
+					SettlementLine a = new SettlementLine(7L, "BANCO A", 1L, new BigDecimal("10.00"));
+					return from == 1L ? List.of(a, new SettlementLine(7L, "BANCO B", 2L, new BigDecimal("5.50"))) : List.of(a);
+				});
+
+		Map<String, SettlementLine> nets = ReflectionTestUtils.invokeMethod(service, "computeNets", 7L);
+
+		// 2 hilos, 4 porciones por hilo
+		verify(jdbcTemplate, times(8)).query(anyString(), any(RowMapper.class), eq(7L), anyLong(), anyLong());
+		assertEquals(List.of("BANCO A", "BANCO B"), List.copyOf(nets.keySet()));
+		assertEquals(8L, nets.get("BANCO A").getTransferCount());
+		assertEquals(new BigDecimal("80.00"), nets.get("BANCO A").getTotalAmount());
+		assertEquals(2L, nets.get("BANCO B").getTransferCount());
+	}
+
+	// 3. Archivo cuadrado
+	// Detalle y netos coinciden: se publica con cabecera, detalle, netos y totales.
+	@Test
+	void fileIsPublishedWhenDetailMatchesNets() throws Exception {
+		streamDetail(new BigDecimal("10.00"));
+		Settlement settlement = settlement(1L, new BigDecimal("10.00"));
+
+		Path file = ReflectionTestUtils.invokeMethod(service, "writeFile", settlement,
+				Map.of("BANCO A", new SettlementLine(7L, "BANCO A", 1L, new BigDecimal("10.00"))));
+
+		List<String> lines;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+			lines = reader.lines().collect(Collectors.toList());
+		}
+		assertEquals(4, lines.size());
+		assertEquals("D,100,5,BANCO A,123,10.00,2026-03-30T10:00", lines.get(1));
+		assertEquals("T,BANCO A,1,10.00", lines.get(2));
+		assertEquals("F,1,10.00", lines.get(3));
+	}
+
+	// 4. Archivo descuadrado
+	// Si el detalle no suma lo mismo que los netos, no queda ningún archivo publicado.
+	@Test
+	void mismatchedDetailIsNotPublished() throws Exception {
+		streamDetail(new BigDecimal("10.00"));
+		Settlement settlement = settlement(2L, new BigDecimal("30.00"));
+
+		assertThrows(IllegalStateException.class, () -> ReflectionTestUtils.invokeMethod(service, "writeFile",
+				settlement, Map.of("BANCO A", new SettlementLine(7L, "BANCO A", 2L, new BigDecimal("30.00")))));
+		try (var files = Files.list(directory)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	// 5. Hilos de netos
+	// Sin parallelism explícito no se pasa de la mitad del pool de conexiones.
+	@Test
+	void netThreadsAreBoundedByPool() {
+		assertEquals(7, (int) ReflectionTestUtils.invokeMethod(SettlementService.class, "netThreads", 0, 15, 32));
+		assertEquals(4, (int) ReflectionTestUtils.invokeMethod(SettlementService.class, "netThreads", 0, 15, 4));
+		assertEquals(1, (int) ReflectionTestUtils.invokeMethod(SettlementService.class, "netThreads", 0, 1, 8));
+		assertEquals(12, (int) ReflectionTestUtils.invokeMethod(SettlementService.class, "netThreads", 12, 15, 4));
+	}
+
+	private Settlement settlement(long transferCount, BigDecimal totalAmount) {
+		Settlement settlement = new Settlement();
+		settlement.setId(7L);
+		settlement.setCutoff(LocalDateTime.of(2026, 3, 31, 0, 0));
+		settlement.setTransferCount(transferCount);
+		settlement.setTotalAmount(totalAmount);
+		return settlement;
+	}
+
+	// Una sola transferencia en el detalle
+	private void streamDetail(BigDecimal amount) throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getLong(1)).thenReturn(100L);
+		when(rs.getLong(2)).thenReturn(5L);
+		when(rs.getString(3)).thenReturn("BANCO A");
+		when(rs.getString(4)).thenReturn("123");
+		when(rs.getBigDecimal(5)).thenReturn(amount);
+		when(rs.getTimestamp(6)).thenReturn(Timestamp.valueOf(LocalDateTime.of(2026, 3, 30, 10, 0)));
+		doAnswer(invocation -> {
+			((RowCallbackHandler) invocation.getArgument(1)).processRow(rs);
+			return null;
+		}).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+	}
+}
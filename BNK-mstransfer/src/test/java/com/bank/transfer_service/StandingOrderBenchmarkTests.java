@@ -0,0 +1,97 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.service.StandingOrderScheduler;
+import com.bank.transfer_service.service.TransferBatchWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Medición con PostgreSQL real; no corre en el build normal:
+// mvn test -Dtest=StandingOrderBenchmarkTests -Dbenchmark=true [-Dstanding-orders.rows=1000000]
+@SpringBootTest(properties = "standing-orders.enabled=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StandingOrderBenchmarkTests {
+
+	private static final int ROWS = Integer.getInteger("standing-orders.rows", 1_000_000);
+	private static final Duration TARGET = Duration.ofMinutes(10);
+	private static final String MARKER = "SO-BENCH-";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransferBatchWriter transferBatchWriter;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	// Inicio de mes: todas las mensuales vencen a la vez y dos instancias compiten por ellas;
+	// cada orden debe ejecutarse exactamente una vez y el total quedar dentro del objetivo
+	@Test
+	void monthStartIsDrainedOnceByTwoInstances() {
+		jdbcTemplate.update("INSERT INTO standing_orders (id, origin_account_id, destination_account_number, " +
+				"destination_bank, amount, frequency, day_of_month, next_run_at, status, executions, created_at) " +
+				"SELECT nextval('standing_orders_seq'), g % 1000 + 1, ? || g, 'BCP', 10, 'mensual', 1, " +
+				"date_trunc('month', now()), 'activo', 0, now() FROM generate_series(1, ?) g", MARKER, ROWS);
+		List<StandingOrderScheduler> instances = List.of(instance(), instance());
+
+		long start = System.nanoTime();
+		while (pending() > 0 && System.nanoTime() - start < TARGET.toNanos()) {
+			CompletableFuture.allOf(instances.stream()
+					.map(instance -> CompletableFuture.runAsync(instance::tick))
+					.toArray(CompletableFuture[]::new)).join();
+		}
+		long elapsed = (System.nanoTime() - start) / 1_000_000;
+		instances.forEach(instance -> ReflectionTestUtils.invokeMethod(instance, "stopExecutor"));
+
+		Map<String, Object> executions = jdbcTemplate.queryForMap("SELECT count(*) AS orders, " +
+				"min(executions) AS min, max(executions) AS max FROM standing_orders " +
+				"WHERE destination_account_number LIKE ?", MARKER + "%");
+		Long transfers = jdbcTemplate.queryForObject("SELECT count(*) FROM transfers " +
+				"WHERE destination_account_number LIKE ?", Long.class, MARKER + "%");
+		System.out.printf("standing_orders: %d órdenes vencidas a la vez, 2 instancias, %d ms%n", ROWS, elapsed);
+		assertEquals(1L, ((Number) executions.get("min")).longValue());
+		assertEquals(1L, ((Number) executions.get("max")).longValue());
+		assertEquals((long) ROWS, transfers);
+		assertTrue(elapsed < TARGET.toMillis());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM transfers WHERE destination_account_number LIKE ?", MARKER + "%");
+		jdbcTemplate.update("DELETE FROM standing_orders WHERE destination_account_number LIKE ?", MARKER + "%");
+	}
+
+	private long pending() {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM standing_orders " +
+				"WHERE destination_account_number LIKE ? AND executions = 0", Long.class, MARKER + "%");
+	}
+
+	// Instancia del scheduler cableada a mano, como un pod más sobre la misma base
+	private StandingOrderScheduler instance() {
+		StandingOrderScheduler scheduler = new StandingOrderScheduler();
+		ReflectionTestUtils.setField(scheduler, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(scheduler, "transferBatchWriter", transferBatchWriter);
+		ReflectionTestUtils.setField(scheduler, "transactionManager", transactionManager);
+		ReflectionTestUtils.setField(scheduler, "enabled", true);
+		ReflectionTestUtils.setField(scheduler, "window", Duration.ofMinutes(1));
+		ReflectionTestUtils.setField(scheduler, "windowCapacity", 100_000);
+		ReflectionTestUtils.setField(scheduler, "batchSize", 500);
+		ReflectionTestUtils.setField(scheduler, "parallelism", 4);
+		ReflectionTestUtils.invokeMethod(scheduler, "startExecutor");
+		return scheduler;
+	}
+}
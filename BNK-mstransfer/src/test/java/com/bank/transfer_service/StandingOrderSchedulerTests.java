@@ -0,0 +1,179 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.entity.StandingOrder;
+import com.bank.transfer_service.entity.Transfer;
+import com.bank.transfer_service.service.StandingOrderScheduler;
+import com.bank.transfer_service.service.TransferBatchWriter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StandingOrderSchedulerTests {
+
+	private LocalDateTime nextRun(String frequency, Integer dayOfMonth, LocalDateTime from, LocalDateTime now) {
+		return ReflectionTestUtils.invokeMethod(StandingOrderScheduler.class, "nextRun", frequency, dayOfMonth, from, now);
+	}
+
+	// Las mensuales conservan el día ancla aunque un mes corto las haya movido
+	@Test
+	void monthlyKeepsAnchorDay() {
+		LocalDateTime jan31 = LocalDateTime.of(2026, 1, 31, 8, 0);
+		LocalDateTime feb = nextRun(StandingOrder.MONTHLY, 31, jan31, jan31);
+		assertEquals(LocalDateTime.of(2026, 2, 28, 8, 0), feb);
+		assertEquals(LocalDateTime.of(2026, 3, 31, 8, 0), nextRun(StandingOrder.MONTHLY, 31, feb, feb));
+	}
+
+	// Tras una caída larga no se ejecutan en ráfaga los períodos perdidos
+	@Test
+	void missedPeriodsAreSkipped() {
+		LocalDateTime due = LocalDateTime.of(2026, 3, 2, 9, 0);
+		LocalDateTime now = LocalDateTime.of(2026, 3, 25, 12, 0);
+		assertEquals(LocalDateTime.of(2026, 3, 30, 9, 0), nextRun(StandingOrder.WEEKLY, null, due, now));
+	}
+
+	// Ventana truncada por capacidad: termina en la última fila cargada y se recarga al vaciarse la cola
+	@Test
+	void truncatedWindowReloadsWhenDrained() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		StandingOrderScheduler scheduler = scheduler(jdbcTemplate, 2);
+		LocalDateTime now = LocalDateTime.of(2026, 4, 1, 0, 0);
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Timestamp.class), eq(2)))
+				.thenAnswer(invocation -> List.of(due(invocation, 1L, now.minusSeconds(5)), due(invocation, 2L, now)))
+				.thenAnswer(invocation -> List.of(due(invocation, 3L, now)));
+
+		assertEquals(List.of(1L, 2L), pollDue(scheduler, now));
+		// Una orden nueva después del final de la ventana truncada no entra a la cola: la trae la recarga
+		scheduler.schedule(9L, now.plusSeconds(1));
+		assertEquals(List.of(3L), pollDue(scheduler, now));
+		verify(jdbcTemplate, times(2)).query(anyString(), any(RowMapper.class), any(Timestamp.class), eq(2));
+	}
+
+	// Reclamo con SKIP LOCKED: solo se ejecutan y avanzan las órdenes que este lote pudo bloquear
+	@Test
+	void onlyClaimedOrdersAreExecuted() throws Exception {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		TransferBatchWriter writer = mock(TransferBatchWriter.class);
+		StandingOrderScheduler scheduler = scheduler(jdbcTemplate, 100);
+		ReflectionTestUtils.setField(scheduler, "transferBatchWriter", writer);
+		LocalDateTime now = LocalDateTime.of(2026, 4, 1, 0, 0);
+
+		StandingOrder claimed = new StandingOrder();
+		claimed.setId(1L);
+		claimed.setOriginAccountId(10L);
+		claimed.setDestinationAccountNumber("DEST");
+		claimed.setDestinationBank("BCP");
+		claimed.setAmount(BigDecimal.TEN);
+		claimed.setFrequency(StandingOrder.MONTHLY);
+		claimed.setDayOfMonth(1);
+		claimed.setNextRunAt(now);
+		// La orden 2 la tiene bloqueada otra instancia: el SELECT ... SKIP LOCKED no la devuelve
+		when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of(claimed));
+		when(writer.insert(anyList())).thenReturn(List.of(100L));
+
+		ReflectionTestUtils.invokeMethod(scheduler, "runBatch", List.of(1L, 2L), now);
+
+		ArgumentCaptor<PreparedStatementCreator> claim = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+		verify(jdbcTemplate).query(claim.capture(), any(RowMapper.class));
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+		when(connection.createArrayOf(eq("bigint"), any())).thenReturn(mock(Array.class));
+		claim.getValue().createPreparedStatement(connection);
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		verify(connection).prepareStatement(sql.capture());
+		assertTrue(sql.getValue().contains("next_run_at <= ? FOR UPDATE SKIP LOCKED"));
+
+		ArgumentCaptor<List<Transfer>> transfers = ArgumentCaptor.forClass(List.class);
+		verify(writer).insert(transfers.capture());
+		assertEquals(1, transfers.getValue().size());
+		ArgumentCaptor<List<Object[]>> advances = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), advances.capture());
+		assertEquals(1, advances.getValue().size());
+		assertEquals(Timestamp.valueOf(LocalDateTime.of(2026, 5, 1, 0, 0)), advances.getValue().get(0)[0]);
+		assertEquals(100L, advances.getValue().get(0)[3]);
+		assertEquals(1L, advances.getValue().get(0)[4]);
+	}
+
+	// Lote con una orden que falla: se repite de a una, las sanas se ejecutan y la culpable queda suspendida
+	@Test
+	void failedBatchIsRetriedOneOrderAtATime() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		TransferBatchWriter writer = mock(TransferBatchWriter.class);
+		StandingOrderScheduler scheduler = scheduler(jdbcTemplate, 100);
+		ReflectionTestUtils.setField(scheduler, "transferBatchWriter", writer);
+		LocalDateTime now = LocalDateTime.of(2026, 4, 1, 0, 0);
+		StandingOrder first = order(1L, "DEST-1", now);
+		StandingOrder broken = order(2L, "ROTA", now);
+		StandingOrder third = order(3L, "DEST-3", now);
+		when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+				.thenReturn(List.of(first, broken, third), List.of(first), List.of(broken), List.of(third));
+		when(writer.insert(anyList())).thenAnswer(invocation -> {
+			List<Transfer> transfers = invocation.getArgument(0);
+			if (transfers.stream().anyMatch(t -> "ROTA".equals(t.getDestinationAccountNumber()))) {
+				throw new IllegalStateException("Cuenta destino inválida");
+			}
+			return List.of(100L);
+		});
+
+		ReflectionTestUtils.invokeMethod(scheduler, "runBatchOrIsolate", List.of(1L, 2L, 3L), now);
+
+		verify(writer, times(4)).insert(anyList());
+		verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+		verify(jdbcTemplate).update(contains("status = 'suspendido'"), eq("Cuenta destino inválida"), eq(2L));
+	}
+
+	private StandingOrder order(Long id, String destination, LocalDateTime nextRunAt) {
+		StandingOrder order = new StandingOrder();
+		order.setId(id);
+		order.setOriginAccountId(10L);
+		order.setDestinationAccountNumber(destination);
+		order.setDestinationBank("BCP");
+		order.setAmount(BigDecimal.TEN);
+		order.setFrequency(StandingOrder.MONTHLY);
+		order.setNextRunAt(nextRunAt);
+		return order;
+	}
+
+	private StandingOrderScheduler scheduler(JdbcTemplate jdbcTemplate, int windowCapacity) {
+		StandingOrderScheduler scheduler = new StandingOrderScheduler();
+		ReflectionTestUtils.setField(scheduler, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(scheduler, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(scheduler, "window", Duration.ofMinutes(1));
+		ReflectionTestUtils.setField(scheduler, "windowCapacity", windowCapacity);
+		return scheduler;
+	}
+
+	private List<Long> pollDue(StandingOrderScheduler scheduler, LocalDateTime now) {
+		return ReflectionTestUtils.invokeMethod(scheduler, "pollDue", now);
+	}
+
+	// Pasa la fila por el RowMapper real del scheduler
+	private Object due(org.mockito.invocation.InvocationOnMock invocation, long id, LocalDateTime at) throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getLong(1)).thenReturn(id);
+		when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(at));
+		return ((RowMapper<?>) invocation.getArgument(1)).mapRow(rs, 0);
+	}
+}
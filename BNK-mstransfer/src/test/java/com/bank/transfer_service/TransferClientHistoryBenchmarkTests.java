@@ -0,0 +1,110 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.client.ClientAccountsCache;
+import com.bank.transfer_service.repository.TransferRepository;
+import com.bank.transfer_service.service.PartitionMaintenance;
+import com.bank.transfer_service.service.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+// Medición con PostgreSQL real; no corre en el build normal:
+// mvn test -Dtest=TransferClientHistoryBenchmarkTests -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TransferClientHistoryBenchmarkTests {
+
+	private static final int ROWS = 1_000_000;
+	private static final int ACCOUNTS = 10_000;
+	private static final int HISTORY_HOURS = 730 * 24; // dos años
+	private static final int QUERIES = 200;
+	private static final long CLIENT_ID = 42L;
+	private static final String MARKER = "CLIENT-HIST-";
+
+	private static final String INSERT_SQL = "INSERT INTO transfers (origin_account_id, " +
+			"destination_account_number, destination_bank, amount, status, transfer_date) " +
+			"SELECT g % " + ACCOUNTS + " + 1, '" + MARKER + "' || g, 'BCP', 10, 'completado', " +
+			"now() - (g % " + HISTORY_HOURS + ") * interval '1 hour' FROM generate_series(1, ?) g";
+
+	private static final String PLAN_SQL = "EXPLAIN SELECT * FROM transfers WHERE origin_account_id IN (1, 2, 3) " +
+			"AND transfer_date >= ? AND transfer_date < ? ORDER BY transfer_date DESC, id DESC LIMIT 100";
+
+	@Autowired
+	private TransferService transferService;
+
+	@Autowired
+	private TransferRepository transferRepository;
+
+	@Autowired
+	private PartitionMaintenance partitionMaintenance;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockitoBean
+	private ClientAccountsCache clientAccountsCache;
+
+	// Un millón de transferencias en dos años: sin from/to el historial del cliente solo debe leer
+	// las particiones de la ventana por defecto, y responder más rápido que con los límites 1970/9999
+	@Test
+	void defaultWindowPrunesOldPartitions() {
+		YearMonth current = YearMonth.now();
+		ReflectionTestUtils.invokeMethod(partitionMaintenance, "createPartitions", current.minusMonths(25), current);
+		jdbcTemplate.update(INSERT_SQL, ROWS);
+		jdbcTemplate.execute("ANALYZE transfers");
+		List<Long> accounts = LongStream.rangeClosed(1, 10).boxed().toList();
+		when(clientAccountsCache.getAccountIds(CLIENT_ID)).thenReturn(accounts);
+
+		LocalDateTime now = LocalDateTime.now();
+		long windowed = partitions(now.minusDays(365), now.plusDays(1));
+		long unbounded = partitions(LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 0, 0));
+		assertTrue(windowed <= 14 && windowed < unbounded, windowed + " de " + unbounded + " particiones");
+
+		for (int q = 0; q < QUERIES / 4; q++) {
+			transferService.getTransfersByClientId(CLIENT_ID, null, null, q % 5, 100); // calentamiento
+		}
+		long start = System.nanoTime();
+		for (int q = 0; q < QUERIES; q++) {
+			transferRepository.findByOriginAccounts(accounts, LocalDateTime.of(1970, 1, 1, 0, 0),
+					LocalDateTime.of(9999, 12, 31, 0, 0), PageRequest.of(q % 5, 100));
+		}
+		long before = (System.nanoTime() - start) / 1_000 / QUERIES;
+		start = System.nanoTime();
+		for (int q = 0; q < QUERIES; q++) {
+			assertEquals(100, transferService.getTransfersByClientId(CLIENT_ID, null, null, q % 5, 100).size());
+		}
+		long after = (System.nanoTime() - start) / 1_000 / QUERIES;
+
+		System.out.printf("transfers: %d filas, historial de cliente 1970/9999 %d µs (%d particiones), " +
+				"ventana por defecto %d µs (%d particiones)%n", ROWS, before, unbounded, after, windowed);
+		assertTrue(after <= before);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM transfers WHERE destination_account_number LIKE ?", MARKER + "%");
+	}
+
+	// Particiones que aparecen en el plan para el rango dado
+	private long partitions(LocalDateTime from, LocalDateTime to) {
+		return jdbcTemplate.queryForList(PLAN_SQL, String.class, Timestamp.valueOf(from), Timestamp.valueOf(to))
+				.stream().filter(line -> line.matches(".*transfers_(p\\d{6}|default).*"))
+				.map(line -> line.replaceAll(".*(transfers_(p\\d{6}|default)).*", "$1")).distinct().count();
+	}
+}
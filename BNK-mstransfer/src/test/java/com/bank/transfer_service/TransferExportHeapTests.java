@@ -0,0 +1,70 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.service.ExportWriter;
+import com.bank.transfer_service.service.TransferExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Necesita PostgreSQL y un heap chico; no corre en el build normal:
+// mvn test -Dtest=TransferExportHeapTests -Dbenchmark=true -DargLine=-Xmx96m
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TransferExportHeapTests {
+
+	private static final long ROWS = 5_000_000;
+	private static final long MAX_HEAP = 128L * 1024 * 1024;
+	private static final long ACCOUNT_ID = 987_654_321L;
+
+	@Autowired
+	private TransferExportService transferExportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Exporta 5M filas de una cuenta con un heap mucho menor que el resultado: si el cursor no
+	// trajera las filas por tandas, la prueba terminaría en OutOfMemoryError
+	@Test
+	void exportsFiveMillionRowsWithSmallHeap() throws Exception {
+		assumeTrue(Runtime.getRuntime().maxMemory() <= MAX_HEAP, "Correr con -DargLine=-Xmx96m");
+		jdbcTemplate.update("INSERT INTO transfers (origin_account_id, destination_account_number, destination_bank, " +
+				"amount, status, transfer_date) SELECT ?, 'EXPORT-' || g, 'BCP', 10, 'completado', now() - g * interval '1 second' " +
+				"FROM generate_series(1, ?) g", ACCOUNT_ID, ROWS);
+
+		long[] lines = {0};
+		OutputStream counter = new OutputStream() {
+			@Override
+			public void write(int b) {
+				if (b == '\n') {
+					lines[0]++;
+				}
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				for (int i = off; i < off + len; i++) {
+					write(b[i]);
+				}
+			}
+		};
+		long start = System.nanoTime();
+		transferExportService.export(ExportWriter.CSV, ACCOUNT_ID, null, null, null, false, counter);
+
+		System.out.printf("exportación: %d filas en %d ms con heap máximo de %d MB%n", ROWS,
+				(System.nanoTime() - start) / 1_000_000, Runtime.getRuntime().maxMemory() / (1024 * 1024));
+		assertEquals(ROWS + 1, lines[0]); // más la cabecera
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM transfers WHERE origin_account_id = ?", ACCOUNT_ID);
+	}
+}
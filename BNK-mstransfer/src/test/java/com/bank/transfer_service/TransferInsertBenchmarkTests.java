@@ -0,0 +1,84 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.entity.Transfer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Medición con PostgreSQL real; no corre en el build normal:
+// mvn test -Dtest=TransferInsertBenchmarkTests -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TransferInsertBenchmarkTests {
+
+	private static final int ROWS = 100_000;
+	private static final int ROWS_PER_TRANSACTION = 1_000;
+	private static final String MARKER = "BENCH-";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Inserta 100k filas con lotes JDBC desactivados (un viaje por fila, como con IDENTITY) y con
+	// el tamaño de lote configurado; los ids salen de la secuencia en bloques en ambos casos
+	@Test
+	void bulkInsertBeforeAndAfterJdbcBatching() {
+		insert(ROWS_PER_TRANSACTION, 50); // calentamiento
+
+		long rowByRow = insert(ROWS, 1);
+		long batched = insert(ROWS, 50);
+
+		System.out.printf("transfers: %d filas, sin lotes %d ms, con lotes %d ms%n", ROWS, rowByRow, batched);
+		assertTrue(batched < rowByRow);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM transfers WHERE destination_account_number LIKE ?", MARKER + "%");
+	}
+
+	private long insert(int rows, int jdbcBatchSize) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		long start = System.nanoTime();
+		for (int done = 0; done < rows; done += ROWS_PER_TRANSACTION) {
+			int offset = done;
+			transaction.executeWithoutResult(status -> {
+				Session session = entityManager.unwrap(Session.class);
+				session.setJdbcBatchSize(jdbcBatchSize);
+				for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+					entityManager.persist(row(offset + i));
+				}
+				entityManager.flush();
+				entityManager.clear();
+			});
+		}
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	private Transfer row(int i) {
+		Transfer transfer = new Transfer();
+		transfer.setOriginAccountId((long) (i % 1000) + 1);
+		transfer.setDestinationAccountNumber(MARKER + i);
+		transfer.setDestinationBank("BCP");
+		transfer.setAmount(BigDecimal.TEN);
+		transfer.setStatus(Transfer.COMPLETED);
+		return transfer;
+	}
+}
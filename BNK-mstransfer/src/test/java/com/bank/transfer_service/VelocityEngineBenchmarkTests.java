@@ -0,0 +1,80 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.service.VelocityEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Medición JMH en memoria; no corre en el build normal:
+// mvn test -Dtest=VelocityEngineBenchmarkTests -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class VelocityEngineBenchmarkTests {
+
+	private static final int ACCOUNTS = 10_000;
+	private static final double TARGET_MICROS = 50;
+	private static final String[] DESTINATIONS = {"DEST-0", "DEST-1", "DEST-2", "DEST-3",
+			"DEST-4", "DEST-5", "DEST-6", "DEST-7"};
+
+	// Un solo motor compartido por los 8 hilos, como en el servicio
+	private VelocityEngine engine;
+
+	// Todos los límites activos y destinos ya conocidos (sin ir a la base)
+	@Setup
+	public void setUp() {
+		engine = new VelocityEngine();
+		ReflectionTestUtils.setField(engine, "enabled", true);
+		ReflectionTestUtils.setField(engine, "maxCountPerMinute", 1_000_000_000L);
+		ReflectionTestUtils.setField(engine, "maxCountPerHour", 1_000_000_000L);
+		ReflectionTestUtils.setField(engine, "maxCountPerDay", 1_000_000_000L);
+		ReflectionTestUtils.setField(engine, "maxAmountPerMinute", new BigDecimal("1000000000000"));
+		ReflectionTestUtils.setField(engine, "maxAmountPerHour", new BigDecimal("1000000000000"));
+		ReflectionTestUtils.setField(engine, "maxAmountPerDay", new BigDecimal("1000000000000"));
+		ReflectionTestUtils.setField(engine, "maxFirstTimeDestinationAmount", BigDecimal.ZERO);
+	}
+
+	@Benchmark
+	public String checkAndRecord() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return engine.checkAndRecord(random.nextLong(1, ACCOUNTS + 1), DESTINATIONS[random.nextInt(DESTINATIONS.length)],
+				BigDecimal.TEN);
+	}
+
+	// El costo por transferencia debe quedar muy por debajo de 50 µs aun con hilos compitiendo
+	@Test
+	void checkAndRecordStaysUnderTarget() throws Exception {
+		for (RunResult result : new Runner(new OptionsBuilder()
+				.include(VelocityEngineBenchmarkTests.class.getName() + ".checkAndRecord")
+				.build()).run()) {
+			double micros = result.getPrimaryResult().getScore();
+			System.out.printf("velocidad: 8 hilos, %.2f µs por chequeo%n", micros);
+			assertTrue(micros < TARGET_MICROS);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.bank.transfer_service;
+
+import com.bank.transfer_service.service.VelocityEngine;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VelocityEngineTests {
+
+	private VelocityEngine engine(long maxPerMinute, long maxPerDay, String maxAmountPerHour) {
+		VelocityEngine engine = new VelocityEngine();
+		ReflectionTestUtils.setField(engine, "enabled", true);
+		ReflectionTestUtils.setField(engine, "maxCountPerMinute", maxPerMinute);
+		ReflectionTestUtils.setField(engine, "maxCountPerHour", 0L);
+		ReflectionTestUtils.setField(engine, "maxCountPerDay", maxPerDay);
+		ReflectionTestUtils.setField(engine, "maxAmountPerMinute", BigDecimal.ZERO);
+		ReflectionTestUtils.setField(engine, "maxAmountPerHour", new BigDecimal(maxAmountPerHour));
+		ReflectionTestUtils.setField(engine, "maxAmountPerDay", BigDecimal.ZERO);
+		ReflectionTestUtils.setField(engine, "maxFirstTimeDestinationAmount", BigDecimal.ZERO);
+		return engine;
+	}
+
+	// 1. Límite de cantidad por minuto
+	// Verifica que la transferencia que supera el límite se rechace y no afecte a otra cuenta.
+	@Test
+	void rejectsOverCountLimit() {
+		VelocityEngine engine = engine(3, 0, "0");
+		for (int i = 0; i < 3; i++) {
+			assertNull(engine.checkAndRecord(1L, "DEST", BigDecimal.TEN));
+		}
+		assertNotNull(engine.checkAndRecord(1L, "DEST", BigDecimal.TEN));
+		assertNull(engine.checkAndRecord(2L, "DEST", BigDecimal.TEN));
+	}
+
+	// 2. Límite de monto por hora
+	// Verifica que se sume el monto pedido al acumulado de la ventana.
+	@Test
+	void rejectsOverAmountLimit() {
+		VelocityEngine engine = engine(0, 0, "100.00");
+		assertNull(engine.checkAndRecord(1L, "DEST", new BigDecimal("60.00")));
+		assertNotNull(engine.checkAndRecord(1L, "DEST", new BigDecimal("40.01")));
+		assertNull(engine.checkAndRecord(1L, "DEST", new BigDecimal("40.00")));
+	}
+
+	// 3. Concurrencia sobre la misma cuenta
+	// Muchos hilos compiten por el mismo límite: se aceptan exactamente tantas como permite.
+	@Test
+	void countsExactlyUnderContention() throws Exception {
+		VelocityEngine engine = engine(0, 5000, "0");
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int t = 0; t < 16; t++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				int accepted = 0;
+				for (int i = 0; i < 1000; i++) {
+					if (engine.checkAndRecord(7L, "DEST", BigDecimal.ONE) == null) {
+						accepted++;
+					}
+				}
+				return accepted;
+			}));
+		}
+		start.countDown();
+		int accepted = 0;
+		for (Future<Integer> result : results) {
+			accepted += result.get();
+		}
+		executor.shutdown();
+
+		assertEquals(5000, accepted);
+	}
+
+	// 4. Transacción que no confirma
+	// La reserva se descuenta si la transacción se revierte y se mantiene si confirma.
+	@Test
+	void rolledBackTransferReleasesItsReservation() {
+		VelocityEngine engine = engine(1, 0, "0");
+
+		completeInTransaction(engine, TransactionSynchronization.STATUS_ROLLED_BACK);
+		completeInTransaction(engine, TransactionSynchronization.STATUS_COMMITTED);
+
+		assertNotNull(engine.checkAndRecord(1L, "DEST", BigDecimal.TEN));
+	}
+
+	// 5. Destino nuevo
+	// La consulta de destinos conocidos mira solo el período configurado; sin transferencias ahí, el monto alto se rechaza.
+	@Test
+	void firstTimeDestinationLooksBackOnlyTheConfiguredPeriod() {
+		VelocityEngine engine = engine(0, 0, "0");
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		ReflectionTestUtils.setField(engine, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(engine, "maxFirstTimeDestinationAmount", new BigDecimal("100"));
+		ReflectionTestUtils.setField(engine, "knownDestinationLookback", Duration.ofDays(30));
+		when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(false);
+
+		assertNotNull(engine.checkAndRecord(1L, "NEW", new BigDecimal("500")));
+
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate).queryForObject(contains("transfer_date >= ?"), eq(Boolean.class), args.capture());
+		LocalDateTime since = ((Timestamp) args.getValue()[1]).toLocalDateTime();
+		assertTrue(Duration.between(since, LocalDateTime.now().minusDays(30)).abs().toMinutes() < 1);
+	}
+
+	private void completeInTransaction(VelocityEngine engine, int status) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			assertNull(engine.checkAndRecord(1L, "DEST", BigDecimal.TEN));
+			TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+}